@@ -1,5 +1,6 @@
 package clinic;
 import util.Date;
+import util.OutputBuffer;
 
 /**
  * Represents an appointment in a clinic system, storing information such as 
@@ -32,19 +33,19 @@ public class Appointment implements Comparable<Appointment> {
      * @param provider The provider (doctor/technician) for the appointment.
      */
     public Appointment(Date date, Timeslot timeslot, Person patient, Person provider) {
-        this.date = new Date(date);
+        this.date = date; // Dates are immutable, so the shared instance is kept rather than copied
         this.timeslot = timeslot;
         this.patient = patient;
         this.provider = provider;
     }
 
     /**
-     * Copy constructor to create a deep copy of another appointment.
+     * Copy constructor to create a copy of another appointment.
      *
      * @param targetAppointment The appointment to copy from.
      */
     public Appointment(Appointment targetAppointment) {
-        this.date = new Date(targetAppointment.getDate());
+        this.date = targetAppointment.getDate();
         this.timeslot = targetAppointment.getTimeslot();
         this.patient = targetAppointment.getPatient();
         this.provider = targetAppointment.getProvider();
@@ -101,6 +102,21 @@ public class Appointment implements Comparable<Appointment> {
         return result.toString();
     }
 
+    /**
+     * Writes the appointment in the same format as toString, straight into an output buffer.
+     *
+     * @param out The buffer to write to.
+     */
+    public void formatTo(OutputBuffer out) {
+        date.formatTo(out);
+        out.print(' ');
+        timeslot.formatTo(out);
+        out.print(' ');
+        patient.formatTo(out);
+        out.print(' ');
+        provider.formatTo(out);
+    }
+
     /**
      * Compares this appointment to another based on their date and then time
      *
@@ -137,5 +153,19 @@ public class Appointment implements Comparable<Appointment> {
                provider.equals(that.getProvider());
     }
 
+    /**
+     * Generates a hash code for this appointment based on the date, timeslot, patient, and provider.
+     *
+     * @return The hash code of the appointment.
+     */
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + date.hashCode();
+        result = 31 * result + timeslot.hashCode();
+        result = 31 * result + patient.hashCode();
+        result = 31 * result + provider.hashCode();
+        return result;
+    }
 
 }
@@ -0,0 +1,262 @@
+package clinic;
+
+import java.util.Arrays;
+
+/**
+ * Hash indexes over the rows of an AppointmentStore, so that conflicts and the appointment
+ * being canceled or rescheduled are found in expected constant time instead of by scanning
+ * the whole schedule.
+ *
+ * Two indexes are kept: one keyed on (date, timeslot, provider id) and one keyed on
+ * (date, timeslot, patient id). The second answers both the "does this patient already
+ * have an appointment at this time" and the "find this patient's appointment at this date and
+ * time" questions, since a hash key has no order.
+ *
+ * Each entry holds its key next to its row, so lookups and removals never read the store's
+ * columns and do not allocate. The index must be updated together with the rows, and told when
+ * the store renumbers them.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ */
+public class AppointmentIndex {
+    public static final int NOT_FOUND = -1; // Row returned when no entry has the key
+
+    private final Table byProvider; // Rows keyed on date, timeslot and provider id
+    private final Table byPatient; // Rows keyed on date, timeslot and patient id
+
+    /**
+     * Constructs an empty index.
+     */
+    public AppointmentIndex() {
+        byProvider = new Table();
+        byPatient = new Table();
+    }
+
+    /**
+     * Adds a row to the indexes.
+     *
+     * @param row The row of the appointment.
+     * @param day The epoch day of the appointment.
+     * @param slot The timeslot value of the appointment.
+     * @param patient The patient id of the appointment.
+     * @param provider The provider id of the appointment.
+     */
+    public void add(int row, int day, int slot, int patient, int provider) {
+        byProvider.add(when(day, slot), provider, row);
+        byPatient.add(when(day, slot), patient, row);
+    }
+
+    /**
+     * Removes a row from the indexes.
+     *
+     * @param row The row of the appointment.
+     * @param day The epoch day of the appointment.
+     * @param slot The timeslot value of the appointment.
+     * @param patient The patient id of the appointment.
+     * @param provider The provider id of the appointment.
+     */
+    public void remove(int row, int day, int slot, int patient, int provider) {
+        byProvider.remove(when(day, slot), provider, row);
+        byPatient.remove(when(day, slot), patient, row);
+    }
+
+    /**
+     * Finds the appointment a provider has at a date and timeslot.
+     *
+     * @param day The epoch day of the appointment.
+     * @param slot The timeslot value of the appointment.
+     * @param provider The provider id.
+     * @return the row of such an appointment, or NOT_FOUND if the provider is free at that time.
+     */
+    public int findByProvider(int day, int slot, int provider) {
+        return byProvider.find(when(day, slot), provider);
+    }
+
+    /**
+     * Finds the appointment a patient has at a date and timeslot.
+     *
+     * @param day The epoch day of the appointment.
+     * @param slot The timeslot value of the appointment.
+     * @param patient The patient id.
+     * @return the row of such an appointment, or NOT_FOUND if the patient has no appointment at that time.
+     */
+    public int findByPatient(int day, int slot, int patient) {
+        return byPatient.find(when(day, slot), patient);
+    }
+
+    /**
+     * Gives the entries the new numbers of their rows after the store dropped its free rows.
+     * The keys are unchanged, so no entry moves.
+     *
+     * @param renumbered The new number of each old row that is still live.
+     */
+    public void renumber(int[] renumbered) {
+        byProvider.renumber(renumbered);
+        byPatient.renumber(renumbered);
+    }
+
+    /**
+     * Combines a date and a timeslot into one key part.
+     *
+     * @param day The epoch day.
+     * @param slot The timeslot value.
+     * @return the day and timeslot, packed.
+     */
+    private static long when(int day, int slot) {
+        return ((long) day << Integer.SIZE) | slot;
+    }
+
+    /**
+     * An open-addressing hash table with linear probing that holds rows under a key made of a
+     * packed date and timeslot and a patient or provider id.
+     */
+    private static class Table {
+        private static final int INITIAL_CAPACITY = 32; // Initial number of slots (power of two)
+        private static final int NO_ROW = -1; // Row of an empty slot
+
+        private long[] whens; // Packed date and timeslot of each slot's entry
+        private int[] ids; // Patient or provider id of each slot's entry
+        private int[] rows; // Row of each slot's entry, NO_ROW if the slot is empty
+        private int mask; // Table capacity minus one, used to wrap probe indices
+        private int count; // Number of occupied slots
+
+        /**
+         * Constructs an empty table.
+         */
+        Table() {
+            allocate(INITIAL_CAPACITY);
+        }
+
+        /**
+         * Inserts a row under a key.
+         *
+         * @param when The packed date and timeslot of the key.
+         * @param id The id of the key.
+         * @param row The row.
+         */
+        void add(long when, int id, int row) {
+            int slot = hash(when, id) & mask;
+            while (rows[slot] != NO_ROW) {
+                slot = (slot + 1) & mask;
+            }
+            whens[slot] = when;
+            ids[slot] = id;
+            rows[slot] = row;
+            count++;
+            if (count * 2 > rows.length) { // Keep the load factor at or below one half
+                rehash(rows.length * 2);
+            }
+        }
+
+        /**
+         * Finds the first row stored under a key.
+         *
+         * @param when The packed date and timeslot of the key.
+         * @param id The id of the key.
+         * @return the row, or NOT_FOUND if none is stored under the key.
+         */
+        int find(long when, int id) {
+            int slot = hash(when, id) & mask;
+            while (rows[slot] != NO_ROW) {
+                if (whens[slot] == when && ids[slot] == id) {
+                    return rows[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NOT_FOUND;
+        }
+
+        /**
+         * Removes a row, shifting later entries of its probe run back so that no tombstones
+         * are needed.
+         *
+         * @param when The packed date and timeslot the row is stored under.
+         * @param id The id the row is stored under.
+         * @param row The row.
+         */
+        void remove(long when, int id, int row) {
+            int hole = hash(when, id) & mask;
+            while (rows[hole] != NO_ROW && rows[hole] != row) {
+                hole = (hole + 1) & mask;
+            }
+            if (rows[hole] == NO_ROW) {
+                return;
+            }
+            int slot = (hole + 1) & mask;
+            while (rows[slot] != NO_ROW) {
+                int home = hash(whens[slot], ids[slot]) & mask;
+                // Move the entry into the hole unless its home slot lies cyclically in (hole, slot]
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    whens[hole] = whens[slot];
+                    ids[hole] = ids[slot];
+                    rows[hole] = rows[slot];
+                    hole = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            rows[hole] = NO_ROW;
+            count--;
+        }
+
+        /**
+         * Renumbers the rows of every entry, then shrinks the table if most of it is empty.
+         *
+         * @param renumbered The new number of each old row that is still live.
+         */
+        void renumber(int[] renumbered) {
+            for (int slot = 0; slot < rows.length; slot++) {
+                if (rows[slot] != NO_ROW) {
+                    rows[slot] = renumbered[rows[slot]];
+                }
+            }
+            int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(count, 1)) * 4);
+            if (capacity < rows.length) {
+                rehash(capacity);
+            }
+        }
+
+        /**
+         * Rebuilds the table with a new capacity.
+         *
+         * @param capacity The new number of slots, which must be a power of two.
+         */
+        private void rehash(int capacity) {
+            long[] oldWhens = whens;
+            int[] oldIds = ids;
+            int[] oldRows = rows;
+            allocate(capacity);
+            for (int slot = 0; slot < oldRows.length; slot++) {
+                if (oldRows[slot] != NO_ROW) {
+                    add(oldWhens[slot], oldIds[slot], oldRows[slot]);
+                }
+            }
+        }
+
+        /**
+         * Replaces the slots with empty ones.
+         *
+         * @param capacity The number of slots, which must be a power of two.
+         */
+        private void allocate(int capacity) {
+            whens = new long[capacity];
+            ids = new int[capacity];
+            rows = new int[capacity];
+            Arrays.fill(rows, NO_ROW);
+            mask = capacity - 1;
+            count = 0;
+        }
+
+        /**
+         * Combines the parts of a key into a well mixed hash code.
+         *
+         * @param when The packed date and timeslot of the key.
+         * @param id The id of the key.
+         * @return the hash code of the key.
+         */
+        private static int hash(long when, int id) {
+            int h = ((int) (when >>> Integer.SIZE) * 31 + (int) when) * 0x9E3779B9 + id;
+            h *= 0x85EBCA6B;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package clinic;
+
+import java.util.Arrays;
+
+import util.Date;
+import util.Sort;
+
+/**
+ * The appointments on the schedule, kept column by column in primitive arrays instead of as
+ * Appointment objects.
+ *
+ * Each appointment is a row: its epoch day, timeslot, patient spelling, patient id, provider id,
+ * room and type sit at the same index of seven parallel arrays. Rows hold the spelling and
+ * patient ids of a PatientRegistry and the provider ids of the ProviderDirectory; the patient id
+ * is what rows are matched on, and the spelling only decides how the patient is printed. An
+ * Appointment is only built, by get, when one is needed, such as for printing, and it shares the
+ * registry's Person for the spelling it was booked under.
+ *
+ * Rows are appended in booking order and a removed row is only marked free, so a lower row was
+ * always booked earlier. Once more than half of the rows are free they are compacted away, which
+ * keeps the order; row numbers are only valid until the next removal.
+ *
+ * An AppointmentIndex over the rows finds a patient's or a provider's appointment at a date and
+ * timeslot. Each report order is kept as a permutation of the live rows, updated by a
+ * binary search and one array shift as rows are added and removed, so a report walks the rows
+ * in order without sorting; rows that compare equal stay in booking order. The searches compare
+ * packed long keys, built by Sort once per row when it is added: (date, timeslot, provider rank)
+ * for the date order, (county rank, date, timeslot) for the county order, and (date, timeslot)
+ * after the patient's profile for the patient order. While a schedule is bulk loaded between
+ * beginLoad and endLoad the orders are not kept; endLoad sorts them once, in parallel when there
+ * are at least Sort.PARALLEL_THRESHOLD rows. A BillingLedger keeps
+ * each patient's bill as a running total, in billing order, so billing statements never look at
+ * the rows.
+ *
+ * Patients are matched by their registry id, so a patient booked under two spellings of their
+ * name is one patient, while each appointment still prints the spelling it was booked under.
+ * A bill is printed under the spelling the patient had when their first appointment was booked.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class AppointmentStore {
+    public static final int NOT_FOUND = -1; // Row returned when no appointment matches
+    public static final int BY_DATE_TIME_PROVIDER = 0; // Order by date, timeslot, then provider profile
+    public static final int BY_PATIENT_DATE_TIME = 1; // Order by patient profile, date, then timeslot
+    public static final int BY_COUNTY_DATE_TIME = 2; // Order by provider county, date, timeslot, then patient profile
+
+    private static final byte FREE = 0; // Type of a removed row
+    private static final byte OFFICE = 1; // Type of an office appointment
+    private static final byte IMAGING = 2; // Type of an imaging appointment
+    private static final byte NO_ROOM = -1; // Room of an office appointment
+    private static final int INITIAL_CAPACITY = 16; // Initial number of rows (power of two)
+    private static final Radiology[] ROOMS = Radiology.values();
+    private static final int ORDERS = 3; // Number of report orders kept
+
+    private final ProviderDirectory directory; // The providers rows refer to by id
+    private final int[] providerRanks; // Profile rank of each provider id; providers with equal profiles share a rank
+    private final int[] providerCounties; // County rank of each provider id plus one, 0 for a provider without a location
+
+    private int[] epochDays; // Day of each row
+    private byte[] slots; // Timeslot value of each row
+    private int[] spellings; // Spelling id of each row's patient
+    private int[] patients; // Patient id of each row
+    private int[] providers; // Provider id of each row
+    private byte[] rooms; // Room ordinal of each row, NO_ROOM for an office appointment
+    private byte[] types; // OFFICE, IMAGING, or FREE for a removed row
+    private int rows; // Rows in use, live or free
+    private int size; // Live rows
+    private final int[][] orders; // The live rows in each report order, null in a copy
+    private final long[][] keys; // Packed sort key of each row in each report order, null in a copy
+    private boolean loading; // True between beginLoad and endLoad, while the report orders are not kept
+
+    private final PatientRegistry registry; // The patients and spellings rows refer to by id
+    private final Person[] spellingSnapshot; // The registry's spellings when this copy was made, null if this is not a copy
+    private final int spellingSnapshotCount; // Spellings in the snapshot
+    private final BillingLedger ledger; // Running bill of each patient with appointments, null in a copy
+
+    private final AppointmentIndex index; // Live rows keyed on day, timeslot and patient or provider id, null in a copy
+
+    /**
+     * Constructs an empty store for appointments with the given providers, with a registry of its own.
+     *
+     * @param directory The loaded providers.
+     */
+    public AppointmentStore(ProviderDirectory directory) {
+        this(directory, new PatientRegistry());
+    }
+
+    /**
+     * Constructs an empty store for appointments with the given providers and patients.
+     *
+     * @param directory The loaded providers.
+     * @param registry The registry patients are interned in.
+     */
+    public AppointmentStore(ProviderDirectory directory, PatientRegistry registry) {
+        this.directory = directory;
+        this.registry = registry;
+        this.spellingSnapshot = null;
+        this.spellingSnapshotCount = 0;
+        this.providerRanks = new int[directory.size()];
+        this.providerCounties = new int[directory.size()];
+        for (int id = 0; id < providerRanks.length; id++) {
+            boolean same = id > 0 && directory.get(id).getProfile().compareTo(directory.get(id - 1).getProfile()) == Sort.EQUAL;
+            providerRanks[id] = same ? providerRanks[id - 1] : id;
+            Location location = directory.get(id).getLocation();
+            providerCounties[id] = location == null ? 0 : Sort.countyRank(location) + 1; // Without a location sorts first
+        }
+        epochDays = new int[INITIAL_CAPACITY];
+        slots = new byte[INITIAL_CAPACITY];
+        spellings = new int[INITIAL_CAPACITY];
+        patients = new int[INITIAL_CAPACITY];
+        providers = new int[INITIAL_CAPACITY];
+        rooms = new byte[INITIAL_CAPACITY];
+        types = new byte[INITIAL_CAPACITY];
+        orders = new int[ORDERS][INITIAL_CAPACITY];
+        keys = new long[ORDERS][INITIAL_CAPACITY];
+        ledger = new BillingLedger(registry);
+        index = new AppointmentIndex();
+    }
+
+    /**
+     * Constructs a copy of the rows of another store, without its index.
+     * The copy keeps the registry's array of spellings, whose entries are never changed, so later
+     * changes to the other store or the registry do not show in the copy. It has no ledger,
+     * report orders or index, and cannot be searched.
+     *
+     * @param other The store to copy.
+     */
+    private AppointmentStore(AppointmentStore other) {
+        this.directory = other.directory;
+        this.providerRanks = other.providerRanks;
+        this.providerCounties = other.providerCounties;
+        this.orders = null;
+        this.keys = null;
+        this.index = null;
+        this.ledger = null;
+        this.epochDays = Arrays.copyOf(other.epochDays, other.rows);
+        this.slots = Arrays.copyOf(other.slots, other.rows);
+        this.spellings = Arrays.copyOf(other.spellings, other.rows);
+        this.patients = Arrays.copyOf(other.patients, other.rows);
+        this.providers = Arrays.copyOf(other.providers, other.rows);
+        this.rooms = Arrays.copyOf(other.rooms, other.rows);
+        this.types = Arrays.copyOf(other.types, other.rows);
+        this.rows = other.rows;
+        this.size = other.size;
+        this.registry = null;
+        this.spellingSnapshot = other.registry.spellings();
+        this.spellingSnapshotCount = other.registry.getSpellingCount();
+    }
+
+    /**
+     * Adds an appointment to the schedule.
+     *
+     * @param appointment The appointment to add.
+     * @return the row of the appointment, or NOT_FOUND if an equal appointment is already on the schedule.
+     * @throws IllegalArgumentException if the provider is not in the directory.
+     */
+    public int add(Appointment appointment) {
+        if (contains(appointment)) {
+            return NOT_FOUND;
+        }
+        int provider = directory.idOf(appointment.getProvider());
+        if (provider == ProviderDirectory.NOT_FOUND) {
+            throw new IllegalArgumentException("Provider is not in the directory: " + appointment.getProvider().getProfile());
+        }
+        if (rows == epochDays.length) {
+            grow(epochDays.length * 2);
+        }
+        int spelling = registry.spellingOf(appointment.getPatient().getProfile());
+        int patient = registry.patientOf(spelling);
+        int row = rows++;
+        epochDays[row] = appointment.getDate().toEpochDay();
+        slots[row] = (byte) appointment.getTimeslot().getTimeslotInt();
+        spellings[row] = spelling;
+        patients[row] = patient;
+        providers[row] = provider;
+        rooms[row] = appointment instanceof Imaging ? (byte) ((Imaging) appointment).getRoom().ordinal() : NO_ROOM;
+        types[row] = appointment instanceof Imaging ? IMAGING : OFFICE;
+        keys[BY_DATE_TIME_PROVIDER][row] = Sort.timeRankKey(epochDays[row], slots[row], providerRanks[provider]);
+        keys[BY_PATIENT_DATE_TIME][row] = Sort.timeKey(epochDays[row], slots[row]);
+        keys[BY_COUNTY_DATE_TIME][row] = Sort.rankTimeKey(providerCounties[provider], epochDays[row], slots[row]);
+        if (!loading) {
+            for (int order = 0; order < ORDERS; order++) {
+                int at = position(order, row); // The new row sorts after every equal row, as it is the highest
+                System.arraycopy(orders[order], at, orders[order], at + 1, size - at);
+                orders[order][at] = row;
+            }
+        }
+        size++;
+        ledger.add(patient, spelling, directory.get(provider).rate());
+        index.add(row, epochDays[row], slots[row], patient, provider);
+        return row;
+    }
+
+    /**
+     * Removes an appointment from the schedule. May compact the rows, which renumbers them.
+     *
+     * @param row The row of the appointment.
+     */
+    public void remove(int row) {
+        if (row < 0 || row >= rows || types[row] == FREE) {
+            return;
+        }
+        ledger.remove(patients[row], directory.get(providers[row]).rate());
+        index.remove(row, epochDays[row], slots[row], patients[row], providers[row]);
+        if (!loading) {
+            for (int order = 0; order < ORDERS; order++) {
+                int at = position(order, row);
+                System.arraycopy(orders[order], at + 1, orders[order], at, size - at - 1);
+            }
+        }
+        types[row] = FREE;
+        size--;
+        if (rows > INITIAL_CAPACITY && size * 2 < rows) {
+            compact();
+        }
+    }
+
+    /**
+     * Starts a bulk load. Until endLoad is called, adding and removing rows no longer keeps the
+     * report orders, and sortedRows must not be called.
+     */
+    public void beginLoad() {
+        loading = true;
+    }
+
+    /**
+     * Ends a bulk load by sorting the live rows into each report order, in parallel when there
+     * are at least Sort.PARALLEL_THRESHOLD of them. Does nothing if no load was started.
+     */
+    public void endLoad() {
+        if (!loading) {
+            return;
+        }
+        loading = false;
+        Integer[] live = new Integer[size];
+        int next = 0;
+        for (int row = 0; row < rows; row++) {
+            if (types[row] != FREE) {
+                live[next++] = row;
+            }
+        }
+        for (int order = 0; order < ORDERS; order++) {
+            int by = order; // The order the comparator sorts by
+            Integer[] sorted = live.clone();
+            Sort.sort(sorted, (a, b) -> compareRows(by, a, b));
+            for (int i = 0; i < size; i++) {
+                orders[order][i] = sorted[i];
+            }
+        }
+    }
+
+    /**
+     * Checks if an equal appointment is on the schedule: the same patient, date, timeslot,
+     * provider, type and room.
+     *
+     * @param appointment The appointment to look for.
+     * @return true if it is on the schedule, false otherwise.
+     */
+    public boolean contains(Appointment appointment) {
+        int row = findByPatient(appointment.getDate(), appointment.getTimeslot(), appointment.getPatient().getProfile());
+        if (row == NOT_FOUND || providers[row] != directory.idOf(appointment.getProvider())) {
+            return false;
+        }
+        if (appointment instanceof Imaging) {
+            return types[row] == IMAGING && rooms[row] == ((Imaging) appointment).getRoom().ordinal();
+        }
+        return types[row] == OFFICE && appointment.getClass() == Appointment.class;
+    }
+
+    /**
+     * Finds the appointment a patient has at a date and timeslot.
+     *
+     * @param date The date of the appointment.
+     * @param slot The timeslot of the appointment.
+     * @param patient The profile of the patient.
+     * @return the row of the appointment, or NOT_FOUND if the patient has none at that time or the date is not a calendar date.
+     */
+    public int findByPatient(Date date, Timeslot slot, Profile patient) {
+        if (date == null || !date.isValid() || slot == null || patient == null) {
+            return NOT_FOUND;
+        }
+        int id = registry.find(patient);
+        return id == PatientRegistry.NOT_FOUND ? NOT_FOUND : index.findByPatient(date.toEpochDay(), slot.getTimeslotInt(), id);
+    }
+
+    /**
+     * Finds the appointment a provider has at a date and timeslot.
+     *
+     * @param date The date of the appointment.
+     * @param slot The timeslot of the appointment.
+     * @param provider The provider id.
+     * @return the row of the appointment, or NOT_FOUND if the provider is free at that time or the date is not a calendar date.
+     */
+    public int findByProvider(Date date, Timeslot slot, int provider) {
+        if (date == null || !date.isValid() || slot == null || provider == ProviderDirectory.NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        return index.findByProvider(date.toEpochDay(), slot.getTimeslotInt(), provider);
+    }
+
+    /**
+     * Builds the appointment held in a row.
+     *
+     * @param row The row of the appointment.
+     * @return a new Appointment, or Imaging for an imaging appointment.
+     */
+    public Appointment get(int row) {
+        Date date = Date.ofEpochDay(epochDays[row]);
+        Timeslot slot = Timeslot.of(slots[row]);
+        Person patient = registry.getSpelling(spellings[row]);
+        Provider provider = directory.get(providers[row]);
+        if (types[row] == IMAGING) {
+            return new Imaging(date, slot, patient, provider, ROOMS[rooms[row]]);
+        }
+        return new Appointment(date, slot, patient, provider);
+    }
+
+    /**
+     * Gets the live rows in one of the report orders. Rows that compare equal stay in booking order.
+     *
+     * @param order BY_DATE_TIME_PROVIDER, BY_PATIENT_DATE_TIME or BY_COUNTY_DATE_TIME.
+     * @return a copy of the live rows in order.
+     */
+    public int[] sortedRows(int order) {
+        if (order < 0 || order >= ORDERS) {
+            throw new IllegalArgumentException("Unknown order: " + order);
+        }
+        return Arrays.copyOf(orders[order], size);
+    }
+
+    /**
+     * Gets the running bills of the patients with appointments.
+     *
+     * @return the ledger, which iterates the patients in billing order.
+     */
+    public BillingLedger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * Makes a copy of the rows that later changes to this store do not affect, for reading on
+     * another thread. Copying the columns is the only work done on the calling thread.
+     * The copy can be read with getRowCount, isLive and the column getters, but not searched.
+     *
+     * @return a copy of the rows.
+     */
+    public AppointmentStore copy() {
+        return new AppointmentStore(this);
+    }
+
+    /**
+     * Gets the number of appointments on the schedule.
+     *
+     * @return the number of live rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the schedule is empty.
+     *
+     * @return true if there are no appointments, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of rows in use, including removed rows not yet compacted away.
+     *
+     * @return the number of rows.
+     */
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Checks if a row holds an appointment.
+     *
+     * @param row The row.
+     * @return true if the row holds an appointment, false if it was removed.
+     */
+    public boolean isLive(int row) {
+        return types[row] != FREE;
+    }
+
+    /**
+     * Gets the epoch day of a row.
+     *
+     * @param row The row.
+     * @return the day of the appointment.
+     */
+    public int getEpochDay(int row) {
+        return epochDays[row];
+    }
+
+    /**
+     * Gets the timeslot value of a row.
+     *
+     * @param row The row.
+     * @return the timeslot of the appointment.
+     */
+    public int getTimeslot(int row) {
+        return slots[row];
+    }
+
+    /**
+     * Gets the patient spelling of a row.
+     *
+     * @param row The row.
+     * @return the spelling id of the patient, as used by getSpelling.
+     */
+    public int getSpellingId(int row) {
+        return spellings[row];
+    }
+
+    /**
+     * Gets the patient of a row.
+     *
+     * @param row The row.
+     * @return the registry's patient id of the appointment, the same for every spelling of the patient.
+     */
+    public int getPatientId(int row) {
+        return patients[row];
+    }
+
+    /**
+     * Gets a spelling of a patient's profile.
+     *
+     * @param spelling The spelling id.
+     * @return the profile as it was booked.
+     */
+    public Profile getSpelling(int spelling) {
+        return spellingPerson(spelling).getProfile();
+    }
+
+    /**
+     * Gets the number of patient spellings seen so far; spelling ids are below it.
+     *
+     * @return the number of spellings.
+     */
+    public int getSpellingCount() {
+        return spellingSnapshot != null ? spellingSnapshotCount : registry.getSpellingCount();
+    }
+
+    /**
+     * Gets the provider id of a row.
+     *
+     * @param row The row.
+     * @return the provider id of the appointment.
+     */
+    public int getProviderId(int row) {
+        return providers[row];
+    }
+
+    /**
+     * Gets the provider of a row.
+     *
+     * @param row The row.
+     * @return the provider of the appointment.
+     */
+    public Provider getProvider(int row) {
+        return directory.get(providers[row]);
+    }
+
+    /**
+     * Gets the room of a row.
+     *
+     * @param row The row.
+     * @return the room of an imaging appointment, or null for an office appointment.
+     */
+    public Radiology getRoom(int row) {
+        return types[row] == IMAGING ? ROOMS[rooms[row]] : null;
+    }
+
+    /**
+     * Gets the Person of a spelling, from the snapshot if this is a copy.
+     *
+     * @param spelling The spelling id.
+     * @return the registry's Person for the spelling.
+     */
+    private Person spellingPerson(int spelling) {
+        return spellingSnapshot != null ? spellingSnapshot[spelling] : registry.getSpelling(spelling);
+    }
+
+    /**
+     * Finds where a live row is, or belongs, in a report order by binary search.
+     *
+     * @param order The report order.
+     * @param row The row.
+     * @return the index of the row in the order, or the index it should be inserted at.
+     */
+    private int position(int order, int row) {
+        int[] sorted = orders[order];
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareRows(order, sorted[mid], row) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares two rows in a report order by their packed keys, after the patient's profile for
+     * the patient order and before it for the county order. Rows that are equal in the order
+     * compare by row, which is booking order, so no two rows compare equal.
+     *
+     * @param order The report order.
+     * @param a The first row.
+     * @param b The second row.
+     * @return a negative number, zero or a positive number as the first row comes before, is, or comes after the second.
+     */
+    private int compareRows(int order, int a, int b) {
+        int comparison = order == BY_PATIENT_DATE_TIME ? compareSpellings(spellings[a], spellings[b]) : 0;
+        if (comparison == 0) {
+            comparison = Long.compare(keys[order][a], keys[order][b]);
+        }
+        if (comparison == 0 && order == BY_COUNTY_DATE_TIME) {
+            comparison = compareSpellings(spellings[a], spellings[b]);
+        }
+        return comparison != 0 ? comparison : Integer.compare(a, b);
+    }
+
+    /**
+     * Compares two patient spellings by profile, as booked.
+     *
+     * @param a The first spelling id.
+     * @param b The second spelling id.
+     * @return a negative number, zero or a positive number as the first profile is less than, equal to, or greater than the second.
+     */
+    private int compareSpellings(int a, int b) {
+        return a == b ? 0 : registry.getSpelling(a).getProfile().compareTo(registry.getSpelling(b).getProfile());
+    }
+
+    /**
+     * Drops the removed rows, keeping the live rows in booking order, and renumbers the rows in
+     * the index and the report orders.
+     */
+    private void compact() {
+        int[] renumbered = new int[rows]; // New number of each live row
+        int kept = 0;
+        for (int row = 0; row < rows; row++) {
+            if (types[row] == FREE) {
+                continue;
+            }
+            renumbered[row] = kept;
+            epochDays[kept] = epochDays[row];
+            slots[kept] = slots[row];
+            spellings[kept] = spellings[row];
+            patients[kept] = patients[row];
+            providers[kept] = providers[row];
+            rooms[kept] = rooms[row];
+            types[kept] = types[row];
+            for (long[] key : keys) {
+                key[kept] = key[row];
+            }
+            kept++;
+        }
+        Arrays.fill(types, kept, rows, FREE);
+        rows = kept;
+        if (!loading) { // Renumbering keeps booking order, so each order stays sorted
+            for (int order = 0; order < ORDERS; order++) {
+                for (int i = 0; i < size; i++) {
+                    orders[order][i] = renumbered[orders[order][i]];
+                }
+            }
+        }
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(rows, 1)) * 2);
+        if (capacity < epochDays.length) {
+            grow(capacity);
+        }
+        index.renumber(renumbered);
+    }
+
+    /**
+     * Resizes the columns to a new number of rows.
+     *
+     * @param capacity The new number of rows, a power of two at least the rows in use.
+     */
+    private void grow(int capacity) {
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+        spellings = Arrays.copyOf(spellings, capacity);
+        patients = Arrays.copyOf(patients, capacity);
+        providers = Arrays.copyOf(providers, capacity);
+        rooms = Arrays.copyOf(rooms, capacity);
+        types = Arrays.copyOf(types, capacity);
+        for (int order = 0; order < ORDERS; order++) {
+            orders[order] = Arrays.copyOf(orders[order], capacity);
+            keys[order] = Arrays.copyOf(keys[order], capacity);
+        }
+    }
+}
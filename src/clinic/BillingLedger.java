@@ -0,0 +1,119 @@
+package clinic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import util.SortedList;
+
+/**
+ * Keeps a running bill for every patient with appointments on the schedule.
+ *
+ * Each patient is the registry's canonical Patient, whose charge() is the running total of
+ * their appointments. Booking an appointment adds its provider's rate and canceling one takes
+ * it off, both in O(1) apart from keeping the patients in order. Patients are kept sorted by
+ * the profile their bill is printed under, so billing statements are a single walk over the
+ * ledger.
+ *
+ * Patients are matched by registry id, so the spellings of one patient share one bill. A bill
+ * is printed under the spelling the patient had when the first of their current appointments
+ * was booked, and a patient leaves the ledger when their last appointment is removed.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ */
+public class BillingLedger implements Iterable<Patient> {
+    private static final int INITIAL_CAPACITY = 16; // Initial number of patient ids covered
+
+    private final PatientRegistry registry; // The patients and spellings the bills are kept for
+    private int[] appointmentCounts; // Appointments of each patient id on the schedule
+    private int[] billedAs; // Spelling id each patient's bill is printed under
+    private final SortedList<Patient> ordered; // The patients with appointments, in billing order
+
+    /**
+     * Constructs an empty ledger for the patients of a registry.
+     *
+     * @param registry The registry the patient and spelling ids come from.
+     */
+    public BillingLedger(PatientRegistry registry) {
+        this.registry = registry;
+        appointmentCounts = new int[INITIAL_CAPACITY];
+        billedAs = new int[INITIAL_CAPACITY];
+        ordered = new SortedList<Patient>(Comparator.comparing(this::getBilledProfile).thenComparingInt(Patient::getId));
+    }
+
+    /**
+     * Adds an appointment to its patient's bill, adding the patient to the ledger if needed.
+     *
+     * @param id The patient id of the appointment.
+     * @param spelling The spelling id the appointment was booked under.
+     * @param rate The rate of the appointment's provider.
+     */
+    public void add(int id, int spelling, int rate) {
+        if (id >= appointmentCounts.length) {
+            int capacity = Math.max(id + 1, appointmentCounts.length * 2);
+            appointmentCounts = Arrays.copyOf(appointmentCounts, capacity);
+            billedAs = Arrays.copyOf(billedAs, capacity);
+        }
+        Patient patient = registry.getPatient(id);
+        if (appointmentCounts[id]++ == 0) {
+            billedAs[id] = spelling;
+            ordered.add(patient);
+        }
+        patient.addCharge(rate);
+    }
+
+    /**
+     * Removes an appointment from its patient's bill, dropping the patient if it was their last.
+     *
+     * @param id The patient id of the appointment.
+     * @param rate The rate of the appointment's provider.
+     */
+    public void remove(int id, int rate) {
+        if (id >= appointmentCounts.length || appointmentCounts[id] == 0) {
+            return;
+        }
+        Patient patient = registry.getPatient(id);
+        patient.removeCharge(rate);
+        if (--appointmentCounts[id] == 0) {
+            ordered.remove(patient);
+        }
+    }
+
+    /**
+     * Gets the profile a patient's bill is printed under.
+     *
+     * @param patient A patient in the ledger.
+     * @return the profile as spelled when the first of the patient's appointments was booked.
+     */
+    public Profile getBilledProfile(Patient patient) {
+        return registry.getSpelling(billedAs[patient.getId()]).getProfile();
+    }
+
+    /**
+     * Checks if the ledger is empty.
+     *
+     * @return true if no patient has an appointment, false otherwise.
+     */
+    public boolean isEmpty() {
+        return ordered.isEmpty();
+    }
+
+    /**
+     * Gets the number of patients with appointments.
+     *
+     * @return the number of patients in the ledger.
+     */
+    public int size() {
+        return ordered.size();
+    }
+
+    /**
+     * Returns an iterator over the patients in billing order.
+     *
+     * @return an Iterator for the ledger.
+     */
+    @Override
+    public Iterator<Patient> iterator() {
+        return ordered.iterator();
+    }
+}
@@ -0,0 +1,177 @@
+package clinic;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import util.Date;
+
+/**
+ * Tracks the range of dates appointments can be booked in: after today and up to six months out.
+ *
+ * Today's date, the six month horizon and a bitmap of the business days between them are
+ * computed once and cached until the clock passes the next midnight, so checking a date is
+ * a couple of integer comparisons and a bit test instead of building a Calendar each time.
+ * The window also keeps one shared Date instance per bookable day.
+ *
+ * The clock is pluggable; a fixed clock makes runs of the clinic repeatable.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class BookingWindow {
+    public static final int MONTHS_AHEAD = 6; // How many months ahead appointments can be booked
+
+    public static final int BEFORE_TODAY = -1;
+    public static final int TODAY = 0;
+    public static final int IN_WINDOW = 1;
+    public static final int AFTER_HORIZON = 2;
+
+    private static final int BITS_PER_WORD = 64;
+    private static final int WORD_SHIFT = 6; // log2 of BITS_PER_WORD
+
+    private final Clock clock; // Source of the current time and time zone
+    private long nextRefreshMillis; // Clock time at which the cached day expires (the next midnight)
+    private Date today; // Today's date
+    private int todayEpochDay; // Today's date as days since 1/1/1970
+    private Date horizon; // The last bookable date, six months from today
+    private int horizonEpochDay; // The last bookable date as days since 1/1/1970
+    private long[] businessDays; // Bit i is set if the date i days after today is a weekday
+    private Date[] dates; // Shared instance of the date i days after today, filled in as dates are seen
+
+    /**
+     * Constructs a booking window that follows the system clock in the default time zone.
+     */
+    public BookingWindow() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a booking window that follows the given clock.
+     *
+     * @param clock The clock to read the current date from.
+     */
+    public BookingWindow(Clock clock) {
+        this.clock = clock;
+        this.nextRefreshMillis = Long.MIN_VALUE;
+        this.businessDays = new long[0];
+        this.dates = new Date[0];
+    }
+
+    /**
+     * Creates a clock that is stopped at the start of the given date in the default time zone.
+     *
+     * @param date The date the clock should read.
+     * @return a fixed clock reading the given date.
+     */
+    public static Clock fixedClock(Date date) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate localDate = LocalDate.of(date.getYear(), date.getMonth(), date.getDay());
+        return Clock.fixed(localDate.atStartOfDay(zone).toInstant(), zone);
+    }
+
+    /**
+     * Gets today's date.
+     *
+     * @return today's date.
+     */
+    public Date getToday() {
+        refresh();
+        return today;
+    }
+
+    /**
+     * Gets the last date appointments can be booked on.
+     *
+     * @return the date six months from today.
+     */
+    public Date getHorizon() {
+        refresh();
+        return horizon;
+    }
+
+    /**
+     * Places a date relative to the booking window.
+     *
+     * @param date The valid calendar date to place.
+     * @return BEFORE_TODAY, TODAY, IN_WINDOW, or AFTER_HORIZON.
+     */
+    public int classify(Date date) {
+        refresh();
+        int epochDay = date.toEpochDay();
+        if (epochDay == todayEpochDay) {
+            return TODAY;
+        }
+        if (epochDay < todayEpochDay) {
+            return BEFORE_TODAY;
+        }
+        return epochDay <= horizonEpochDay ? IN_WINDOW : AFTER_HORIZON;
+    }
+
+    /**
+     * Checks if a date is a weekday, using the cached bitmap for dates inside the window.
+     *
+     * @param date The valid calendar date to check.
+     * @return true if the date is Monday through Friday, false if it is on a weekend.
+     */
+    public boolean isBusinessDay(Date date) {
+        refresh();
+        int offset = date.toEpochDay() - todayEpochDay;
+        if (offset < 0 || offset > horizonEpochDay - todayEpochDay) {
+            return !date.isWeekend();
+        }
+        return (businessDays[offset >>> WORD_SHIFT] & (1L << offset)) != 0;
+    }
+
+    /**
+     * Returns the shared instance of a date inside the window, so that appointments on the same
+     * day share one Date and comparing them can stop at an identity check.
+     * The first instance seen for a day becomes the shared one.
+     *
+     * @param date The date to intern.
+     * @return the shared instance equal to the date, or the date itself if it is outside the window.
+     */
+    public Date intern(Date date) {
+        refresh();
+        if (!date.isValid()) {
+            return date;
+        }
+        int offset = date.toEpochDay() - todayEpochDay;
+        if (offset < 0 || offset >= dates.length) {
+            return date;
+        }
+        if (dates[offset] == null) {
+            dates[offset] = date;
+        }
+        return dates[offset];
+    }
+
+    /**
+     * Recomputes today, the horizon and the business day bitmap if the clock has passed midnight.
+     */
+    private void refresh() {
+        long now = clock.millis();
+        if (now < nextRefreshMillis) {
+            return;
+        }
+        LocalDate localDate = Instant.ofEpochMilli(now).atZone(clock.getZone()).toLocalDate();
+        today = Date.of(localDate.getMonthValue(), localDate.getDayOfMonth(), localDate.getYear());
+        todayEpochDay = today.toEpochDay();
+        horizon = today.plusMonths(MONTHS_AHEAD);
+        horizonEpochDay = horizon.toEpochDay();
+
+        int span = horizonEpochDay - todayEpochDay + 1;
+        long[] bits = new long[(span + BITS_PER_WORD - 1) >>> WORD_SHIFT];
+        int dayOfWeek = today.getDayOfWeek();
+        for (int offset = 0; offset < span; offset++) {
+            if (dayOfWeek < Date.SATURDAY) {
+                bits[offset >>> WORD_SHIFT] |= 1L << offset;
+            }
+            dayOfWeek = dayOfWeek == Date.SUNDAY ? Date.MONDAY : dayOfWeek + 1;
+        }
+        businessDays = bits;
+        dates = new Date[span];
+        dates[0] = today;
+        nextRefreshMillis = localDate.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+}
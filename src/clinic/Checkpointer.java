@@ -0,0 +1,125 @@
+package clinic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Takes a ScheduleCheckpoint every so many journal records and then truncates the journal,
+ * so a restart reads the checkpoint and only a short tail of the journal.
+ *
+ * The command thread only copies the columns of the AppointmentStore and notes the journal
+ * position, which gives a consistent version of the schedule that later commands do not touch.
+ * Encoding, writing and forcing the checkpoint, and truncating the journal, happen on a
+ * background thread while commands carry on. At most one checkpoint is written at a time;
+ * when one is still being written the next waits for a later command.
+ *
+ * A checkpoint that fails to write is reported and the journal is left whole, so nothing is lost.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ */
+public class Checkpointer implements Closeable {
+    public static final int DEFAULT_INTERVAL = 4096; // Journal records between checkpoints
+
+    private final Journal journal; // The journal the checkpoints cover
+    private final Path path; // The checkpoint file
+    private final int interval; // Journal records between checkpoints
+    private final ExecutorService writer; // Writes checkpoints in the background
+    private Future<?> pending; // The checkpoint being written, null if none was started
+    private long recordsAtLastCheckpoint; // Journal record count when the last checkpoint was started
+    private volatile int written; // Checkpoints written so far
+
+    /**
+     * Constructs a checkpointer for a journal, writing to the journal's checkpoint file.
+     *
+     * @param journal The journal the checkpoints cover.
+     * @param interval The number of journal records between checkpoints.
+     */
+    public Checkpointer(Journal journal, int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + interval);
+        }
+        this.journal = journal;
+        this.path = ScheduleCheckpoint.pathFor(journal.getPath());
+        this.interval = interval;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks if enough records were journaled since the last checkpoint and no checkpoint is being written.
+     *
+     * @return true if a checkpoint should be taken now.
+     */
+    public boolean isDue() {
+        return journal.getRecordCount() - recordsAtLastCheckpoint >= interval && (pending == null || pending.isDone());
+    }
+
+    /**
+     * Starts writing a checkpoint of the schedule as of the last journal record.
+     * Must be called between commands, so the schedule matches the journal.
+     *
+     * @param schedule A copy of the appointment store, which no other thread changes.
+     * @param rotationHead The technician whose turn is next, or null if there are no technicians.
+     * @throws IOException if the journal position cannot be read.
+     */
+    public void checkpoint(AppointmentStore schedule, Technician rotationHead) throws IOException {
+        long position = journal.position();
+        recordsAtLastCheckpoint = journal.getRecordCount();
+        pending = writer.submit(() -> {
+            try {
+                ScheduleCheckpoint.write(path, schedule, rotationHead, position);
+                journal.truncateBefore(position);
+                written++;
+            } catch (IOException e) {
+                System.err.println("Checkpoint failed, keeping the whole journal: " + e);
+            }
+        });
+    }
+
+    /**
+     * Gets the number of checkpoints written so far.
+     *
+     * @return the number of checkpoints.
+     */
+    public int getCheckpointCount() {
+        return written;
+    }
+
+    /**
+     * Gets the checkpoint file.
+     *
+     * @return the path of the checkpoint.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Waits for the checkpoint being written, if any, and stops the background thread.
+     *
+     * @throws IOException if interrupted while waiting.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing a checkpoint", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Checkpoint failed", e.getCause());
+        }
+    }
+}
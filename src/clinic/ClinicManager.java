@@ -1,18 +1,17 @@
 package clinic;
 
-import java.util.Calendar;
-import java.util.Iterator;
+import java.time.Clock;
 import java.util.Scanner;
 
-import util.CircularLinkedList;
 import util.Date;
-import java.io.File;
-import util.List;
-import util.Node;
-import util.Sort;
-
-import static util.Sort.appointment;
-import static util.Sort.provider;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import util.HashList;
+import util.MappedLineReader;
+import util.OutputBuffer;
+import util.Rotation;
+import util.Tokenizer;
 
 /**
  * The {@code ClinicManager} class manages clinic operations, including
@@ -40,16 +39,6 @@ public class ClinicManager {
     private static final int VALID_C_COMMAND_LENGTH = 6;
     private static final int VALID_R_COMMAND_LENGTH = 7;
 
-    private static final int DOCTOR_COMMAND_LENGTH = 7;
-    private static final int TECHNICIAN_COMMAND_LENGTH = 6;
-    private static final int PROVIDER_FIRST_NAME_INDEX = 1;
-    private static final int PROVIDER_LAST_NAME_INDEX = 2;
-    private static final int PROVIDER_DOB_INDEX = 3;
-    private static final int PROVIDER_LOCATION_INDEX = 4;
-    private static final int DOCTOR_SPECIALTY_INDEX = 5;
-    private static final int TECHNICIAN_RATE_INDEX = 5;
-    private static final int DOCTOR_NPI_INDEX = 6;
-
     private static final int MIN_TIMESLOT_INDEX = 1;
     private static final int MAX_TIMESLOT_INDEX = 6;
 
@@ -62,38 +51,102 @@ public class ClinicManager {
     private static final int PRINT_OFFICE_VALUE = 3;
     private static final int PRINT_IMAGING_VALUE = 4;
 
-    private static final int DATE_IS_TODAY = 0;
-    private static final int DATE_BEFORE_TODAY = -1;
-    private static final int DATE_IS_VALID = 1;
-    private static final int DATE_NOT_WITHIN_SIX_MONTHS = 2;
+    private static final int DATE_IS_TODAY = BookingWindow.TODAY;
+    private static final int DATE_NOT_WITHIN_SIX_MONTHS = BookingWindow.AFTER_HORIZON;
 
     private static final int DATE_INDEX_MONTH = 0;
     private static final int DATE_INDEX_DAY = 1;
     private static final int DATE_INDEX_YEAR = 2;
 
-    private static final int CALENDAR_OFFSET = 1;
-    private static final int NO_OFFSET_VALUE = 0;
-    private static final int SIX_MONTH_OFFSET = 6;
-    private static final int MONTH_INDEX_OFFSET = 1;
 
     private static final int BOOKED_VALUE = 1;
     private static final int RESCHEDULE_VALUE = 2;
 
-
-    private static final char PROVIDER_NAME_DOB = 'N';
-    private static final char DATE_TIME_PROVIDER_NAME = 'A'; //Used for PA Command
-    private static final char PATIENT_DATE_TIME = 'P'; // Used for PP and PS commands
-    private static final char COUNTY_DATE_TIME = 'L'; // Used for PL, PO, and PI commands
     private static final int APPOINTMENT_TYPE_BOTH = 0;
     private static final int APPOINTMENT_TYPE_OFFICE = 1;
     private static final int APPOINTMENT_TYPE_IMAGING = 2;
 
-    private static List<Provider> providerList = new List<Provider>();
-    private static CircularLinkedList technicianList = new CircularLinkedList();
-    private static List<Doctor> doctorList = new List<Doctor>();
-    private static List<Appointment> appointmentList = new List<Appointment>();
-    private static boolean listEmptied = false;
+    public static final Path DEFAULT_ROSTER = Paths.get("./src/providers.txt"); // Roster loaded when no other file is given
+    private static final String COMMAND_DELIMITER = ",";
+    private static final Radiology[] RADIOLOGY_SERVICES = Radiology.values(); // Cached, since values() copies the array on every call
+    private static final String[] COMMANDS = {"Q", "D", "T", "C", "R", "PA", "PP", "PL", "PS", "PO", "PI", "PC"};
+
+    private static volatile RosterState roster = new RosterState(new HashList<Provider>(), new Rotation<Technician>()); // The loaded roster and everything sized from it, replaced as a whole
+    private static final Tokenizer commandTokens = new Tokenizer(COMMAND_DELIMITER); // Reused for every command line
+
+    private final BookingWindow bookingWindow; // Cached today, six month horizon and business days
+    private final OutputBuffer out; // All output, written to the sink once per command
+    private final RosterLoader rosterLoader; // Reads the provider roster
+    private final Journal journal; // Records every change to the schedule, null when the schedule is not journaled
+    private final Checkpointer checkpointer; // Checkpoints the schedule and truncates the journal, null when not checkpointing
+    private long parseNanos; // Time spent splitting command lines and matching their command, reported by runBatch
+
+    /**
+     * Constructs a ClinicManager that books appointments relative to the system clock.
+     */
+    public ClinicManager(){
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a ClinicManager that books appointments relative to the given clock.
+     * A fixed clock makes a run repeatable regardless of the day it is replayed on.
+     * @param clock The clock used to determine today's date
+     */
+    public ClinicManager(Clock clock){
+        this(clock, OutputBuffer.stdout());
+    }
+
+    /**
+     * Constructs a ClinicManager that books appointments relative to the given clock and
+     * writes its output to the given buffer.
+     * The buffer is flushed after every command, so its sink sees each command's output as one write.
+     * @param clock The clock used to determine today's date
+     * @param out The buffer all output is written to
+     */
+    public ClinicManager(Clock clock, OutputBuffer out){
+        this(clock, out, DEFAULT_ROSTER);
+    }
+
+    /**
+     * Constructs a ClinicManager that books appointments relative to the given clock, writes its
+     * output to the given buffer and loads its providers from the given roster file.
+     * @param clock The clock used to determine today's date
+     * @param out The buffer all output is written to
+     * @param rosterFile The provider roster to load
+     */
+    public ClinicManager(Clock clock, OutputBuffer out, Path rosterFile){
+        this(clock, out, rosterFile, null);
+    }
 
+    /**
+     * Constructs a ClinicManager that also records every booking, cancellation and reschedule in a journal.
+     * The schedule in the journal is replayed once the providers are loaded, so a run picks up where the last one stopped.
+     * @param clock The clock used to determine today's date
+     * @param out The buffer all output is written to
+     * @param rosterFile The provider roster to load
+     * @param journal The journal to replay and append to, or null to keep the schedule in memory only
+     */
+    public ClinicManager(Clock clock, OutputBuffer out, Path rosterFile, Journal journal){
+        this(clock, out, rosterFile, journal, null);
+    }
+
+    /**
+     * Constructs a ClinicManager that records every change to the schedule in a journal and checkpoints the schedule in the background.
+     * The checkpoint, if there is one, is loaded first, and only the journal records after it are replayed.
+     * @param clock The clock used to determine today's date
+     * @param out The buffer all output is written to
+     * @param rosterFile The provider roster to load
+     * @param journal The journal to replay and append to, or null to keep the schedule in memory only
+     * @param checkpointer The checkpointer for the journal, or null to let the journal grow
+     */
+    public ClinicManager(Clock clock, OutputBuffer out, Path rosterFile, Journal journal, Checkpointer checkpointer){
+        this.bookingWindow = new BookingWindow(clock);
+        this.out = out;
+        this.rosterLoader = new RosterLoader(rosterFile);
+        this.journal = journal;
+        this.checkpointer = checkpointer;
+    }
 
     /**
      *   Reads input(s) from command line and calls readCommand function for each line
@@ -103,79 +156,153 @@ public class ClinicManager {
         Scanner commandScanner = new Scanner(System.in);
 
         readProviderFile();
-        System.out.println("Clinic Manager is running...");
+        recoverSchedule();
+        out.println("Clinic Manager is running...");
+        out.flush();
         while(programRunning){
             readCommand(commandScanner.nextLine());
+            commandDone();
+            out.flush(); // A command's output is complete, so write it out before waiting for the next line
         }
 
         commandScanner.close();
-        System.out.println("Clinic Manager terminated.");
+        out.println("Clinic Manager terminated.");
+        out.flush();
+    }
+
+    /**
+     *   Runs every command in a command file without waiting for input, stopping early at a Q command
+     *   The file is memory-mapped and each line is split in place, and output is only flushed when the buffer fills
+     *   Prints the roster load metrics, the number of lines, commands and rejected commands and the throughput to standard error,
+     *   so the command output can still be compared with an interactive run
+     *   The time spent tokenizing and matching command lines is reported apart from the time spent executing them;
+     *   converting a command's fields, such as parsing its dates, counts as executing it
+     *   If the command file is missing or cannot be read, the error is printed and the run ends without metrics
+     * @param commandFile The file of commands, one per line
+     */
+    public void runBatch(Path commandFile){
+        readProviderFile();
+        recoverSchedule();
+        out.println("Clinic Manager is running...");
+        long[] counts = new long[2]; // Commands run and commands rejected
+        long[] commandNanos = new long[1]; // Time spent parsing and executing commands
+        parseNanos = 0;
+        MappedLineReader reader = new MappedLineReader(commandFile);
+        long started = System.nanoTime();
+        long lines;
+        try {
+            lines = reader.read((text, from, to) -> {
+                if (from == to) {
+                    return true;
+                }
+                long begun = System.nanoTime();
+                counts[0]++;
+                if (!readCommand(text, from, to)) {
+                    counts[1]++;
+                }
+                commandDone();
+                commandNanos[0] += System.nanoTime() - begun;
+                return programRunning;
+            });
+        } catch (IOException e) {
+            out.println(e);
+            out.println("Clinic Manager terminated.");
+            return;
+        } finally {
+            out.flush();
+        }
+        long elapsed = Math.max(System.nanoTime() - started, 1);
+        out.println("Clinic Manager terminated.");
+        out.flush();
+        double seconds = elapsed / 1e9;
+        System.err.printf("Roster: %d providers (%d duplicate, %d invalid, %d skipped) from %d lines, %d %s bytes in %.3f s%n",
+                rosterLoader.getProviders() == null ? 0 : rosterLoader.getProviders().size(), rosterLoader.getDuplicateCount(),
+                rosterLoader.getInvalidCount(), rosterLoader.getSkippedCount(), rosterLoader.getLineCount(),
+                rosterLoader.getBytesRead(), rosterLoader.isFromSnapshot() ? "snapshot" : "text", rosterLoader.getElapsedNanos() / 1e9);
+        System.err.printf("Batch: %d lines, %d commands, %d rejected, %d bytes in %.3f s (%.3f s parsing, %.3f s executing; %.0f commands/s, %.1f MB/s)%n",
+                lines, counts[0], counts[1], reader.getBytesRead(), seconds, parseNanos / 1e9, (commandNanos[0] - parseNanos) / 1e9,
+                counts[0] / seconds, reader.getBytesRead() / seconds / (1 << 20));
     }
 
     /**
      *  Takes a command line as input and reads the command, and calls correct method
+     * The line is split in place by the shared tokenizer, so fields are only copied into Strings when needed
      * Prints invalid command if command is not recognized
      * @param inputLine : The current command line being read
+     * @return false if the command was rejected, true otherwise
      */
-    private void readCommand(String inputLine){
-        if(inputLine.isEmpty()){
-            return;
+    private boolean readCommand(CharSequence inputLine){
+        return readCommand(inputLine, 0, inputLine.length());
+    }
+
+    /**
+     *  Reads the command held in a region of some text, and calls correct method
+     * The region is split in place, so a command can be read straight out of a mapped file
+     * @param text The text holding the command line
+     * @param from The offset of the first character of the command line (inclusive)
+     * @param to The offset just past the last character of the command line (exclusive)
+     * @return false if the command was rejected, true otherwise
+     */
+    private boolean readCommand(CharSequence text, int from, int to){
+        if(from == to){
+            return true;
+        }
+        long parsing = System.nanoTime();
+        commandTokens.split(text, from, to);
+        String command = commandTokens.match(INDEX_COMMAND, COMMANDS);
+        parseNanos += System.nanoTime() - parsing;
+        if(command == null){ // Command not recognized
+            out.println("Invalid command!");
+            return false;
         }
-        String[] inputList = inputLine.split(",");
-        switch (inputList[INDEX_COMMAND]) {
+        switch (command) {
             case "Q": //Quit Program
                 programRunning = false;
                 break;
             case "D": //Schedule new office appointment
-                Appointment newOfficeAppointment = createOfficeAppointment(inputList);
-                if(newOfficeAppointment != null){
-                    addAppointmentToList(newOfficeAppointment, BOOKED_VALUE);
-                }
-                break;
+                Appointment newOfficeAppointment = createOfficeAppointment(commandTokens);
+                return newOfficeAppointment != null && addAppointmentToList(newOfficeAppointment, BOOKED_VALUE);
             case "T": //Schedule new imaging appointment
-                Appointment newImagingAppointment = createTechnicianAppointment(inputList);
-                if(newImagingAppointment != null){
-                    addAppointmentToList(newImagingAppointment, BOOKED_VALUE);
-                }
-                break;
+                Appointment newImagingAppointment = createTechnicianAppointment(commandTokens);
+                return newImagingAppointment != null && addAppointmentToList(newImagingAppointment, BOOKED_VALUE);
             case "C":
-                cancelAppointment(inputList);
-                break;
+                return cancelAppointment(commandTokens);
 
             case "R": //Reschedule appointment
-                rescheduleAppointment(inputList);
-                break;
+                return rescheduleAppointment(commandTokens);
             case "PA": // Print appointment list sorted by appointment date, time, then provider’s name.
-                outputInSortedOrder(DATE_TIME_PROVIDER_NAME, APPOINTMENT_TYPE_BOTH);
+                outputInSortedOrder(AppointmentStore.BY_DATE_TIME_PROVIDER, APPOINTMENT_TYPE_BOTH, PRINT_APPOINTMENT_VALUE);
                 break;
             case "PP":// Print appointment list sorted by the patient (by last name, first name, date of birth, then appointment date and time).
-                outputInSortedOrder(PATIENT_DATE_TIME, APPOINTMENT_TYPE_BOTH);
+                outputInSortedOrder(AppointmentStore.BY_PATIENT_DATE_TIME, APPOINTMENT_TYPE_BOTH, PRINT_PATIENT_VALUE);
                 break;
             case "PL": // Print appointment list sorted by the county name, then the appointment date and time.
-                outputInSortedOrder(COUNTY_DATE_TIME, APPOINTMENT_TYPE_BOTH);
+                outputInSortedOrder(AppointmentStore.BY_COUNTY_DATE_TIME, APPOINTMENT_TYPE_BOTH, PRINT_LOCATION_VALUE);
                 break;
             case "PS": // Print billing statements of all patients
                 printBillingStatements();
                 break;
             case "PO": // Print the list of office appointments, sorted by the county name, then date and time.
-                outputInSortedOrder(COUNTY_DATE_TIME, APPOINTMENT_TYPE_OFFICE);
+                outputInSortedOrder(AppointmentStore.BY_COUNTY_DATE_TIME, APPOINTMENT_TYPE_OFFICE, PRINT_OFFICE_VALUE);
                 break;
             case "PI": // Print the list of imaging appointments, sorted by the county name, then date and time.
-                outputInSortedOrder(COUNTY_DATE_TIME, APPOINTMENT_TYPE_IMAGING);
+                outputInSortedOrder(AppointmentStore.BY_COUNTY_DATE_TIME, APPOINTMENT_TYPE_IMAGING, PRINT_IMAGING_VALUE);
                 break;
             case "PC": // Print the expected credit amounts for the providers, sorted by provider profile
                 printExpectedCredits();
                 break;
             default: // Command not recognized
-                System.out.println("Invalid command!");
-                break;
+                out.println("Invalid command!");
+                return false;
         }
+        return true;
     }
 
     /**
-     * Reads provider data from the "providers.txt" file located in the "./src/" directory.
+     * Loads the provider roster from the roster file, "./src/providers.txt" unless another file was given.
      *
-     * Each line is processed to create provider objects using the `providerCreator` method. 
+     * The file is parsed in parallel by a RosterLoader, which drops duplicate providers and sorts them once,
+     * and saved as a binary snapshot that later runs map instead while the file is unchanged.
      * After loading the providers, the method prints the list of providers and the rotation 
      * list of technicians in reverse order, displaying each technician's name and location.
      * 
@@ -183,127 +310,35 @@ public class ClinicManager {
      */
     private void readProviderFile() {
         try {
-            File providerFile = new File("./src/providers.txt");
-            Scanner fileScanner = new Scanner(providerFile);
-            while (fileScanner.hasNextLine()) {
-                String commandArray = fileScanner.nextLine();
-                providerCreator(commandArray);
-            }
+            rosterLoader.loadWithSnapshot();
         } catch (Exception e) {
-            System.out.println(e);
+            out.println(e);
             return;
         }
-        provider(providerList);
-        technicianList.reverse();
-        System.out.println("Providers loaded to the list.");
-        for (int i = 0; i < providerList.size(); i++) {
-            System.out.println(providerList.get(i).toString());
-        }
-        System.out.println("Rotation list for the technicians.");
-        Node currNode = technicianList.getHead();
-        for (int i = technicianList.getSize() - 1; i >= 0; i--) {
-            Technician technician = currNode.getTechnician();
-            String name = technician.getProfile().getFirstName() + " " + technician.getProfile().getLastName();
-            String location = technician.getLocation().toString(); 
-            System.out.print(name + " (" + location + ")");
-        
-            if (i != 0) {
-                System.out.print(" --> ");
-            }
-        
-            currNode = currNode.getNext();
+        for (int i = 0; i < rosterLoader.getInvalidCount(); i++) {
+            out.println("Invalid command!");
         }
-        System.out.println();
-    }
-    /**
-     * Creates a new provider based on the input command received from the user.
-     * @param inputLine A string representing the input command from the user.
-     */
-    private void providerCreator(String inputLine){
-        if(inputLine.isEmpty()){
-            return;
-        }
-        String[] inputList = inputLine.split("  ");
-        switch (inputList[INDEX_COMMAND]) {
-            case "D": //Create new doctor
-                doctorCreator(inputList);
-                break;
-            case "T": //Create new technician
-                technicianCreator(inputList);
-                break;
-            default: // Command not recognized
-                System.out.println("Invalid command!");
-                break;
-        }
-
-    }
-
-    /**
-     * Creates a Doctor object from the provided command array and adds it to the provider and doctor lists.
-     *
-     * The command array must contain the required number of elements defined by `DOCTOR_COMMAND_LENGTH`.
-     * It extracts the doctor's profile information, NPI number, location, and specialty,
-     * and initializes a Doctor instance which is then added to the `providerList` and `doctorList`.
-     *
-     * @param commandArray An array containing the doctor's details.
-     */
-    private void doctorCreator(String[] commandArray) {
-        if (commandArray.length != DOCTOR_COMMAND_LENGTH) {
-            return;
-        }
-
-        Date dateOfBirth = new Date(commandArray[PROVIDER_DOB_INDEX]);
-        Profile profile = new Profile(commandArray[PROVIDER_FIRST_NAME_INDEX], commandArray[PROVIDER_LAST_NAME_INDEX], dateOfBirth);
-        String npi = commandArray[DOCTOR_NPI_INDEX];
-        String locationString = commandArray[PROVIDER_LOCATION_INDEX];
-        String specialtyString = commandArray[DOCTOR_SPECIALTY_INDEX];
-        Location providerLocation = null;
-        Specialty doctorSpecialty = null;
-
-        for (Location location : Location.values()) {
-            if (location.name().equals(locationString.trim())) {
-                providerLocation = location;
-            }
+        Rotation<Technician> technicians = rosterLoader.getTechnicians();
+        technicians.reverse();
+        RosterState loaded = new RosterState(rosterLoader.getProviders(), technicians);
+        roster = loaded; // Publish the directory and everything sized from it in one step
+        ProviderDirectory directory = loaded.getDirectory();
+        out.println("Providers loaded to the list.");
+        for (int i = 0; i < directory.size(); i++) {
+            directory.get(i).formatTo(out);
+            out.println();
         }
-        for (Specialty specialty : Specialty.values()) {
-            if (specialty.name().equals(specialtyString.trim())) {
-                doctorSpecialty = specialty;
+        out.println("Rotation list for the technicians.");
+        boolean first = true;
+        for (Technician technician : technicians) {
+            if (!first) {
+                out.print(" --> ");
             }
+            out.print(technician.getProfile().getFirstName()).print(' ').print(technician.getProfile().getLastName());
+            out.print(" (").print(technician.getLocation().toString()).print(')');
+            first = false;
         }
-        Doctor doctor = new Doctor(profile, providerLocation, npi, doctorSpecialty);
-        providerList.add(doctor);
-        doctorList.add(doctor);
-    }
-
-    /**
-     * Creates a Technician object from the provided command array and adds it to the provider and technician lists.
-     *
-     * The command array must contain the required number of elements defined by `TECHNICIAN_COMMAND_LENGTH`.
-     * It extracts the technician's profile information, rate, and location,
-     * and initializes a Technician instance which is then added to the `providerList` and `technicianList`.
-     *
-     * @param commandArray An array containing the technician's details.
-     */
-    private void technicianCreator(String[] commandArray) {
-        if (commandArray.length != TECHNICIAN_COMMAND_LENGTH) {
-            return;
-        }
-
-        Date dateOfBirth = new Date(commandArray[PROVIDER_DOB_INDEX]);
-        Profile profile = new Profile(commandArray[PROVIDER_FIRST_NAME_INDEX], commandArray[PROVIDER_LAST_NAME_INDEX], dateOfBirth);
-        int rate = Integer.parseInt(commandArray[TECHNICIAN_RATE_INDEX]);
-        String locationString = commandArray[PROVIDER_LOCATION_INDEX];
-        Location providerLocation = null;
-
-        for (Location location : Location.values()) {
-            if (location.name().equals(locationString.trim())) {
-                providerLocation = location;
-            }
-        }
-
-        Technician technician = new Technician(profile, providerLocation, rate);
-        providerList.add(technician);
-        technicianList.add(technician);
+        out.println();
     }
 
 
@@ -311,12 +346,12 @@ public class ClinicManager {
     /**
      * Creates an appointment based off commandLine input array
      * Returns the new appointment object if successful, null otherwise
-     * @param commandArray an array from command line input with data to create appointment
+     * @param command the tokenized command line with data to create appointment
      @return an appointment or null object based on provided commandLine input array
      */
-    private Appointment createOfficeAppointment(String[] commandArray){
-        if(commandArray.length != D_OR_T_COMMAND_LENGTH){
-            System.out.println("Missing data tokens.");
+    private Appointment createOfficeAppointment(Tokenizer command){
+        if(command.size() != D_OR_T_COMMAND_LENGTH){
+            out.println("Missing data tokens.");
             return null;
         }
 
@@ -325,26 +360,27 @@ public class ClinicManager {
         Person patient = null;
         Person provider = null;
         try{
-            date = new Date(commandArray[INDEX_APPOINTMENT_DATE]);
+            date = command.parseDate(INDEX_APPOINTMENT_DATE);
         }catch(Exception e){
-            System.out.println("Appointment date: " + commandArray[INDEX_APPOINTMENT_DATE] + " is not a valid calendar date");
+            out.println("Appointment date: " + command.field(INDEX_APPOINTMENT_DATE) + " is not a valid calendar date");
             return null;
         }
         if(!appointmentDateValidator(date)){
             return null;
         }
-        patient = profileCreator(commandArray[INDEX_FIRST_NAME], commandArray[INDEX_LAST_NAME], commandArray[INDEX_DATE_OF_BIRTH]);
+        date = bookingWindow.intern(date); // Appointments on the same day share one Date
+        patient = profileCreator(command);
         if(patient == null){
             return null;
         }
         try{
-            slot = timeslotCreator(commandArray[INDEX_TIMESLOT]);
-            provider = doctorFinder(commandArray[INDEX_IMAGING_TYPE]);
+            slot = timeslotCreator(command, INDEX_TIMESLOT);
+            provider = doctorFinder(command.field(INDEX_NPI));
         }catch(Exception e){
             return null;
         }
         if(!date.isValid()){
-            System.out.println("Appointment date: " + commandArray[INDEX_APPOINTMENT_DATE] + " is not a valid calendar date");
+            out.println("Appointment date: " + command.field(INDEX_APPOINTMENT_DATE) + " is not a valid calendar date");
         }
         if( slot == null || provider == null){
             return null;
@@ -355,13 +391,13 @@ public class ClinicManager {
     /**
      * Creates an appointment based off commandLine input array
      * Returns the new appointment object if successful, null otherwise
-     * @param commandArray an array from command line input with data to create appointment
+     * @param command the tokenized command line with data to create appointment
      @return an appointment or null object based on provided commandLine input array
      */
-    private Appointment createTechnicianAppointment(String[] commandArray){
+    private Appointment createTechnicianAppointment(Tokenizer command){
 
-        if(commandArray.length != D_OR_T_COMMAND_LENGTH){
-            System.out.println("Missing data tokens.");
+        if(command.size() != D_OR_T_COMMAND_LENGTH){
+            out.println("Missing data tokens.");
             return null;
         }
         Date date = null;
@@ -370,36 +406,37 @@ public class ClinicManager {
         Person provider = null;
         Radiology room = null;
         try{
-            date = new Date(commandArray[INDEX_APPOINTMENT_DATE]);
+            date = command.parseDate(INDEX_APPOINTMENT_DATE);
         }catch(Exception e){
-            System.out.println("Appointment date: " + commandArray[INDEX_APPOINTMENT_DATE] + " is not a valid calendar date");
+            out.println("Appointment date: " + command.field(INDEX_APPOINTMENT_DATE) + " is not a valid calendar date");
             return null;
         }
         if(!appointmentDateValidator(date)){
             return null;
         }
-        patient = profileCreator(commandArray[INDEX_FIRST_NAME], commandArray[INDEX_LAST_NAME], commandArray[INDEX_DATE_OF_BIRTH]);
+        date = bookingWindow.intern(date); // Appointments on the same day share one Date
+        patient = profileCreator(command);
         if(patient == null){
             return null;
         }
-        slot = timeslotCreator(commandArray[INDEX_TIMESLOT]);
+        slot = timeslotCreator(command, INDEX_TIMESLOT);
         if( slot == null){
             return null;
         }
-        room = radiologyCreator(commandArray[INDEX_IMAGING_TYPE]);
+        room = radiologyCreator(command, INDEX_IMAGING_TYPE);
         if( room == null){
             return null;
         }
         if(!imagingAppointmentValid(date,slot, patient)){
-            System.out.println(patient.toString() +" has an existing appointment at the same time slot.");
+            out.println(patient.toString() +" has an existing appointment at the same time slot.");
             return null;
         }
-        provider = technicianAssigner(room, slot);
+        provider = technicianAssigner(room, date, slot);
         if( provider == null){
             return null;
         }
         if(!date.isValid()){
-            System.out.println("Appointment date: " + commandArray[INDEX_APPOINTMENT_DATE] + " is not a valid calendar date");
+            out.println("Appointment date: " + command.field(INDEX_APPOINTMENT_DATE) + " is not a valid calendar date");
         }
 
         return new Imaging(date, slot, patient, provider, room);
@@ -413,33 +450,35 @@ public class ClinicManager {
      * If a matching appointment is found, it is removed from the appointment list.
      * Otherwise, a message indicating that the appointment does not exist is printed.
      *
-     * @param commandArray An array containing the appointment details.
+     * @param command The tokenized command line containing the appointment details.
+     * @return true if the appointment was canceled, false otherwise.
      */
-    private void cancelAppointment(String[] commandArray) {
-        if (commandArray.length != VALID_C_COMMAND_LENGTH) {
-            System.out.println("Missing data tokens.");
-            return;
+    private boolean cancelAppointment(Tokenizer command) {
+        if (command.size() != VALID_C_COMMAND_LENGTH) {
+            out.println("Missing data tokens.");
+            return false;
         }
         Date date = null;
         Timeslot slot = null;
         Profile profile = null;
         try {
-            date = new Date(commandArray[INDEX_APPOINTMENT_DATE]);
-            slot = new Timeslot(Integer.parseInt(commandArray[INDEX_TIMESLOT]));
-            profile = new Profile(commandArray[INDEX_FIRST_NAME], commandArray[INDEX_LAST_NAME], new Date(commandArray[INDEX_DATE_OF_BIRTH]));
+            date = bookingWindow.intern(command.parseDate(INDEX_APPOINTMENT_DATE));
+            slot = Timeslot.of(command.parseInt(INDEX_TIMESLOT));
+            profile = new Profile(command.field(INDEX_FIRST_NAME), command.field(INDEX_LAST_NAME), command.parseDate(INDEX_DATE_OF_BIRTH));
         } catch (Exception e) {
-            System.out.println(date + " " + slot + " " + profile + " - appointment does not exist.");
-        }
-        Iterator<Appointment> iterator = appointmentList.iterator();
-        while (iterator.hasNext()) {
-            Appointment apptToCheck = iterator.next();
-            if (apptToCheck.getPatient().getProfile().equals(profile) && apptToCheck.getTimeslot().equals(slot) && apptToCheck.getDate().equals(date)) {
-                appointmentList.remove(apptToCheck);
-                System.out.println(date + " " + slot + " " + profile + " - appointment has been canceled.");
-                return;
+            out.println(date + " " + slot + " " + profile + " - appointment does not exist.");
+        }
+        int row = roster.getSchedule().findByPatient(date, slot, profile);
+        if (row != AppointmentStore.NOT_FOUND) {
+            removeAppointment(row);
+            if (journal != null) {
+                journal.cancel(date, slot, profile);
             }
+            out.println(date + " " + slot + " " + profile + " - appointment has been canceled.");
+            return true;
         }
-        System.out.println(date + " " + slot + " " + profile + " - appointment does not exist.");
+        out.println(date + " " + slot + " " + profile + " - appointment does not exist.");
+        return false;
     }
 
     /**
@@ -450,81 +489,69 @@ public class ClinicManager {
      * If a matching appointment is found, it is removed and a new appointment is added with the updated timeslot.
      * A message indicating success or failure is printed accordingly.
      *
-     * @param commandArray An array containing the appointment details.
+     * @param command The tokenized command line containing the appointment details.
+     * @return true if the appointment was rescheduled, false otherwise.
      */
-    private void rescheduleAppointment(String[] commandArray) {
-        if (commandArray.length != VALID_R_COMMAND_LENGTH) {
-            System.out.println("Missing data tokens.");
-            return;
+    private boolean rescheduleAppointment(Tokenizer command) {
+        RosterState state = roster;
+        if (command.size() != VALID_R_COMMAND_LENGTH) {
+            out.println("Missing data tokens.");
+            return false;
         }
         Date date = null;
         Timeslot slot = null;
         Timeslot newTimeslot = null;
         Profile profile = null;
         try {
-            date = new Date(commandArray[INDEX_APPOINTMENT_DATE]);
-            slot = new Timeslot(Integer.parseInt(commandArray[INDEX_TIMESLOT]));
-            profile = new Profile(commandArray[INDEX_FIRST_NAME], commandArray[INDEX_LAST_NAME], new Date(commandArray[INDEX_DATE_OF_BIRTH]));
-            newTimeslot = new Timeslot(Integer.parseInt(commandArray[INDEX_NEWTIMESLOT]));
+            date = bookingWindow.intern(command.parseDate(INDEX_APPOINTMENT_DATE));
+            slot = Timeslot.of(command.parseInt(INDEX_TIMESLOT));
+            profile = new Profile(command.field(INDEX_FIRST_NAME), command.field(INDEX_LAST_NAME), command.parseDate(INDEX_DATE_OF_BIRTH));
+            newTimeslot = Timeslot.of(command.parseInt(INDEX_NEWTIMESLOT));
         } catch (Exception e) {
-            System.out.println(date + " " + slot + " " + profile + " does not exist.");
+            out.println(date + " " + slot + " " + profile + " does not exist.");
         }
 
-        Iterator<Appointment> iterator = appointmentList.iterator();
-        while (iterator.hasNext()) {
-            Appointment apptToCheck = iterator.next();
-            if (apptToCheck.getPatient().getProfile().equals(profile) && apptToCheck.getTimeslot().equals(slot) && apptToCheck.getDate().equals(date)) {
-                if (addAppointmentToList(new Appointment(date, newTimeslot, new Person(profile), apptToCheck.getProvider()), RESCHEDULE_VALUE)) {
-                    appointmentList.remove(apptToCheck);
+        int row = state.getSchedule().findByPatient(date, slot, profile);
+        if (row != AppointmentStore.NOT_FOUND) {
+            if (addAppointmentToList(new Appointment(date, newTimeslot, patientFor(state, profile), state.getSchedule().getProvider(row)), RESCHEDULE_VALUE)) {
+                removeAppointment(row); // Adding never renumbers rows, only removing does
+                if (journal != null) {
+                    journal.reschedule(date, slot, profile, newTimeslot);
                 }
-                return;
+                return true;
             }
+            return false;
         }
-        System.out.println(date + " " + slot + " " + profile + " does not exist.");
+        out.println(date + " " + slot + " " + profile + " does not exist.");
+        return false;
     }
 
 
     /**
-     * Outputs the appointment list in sorted order based on the specified criteria.
+     * Outputs the appointments in one of the report orders of the appointment store.
      *
-     * If the appointment list is not empty, it sorts the appointments according to the given order and type,
-     * then prints them with appropriate headers. If the list is empty, a message indicating that the schedule is empty is printed.
+     * If the schedule is not empty, it sorts the store's rows on their columns and prints the appointments
+     * of the given type with the given header, building each appointment only as it is printed.
+     * If the schedule is empty, a message indicating that the schedule is empty is printed.
      *
-     * @param order The sorting criteria (e.g., patient date time).
+     * @param order The order to print in (e.g., AppointmentStore.BY_PATIENT_DATE_TIME).
      * @param apptType The type of appointment (e.g., office, imaging, both).
+     * @param header The index of the header to print in OUTPUT_HEADER_ARRAY.
      */
-    private void outputInSortedOrder(char order, int apptType) {
-        if (!appointmentList.isEmpty() && !listEmptied) {
-            Sort.appointment(appointmentList, order);
-            switch (apptType) {
-                case APPOINTMENT_TYPE_OFFICE:
-                    System.out.println(OUTPUT_HEADER_ARRAY[PRINT_OFFICE_VALUE]);
-                    break;
-                case APPOINTMENT_TYPE_IMAGING:
-                    System.out.println(OUTPUT_HEADER_ARRAY[PRINT_IMAGING_VALUE]);
-                    break;
-                case APPOINTMENT_TYPE_BOTH:
-                    switch (order) {
-                        case PATIENT_DATE_TIME:
-                            System.out.println(OUTPUT_HEADER_ARRAY[PRINT_PATIENT_VALUE]);
-                            break;
-                        case DATE_TIME_PROVIDER_NAME:
-                            System.out.println(OUTPUT_HEADER_ARRAY[PRINT_APPOINTMENT_VALUE]);
-                            break;
-                        case COUNTY_DATE_TIME:
-                            System.out.println(OUTPUT_HEADER_ARRAY[PRINT_LOCATION_VALUE]);
-                            break;
-                    }
-                    break;
-            }
-            for (int i = 0; i < appointmentList.size(); i++) {
-                if (apptType == APPOINTMENT_TYPE_BOTH) System.out.println(appointmentList.get(i).toString());
-                if (apptType == APPOINTMENT_TYPE_OFFICE && !(appointmentList.get(i) instanceof Imaging)) System.out.println(appointmentList.get(i).toString());
-                if (apptType == APPOINTMENT_TYPE_IMAGING && appointmentList.get(i) instanceof Imaging) System.out.println(appointmentList.get(i).toString());
+    private void outputInSortedOrder(int order, int apptType, int header) {
+        RosterState state = roster;
+        if (!state.getSchedule().isEmpty()) {
+            out.println(OUTPUT_HEADER_ARRAY[header]);
+            for (int row : state.getSchedule().sortedRows(order)) {
+                boolean imaging = state.getSchedule().getRoom(row) != null;
+                if (apptType == APPOINTMENT_TYPE_OFFICE && imaging) continue;
+                if (apptType == APPOINTMENT_TYPE_IMAGING && !imaging) continue;
+                state.getSchedule().get(row).formatTo(out);
+                out.println();
             }
-            System.out.println("** end of list **");
+            out.println("** end of list **");
         } else {
-            System.out.println("Schedule calendar is empty.");
+            out.println("Schedule calendar is empty.");
         }
     }
 
@@ -540,14 +567,7 @@ public class ClinicManager {
      * @return true if the appointment can be scheduled, false otherwise.
      */
     private boolean imagingAppointmentValid(Date date, Timeslot slot, Person patient) {
-        Iterator<Appointment> iterator = appointmentList.iterator();
-        while (iterator.hasNext()) {
-            Appointment apptToCheck = iterator.next();
-            if (apptToCheck.getPatient().equals(patient) && apptToCheck.getTimeslot().equals(slot) && apptToCheck.getDate().equals(date)) {
-                return false;
-            }
-        }
-        return true;
+        return roster.getSchedule().findByPatient(date, slot, patient.getProfile()) == AppointmentStore.NOT_FOUND;
     }
 
     /**
@@ -556,121 +576,99 @@ public class ClinicManager {
      * If the service string matches a defined Radiology service, it returns the corresponding service.
      * Otherwise, it prints a message indicating the service is not provided and returns null.
      *
-     * @param serviceString The name of the desired radiology service.
+     * @param command The tokenized command line.
+     * @param field The index of the field holding the name of the desired radiology service.
      * @return The corresponding Radiology service, or null if not found.
      */
-    private Radiology radiologyCreator(String serviceString) {
+    private Radiology radiologyCreator(Tokenizer command, int field) {
         Radiology room = null;
-        for (Radiology service : Radiology.values()) {
-            if (service.name().equalsIgnoreCase(serviceString.trim())) {
+        for (Radiology service : RADIOLOGY_SERVICES) {
+            if (command.fieldEqualsIgnoreCase(field, service.name())) {
                 room = service;
             }
         }
         if (room == null) {
-            System.out.println(serviceString + " - imaging service not provided.");
+            out.println(command.field(field) + " - imaging service not provided.");
             return null;
         }
         return room;
     }
 
     /**
-     Creates a profile object based off inputs
-     If any errors occur they are printed and null is return
-     @param room a string representing patient first name
-     @return Profile object based off input data
-     */
-    private Person technicianAssigner(Radiology room, Timeslot timeslot){
-        Person technician = null;
-        Node head = technicianList.getHead();
-        Node ptr = technicianList.getHead();
-        Iterator<Appointment> iterator;
-        boolean found = false;
-        do{
-            iterator = appointmentList.iterator();
-            while (iterator.hasNext()){
-                Appointment apptToCheck = iterator.next();
-                if (apptToCheck instanceof Imaging){
-                    Imaging imagingAppt = (Imaging)(apptToCheck);
-                    Technician currTechnician = (Technician)(imagingAppt.getProvider());
-                    if (imagingAppt.getTimeslot().equals(timeslot)){
-                        if (currTechnician.getLocation().equals(ptr.getTechnician().getLocation()) && imagingAppt.getRoom().equals(room)){
-                            found = true;
-                        } else if (currTechnician.getProfile().equals(ptr.getTechnician().getProfile())){
-                            found = true;
-                        }
-                    }
-
-                }
-            }
-            if (found){
-                found = false;
-                ptr = ptr.getNext();
-            } else {
-                technicianList.setHead(ptr.getNext());
-                return ptr.getTechnician();
-            }
-        } while(ptr != head);
-        System.out.println("Cannot find an available technician at all locations for " + room.name() + " at slot "+ timeslot.getTimeslotInt() +".");
-        return null;
-
+     Assigns the next available technician in the rotation to an imaging appointment
+     If no technician at any location is available, the error is printed and null is returned
+     @param room the imaging service requested
+     @param date the date of the imaging appointment
+     @param timeslot the timeslot of the imaging appointment
+     @return the assigned technician, or null if none is available
+     */
+    private Person technicianAssigner(Radiology room, Date date, Timeslot timeslot){
+        Technician technician = roster.getAssigner().assign(date, timeslot, room);
+        if (technician == null){
+            out.println("Cannot find an available technician at all locations for " + room.name() + " at slot "+ timeslot.getTimeslotInt() +".");
+        }
+        return technician;
     }
 
 
+
     /**
-     Creates a profile object based off inputs
+     Finds the patient named by the inputs, without registering them; the appointment store interns them once the appointment is booked
      If any errors occur they are printed and null is return
-     @param firstName a string representing patient first name
-     @param lastName a string representing patient last name
-     @param dateOfBirthString a string representing patient date of birth
-     @return Profile object based off input data
+     @param command the tokenized command line holding the patient first name, last name and date of birth
+     @return the registry's Person for the patient as spelled in the command, or a new Person if the spelling is new
      */
-    private Person profileCreator(String firstName, String lastName, String dateOfBirthString){
+    private Person profileCreator(Tokenizer command){
         Date date = null;
-        date = new Date(dateOfBirthString);
+        date = command.parseDate(INDEX_DATE_OF_BIRTH);
 
         if(date == null || !date.isValid()){
-            System.out.println("Patient dob: " + dateOfBirthString + " is not a valid calendar date");
+            out.println("Patient dob: " + command.field(INDEX_DATE_OF_BIRTH) + " is not a valid calendar date");
             return null;
         }
         if(checkDateValid(date) > 0){
-            System.out.println("Patient dob: " + dateOfBirthString + " is today or a date after today.");
+            out.println("Patient dob: " + command.field(INDEX_DATE_OF_BIRTH) + " is today or a date after today.");
             return null;
         }
-        Profile profile;
-        Person person;
         try{
-            profile = new Profile(firstName, lastName, date);
-        }catch(Exception e){
-            return null;
-        }
-        try{
-            person = new Person(profile);
+            Person known = roster.getRegistry().lookup(command.field(INDEX_FIRST_NAME), command.field(INDEX_LAST_NAME), date);
+            return known != null ? known : new Person(new Profile(command.field(INDEX_FIRST_NAME), command.field(INDEX_LAST_NAME), date));
         }catch(Exception e){
             return null;
         }
+    }
 
-        return person;
+    /**
+     Finds the registry's Person for a patient as spelled, without registering them, so the appointment shares the Person of its spelling
+     @param state the roster whose registry the patient is looked up in
+     @param profile the patient's profile, as spelled
+     @return the registry's Person for the spelling, or a new Person if the spelling is new
+     */
+    private Person patientFor(RosterState state, Profile profile){
+        Person known = state.getRegistry().lookup(profile);
+        return known != null ? known : new Person(profile);
     }
 
 
     /**
      Returns a timeslot object based off string input, returns null if the string is invalid
 
-     @param timeslotString a string representing the timeslot object to be created
+     @param command the tokenized command line
+     @param field the index of the field representing the timeslot object to be created
      @return A timeslot object created from input string
      */
-    private Timeslot timeslotCreator(String timeslotString){
+    private Timeslot timeslotCreator(Tokenizer command, int field){
         int timeslot = 0;
         try {
-            timeslot = Integer.parseInt(timeslotString);
+            timeslot = command.parseInt(field);
         } catch(Exception e){
-            System.out.println(timeslotString + " is not a valid time slot.");
+            out.println(command.field(field) + " is not a valid time slot.");
             return null;
         }
         if (timeslot > 0 && timeslot < 13){
-            return new Timeslot(timeslot);
+            return Timeslot.of(timeslot);
         } else {
-            System.out.println(timeslotString + " is not a valid time slot.");
+            out.println(command.field(field) + " is not a valid time slot.");
             return null;
         }
     }
@@ -681,13 +679,11 @@ public class ClinicManager {
      @return A provider object based off input string
      */
     private Person doctorFinder(String npi){
-
-        for(int i = 0; i < doctorList.size(); i++){
-            if(doctorList.get(i).getNpi().equals(npi)){
-                return doctorList.get(i);
-            }
+        Doctor doctor = roster.getDirectory().findDoctor(npi);
+        if(doctor != null){
+            return doctor;
         }
-        System.out.println(npi + " - provider doesn't exist.");
+        out.println(npi + " - provider doesn't exist.");
         return null;
     }
     /**
@@ -697,33 +693,16 @@ public class ClinicManager {
      @return an integer based on if the date is valid, or what the issue is
      */
     private int checkDateValid(Date targetDate){
-        if(targetDate.compareTo(getSystemDate(NO_OFFSET_VALUE)) == DATE_IS_TODAY){
-            return DATE_IS_TODAY;
-        }
-        if(targetDate.compareTo(getSystemDate(NO_OFFSET_VALUE)) == DATE_BEFORE_TODAY){
-            return DATE_BEFORE_TODAY;
-        }
-        if(targetDate.compareTo(getSystemDate(SIX_MONTH_OFFSET)) != 1){
-            return DATE_IS_VALID;
-        }else{
-            return DATE_NOT_WITHIN_SIX_MONTHS;
-        }
-
+        return bookingWindow.classify(targetDate);
     }
     /**
-     Gets current system date and returns a Date object of the current date with the month offset added
-     @param monthOffset An integer value based on how much the
+     Gets current date from the booking window's clock and returns a Date object of the current date with the month offset added
+     If the resulting month is shorter than today's day of the month, its last day is used
+     @param monthOffset An integer value based on how many months to add to the current date
      @return A date object created from the system date and month offset
      */
     public Date getSystemDate(int monthOffset){
-
-        Calendar appointmentCalendar = Calendar.getInstance();
-        appointmentCalendar.add(Calendar.DATE, NO_OFFSET_VALUE);
-        appointmentCalendar.add(Calendar.YEAR, NO_OFFSET_VALUE);
-        appointmentCalendar.add(Calendar.MONTH, monthOffset + MONTH_INDEX_OFFSET);
-
-
-        return new Date(appointmentCalendar.get(Calendar.MONTH), appointmentCalendar.get(Calendar.DAY_OF_MONTH), appointmentCalendar.get(Calendar.YEAR));
+        return bookingWindow.getToday().plusMonths(monthOffset);
     }
 
     /**
@@ -734,27 +713,225 @@ public class ClinicManager {
      * @return a true or false boolean value depending on if the appointment was successfully added to list
      */
     boolean addAppointmentToList(Appointment appointment, int statusValue){
-        listEmptied = false;
-        if(appointment instanceof Imaging){
-            appointmentList.add(appointment);
-            if (statusValue == BOOKED_VALUE){
-                System.out.println(appointment.toString() + " booked.");
-            } else {
-                System.out.println( "Rescheduled to " + appointment.toString());
+        if(appointment instanceof Imaging || appointmentValidator(appointment)){
+            insertAppointment(appointment);
+            if(journal != null && statusValue == BOOKED_VALUE){
+                journal.book(appointment);
             }
+            printConfirmation(appointment, statusValue);
             return true;
         }
-        if (appointmentValidator(appointment)){
-            appointmentList.add(appointment);
-            if (statusValue == BOOKED_VALUE){
-                System.out.println(appointment.toString() + " booked.");
-            } else {
-                System.out.println( "Rescheduled to " + appointment.toString());
+        return false;
+
+    }
+
+    /**
+     * Rebuilds the schedule from the journal, if there is one, once the providers are loaded.
+     * The journal's checkpoint is loaded first, then the journal records after it are replayed.
+     * Each event is applied directly to the schedule without printing or validating it again, since it was valid when it was recorded.
+     * Bookings whose provider is no longer on the roster are skipped.
+     * The schedule is bulk loaded, so its report orders are sorted once at the end instead of kept on every event.
+     * Prints the number of appointments restored and events replayed to standard error.
+     */
+    private void recoverSchedule(){
+        if(journal == null){
+            return;
+        }
+        roster.getSchedule().beginLoad();
+        try {
+            replaySchedule();
+        } finally {
+            roster.getSchedule().endLoad();
+        }
+    }
+
+    /**
+     * Loads the journal's checkpoint, then replays the journal records after it.
+     */
+    private void replaySchedule(){
+        ScheduleCheckpoint checkpoint = ScheduleCheckpoint.read(ScheduleCheckpoint.pathFor(journal.getPath()));
+        long from = 0;
+        int restored = 0;
+        if(checkpoint != null && checkpoint.getJournalPosition() >= journal.getFirstPosition()){
+            restored = restoreCheckpoint(checkpoint);
+            from = checkpoint.getJournalPosition();
+        } else if(journal.getFirstPosition() > 0){
+            System.err.println("Journal: the checkpoint the journal was truncated after is missing or damaged; replaying what is left");
+        }
+        int[] skipped = new int[1];
+        int events;
+        try {
+            events = journal.replay(event -> {
+                if(!applyJournalEvent(event)){
+                    skipped[0]++;
+                }
+            }, from);
+        } catch (IOException e) {
+            out.println(e);
+            return;
+        }
+        System.err.printf("Journal: %d appointments from checkpoint, %d events replayed (%d skipped) from %s%n",
+                restored, events, skipped[0], journal.getPath());
+    }
+
+    /**
+     * Adds the appointments of a checkpoint to the schedule and moves the technician rotation to where it stood.
+     * @param checkpoint The checkpoint to restore
+     * @return the number of appointments restored
+     */
+    private int restoreCheckpoint(ScheduleCheckpoint checkpoint){
+        RosterState state = roster;
+        Provider[] providers = checkpoint.resolveProviders(state.getDirectory());
+        int restored = 0;
+        for(int i = 0; i < checkpoint.size(); i++){
+            Provider provider = providers[checkpoint.getProvider(i)];
+            Radiology room = checkpoint.getRoom(i);
+            if(provider == null || (room != null && !(provider instanceof Technician))){
+                continue;
             }
-            return true;
+            Date date = bookingWindow.intern(checkpoint.getDate(i));
+            Person patient = patientFor(state, checkpoint.getPatient(i));
+            insertAppointment(room == null ? new Appointment(date, checkpoint.getTimeslot(i), patient, provider)
+                    : new Imaging(date, checkpoint.getTimeslot(i), patient, provider, room));
+            restored++;
         }
-        return false;
+        int head = checkpoint.getRotationHead();
+        if(head >= 0 && providers[head] instanceof Technician){
+            int turns = state.getTechnicians().turnsUntil((Technician) providers[head]);
+            if(turns != Rotation.NOT_FOUND){
+                state.getTechnicians().advance(turns);
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Applies one event of the journal to the schedule.
+     * An imaging booking also moves the technician rotation past its technician, as assigning the technician did.
+     * @param event The event to apply
+     * @return true if the event was applied, false if it no longer matches the schedule or the roster
+     */
+    private boolean applyJournalEvent(Journal.Event event){
+        RosterState state = roster;
+        Date date = bookingWindow.intern(event.getDate());
+        switch (event.getType()) {
+            case Journal.BOOK:
+                Provider provider = event.getNpi() != null ? state.getDirectory().findDoctor(event.getNpi())
+                        : state.getDirectory().findByProfile(event.getProvider());
+                if(provider == null || (event.getRoom() != null) != (provider instanceof Technician)){
+                    return false;
+                }
+                if(event.getRoom() == null){
+                    insertAppointment(new Appointment(date, event.getTimeslot(), patientFor(state, event.getPatient()), provider));
+                    return true;
+                }
+                insertAppointment(new Imaging(date, event.getTimeslot(), patientFor(state, event.getPatient()), provider, event.getRoom()));
+                state.getTechnicians().advance(state.getTechnicians().turnsUntil((Technician) provider) + 1);
+                return true;
+            case Journal.CANCEL:
+                int canceled = state.getSchedule().findByPatient(date, event.getTimeslot(), event.getPatient());
+                if(canceled == AppointmentStore.NOT_FOUND){
+                    return false;
+                }
+                removeAppointment(canceled);
+                return true;
+            case Journal.RESCHEDULE:
+                int moved = state.getSchedule().findByPatient(date, event.getTimeslot(), event.getPatient());
+                if(moved == AppointmentStore.NOT_FOUND){
+                    return false;
+                }
+                insertAppointment(new Appointment(date, event.getNewTimeslot(), patientFor(state, event.getPatient()), state.getSchedule().getProvider(moved)));
+                removeAppointment(moved);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Marks the end of a command for the journal, if there is one, so its events are written and synced per the journal's policy.
+     * Starts a background checkpoint when enough events were journaled since the last one.
+     */
+    private void commandDone(){
+        if(journal == null){
+            return;
+        }
+        journal.commandDone();
+        if(checkpointer != null && checkpointer.isDue()){
+            RosterState state = roster;
+            try {
+                checkpointer.checkpoint(state.getSchedule().copy(), state.getTechnicians().isEmpty() ? null : state.getTechnicians().get(0));
+            } catch (IOException e) {
+                System.err.println("Checkpoint failed, keeping the whole journal: " + e);
+            }
+        }
+    }
+
+    /**
+     * Prints the confirmation of a booked or rescheduled appointment
+     * @param appointment The appointment that was added to the list
+     * @param statusValue An integer value to differentiate a new booking from a reschedule
+     */
+    private void printConfirmation(Appointment appointment, int statusValue){
+        if (statusValue == BOOKED_VALUE){
+            appointment.formatTo(out);
+            out.println(" booked.");
+        } else {
+            out.print("Rescheduled to ");
+            appointment.formatTo(out);
+            out.println();
+        }
+    }
+
+    /**
+     * Adds an appointment to the appointment store and keeps the credits and booked timeslots up to date.
+     * The store keeps the appointment's fields in its columns, not the appointment itself.
+     * @param appointment The appointment to add
+     */
+    private void insertAppointment(Appointment appointment){
+        RosterState state = roster;
+        if(state.getSchedule().add(appointment) == AppointmentStore.NOT_FOUND){
+            return; // Already on the schedule
+        }
+        int providerId = providerId(appointment.getProvider());
+        if(providerId != ProviderDirectory.NOT_FOUND){
+            state.getCredits().add(providerId, ((Provider) appointment.getProvider()).rate());
+        }
+        if(state.getOccupancy().covers(providerId, appointment.getDate(), appointment.getTimeslot())){
+            state.getOccupancy().book(providerId, appointment.getDate(), appointment.getTimeslot());
+        }
+        if(appointment instanceof Imaging){
+            state.getAssigner().book((Imaging) appointment);
+        }
+    }
 
+    /**
+     * Removes an appointment from the appointment store and takes back its credit and booked timeslots.
+     * @param row The row of the appointment in the store, which may be renumbered by the removal
+     */
+    private void removeAppointment(int row){
+        RosterState state = roster;
+        Appointment appointment = state.getSchedule().get(row);
+        state.getSchedule().remove(row);
+        int providerId = providerId(appointment.getProvider());
+        if(providerId != ProviderDirectory.NOT_FOUND){
+            state.getCredits().remove(providerId, ((Provider) appointment.getProvider()).rate());
+        }
+        if(state.getOccupancy().covers(providerId, appointment.getDate(), appointment.getTimeslot())){
+            state.getOccupancy().release(providerId, appointment.getDate(), appointment.getTimeslot());
+        }
+        if(appointment instanceof Imaging){
+            state.getAssigner().release((Imaging) appointment);
+        }
+    }
+
+    /**
+     * Gets the id a provider is tracked under in the slot occupancy, which is its id in the provider directory
+     * @param provider The provider of an appointment
+     * @return the provider's id, or ProviderDirectory.NOT_FOUND if it is not a loaded provider
+     */
+    private int providerId(Person provider){
+        return roster.getDirectory().idOf(provider);
     }
 
     /**
@@ -764,29 +941,35 @@ public class ClinicManager {
      * @return a boolean value based on if the appointment is valid or not
      */
     private boolean appointmentValidator(Appointment appointment){
-
-        if(appointmentList.contains(appointment)){
-            System.out.println(appointment.getPatient().toString()+" has an existing appointment at the same time slot.");
+        RosterState state = roster;
+        if(state.getSchedule().contains(appointment)){
+            out.println(appointment.getPatient().toString()+" has an existing appointment at the same time slot.");
             return false;
         }
-        Iterator<Appointment> iterator = appointmentList.iterator();
-        while (iterator.hasNext()){
-            Appointment apptToCheck = iterator.next();
-            if (apptToCheck.getProvider().equals(appointment.getProvider()) && apptToCheck.getTimeslot().equals(appointment.getTimeslot()) && apptToCheck.getDate().equals(appointment.getDate())){
-                if (!(appointment.getProvider() instanceof Technician)){
-                    Doctor apptTechnician = (Doctor)(appointment.getProvider());
-                    System.out.println(apptTechnician.toString()+ " is not available at slot " + appointment.getTimeslot().getTimeslotInt());
-                }
-                return false;
-            }
-            if (apptToCheck.getPatient().equals(appointment.getPatient()) && apptToCheck.getTimeslot().equals(appointment.getTimeslot()) && apptToCheck.getDate().equals(appointment.getDate())){
-                System.out.println(appointment.getPatient().toString() + " has an existing appointment at "+appointment.getDate().toString()+" "+appointment.getTimeslot().toString());
-                return false;
+        int providerConflict = AppointmentStore.NOT_FOUND;
+        int providerId = providerId(appointment.getProvider());
+        // The occupancy bits answer "is the provider free" directly; the index is only needed to find the conflicting appointment
+        if(!state.getOccupancy().covers(providerId, appointment.getDate(), appointment.getTimeslot())
+                || state.getOccupancy().isBooked(providerId, appointment.getDate(), appointment.getTimeslot())){
+            providerConflict = state.getSchedule().findByProvider(appointment.getDate(), appointment.getTimeslot(), providerId);
+        }
+        int patientConflict = state.getSchedule().findByPatient(appointment.getDate(), appointment.getTimeslot(), appointment.getPatient().getProfile());
+        // Report whichever conflict was booked first, as a scan of the appointments would; rows are in booking order
+        if (providerConflict != AppointmentStore.NOT_FOUND && (patientConflict == AppointmentStore.NOT_FOUND || providerConflict < patientConflict)){
+            if (!(appointment.getProvider() instanceof Technician)){
+                Doctor apptTechnician = (Doctor)(appointment.getProvider());
+                out.println(apptTechnician.toString()+ " is not available at slot " + appointment.getTimeslot().getTimeslotInt());
             }
+            return false;
+        }
+        if (patientConflict != AppointmentStore.NOT_FOUND){
+            out.println(appointment.getPatient().toString() + " has an existing appointment at "+appointment.getDate().toString()+" "+appointment.getTimeslot().toString());
+            return false;
         }
         return true;
     }
 
+
     /**
      * Checks if appointment object date is valid, not today or before today, is within six months, and is not a weekend
      * Prints any errors and returns true if successful, false otherwise
@@ -796,143 +979,82 @@ public class ClinicManager {
     private boolean appointmentDateValidator(Date date){
         //Check appointment date is valid calendar date
         if(!date.isValid()){
-            System.out.println("Appointment date: " + date.toString() + " is not a valid calendar date");
+            out.println("Appointment date: " + date.toString() + " is not a valid calendar date");
             return false;
         }
+        int placement = checkDateValid(date);
         //Check if appointment date is today
-        if(checkDateValid(date) <= DATE_IS_TODAY){
-            System.out.println("Appointment date: " + date.toString() + " is today or a date before today.");
+        if(placement <= DATE_IS_TODAY){
+            out.println("Appointment date: " + date.toString() + " is today or a date before today.");
             return false;
         }
         //Check if appointment date is within 6 months
-        if(checkDateValid(date) == DATE_NOT_WITHIN_SIX_MONTHS){
-            System.out.println("Appointment date: " + date.toString() + " is not within six months.");
+        if(placement == DATE_NOT_WITHIN_SIX_MONTHS){
+            out.println("Appointment date: " + date.toString() + " is not within six months.");
             return false;
         }
         //Check if appointment date is a weekend
-        Calendar appointmentCalendar = Calendar.getInstance();
-        try{
-            appointmentCalendar.set(date.getYear(), date.getMonth() - CALENDAR_OFFSET, date.getDay());
-        }catch(Exception e){
-            System.out.println("Date can not be convert to Calendar object");
-            return false;
-        }
-        int day = appointmentCalendar.get(Calendar.DAY_OF_WEEK);
-        if(day == Calendar.SATURDAY || day == Calendar.SUNDAY){
-            System.out.println("Appointment date: " + date.toString() + " is Saturday or Sunday.");
+        if(!bookingWindow.isBusinessDay(date)){
+            out.println("Appointment date: " + date.toString() + " is Saturday or Sunday.");
             return false;
         }
         return true;
     }
     
     /**
-     * Generates and prints billing statements for patients based on appointments in the appointment list.
+     * Prints billing statements for patients based on the appointments on the schedule.
      *
-     * The method accumulates the total billing amounts for each patient by iterating through the
-     * appointments, using the provider's rate for billing. The results are printed in an ordered format
-     * showing each patient's profile information along with the total amount due. If the appointment list
+     * The schedule's billing ledger keeps each patient's total up to date, in billing order, as appointments
+     * are booked, canceled and rescheduled, so printing is a single walk over the ledger.
+     * Each patient's profile information is shown along with the total amount due. If the schedule
      * is empty, a message indicating that the schedule is empty is printed.
      */
     private void printBillingStatements() {
-        if (!appointmentList.isEmpty()) {
-            listEmptied = true;
-            appointment(appointmentList, PATIENT_DATE_TIME);
-            int[] patientBills = new int[appointmentList.size()];
-            int[] patientHashCodeList = new int[appointmentList.size()];
-            Person[] patientList = new Person[appointmentList.size()];
-            Iterator<Appointment> iterator = appointmentList.iterator();
-            boolean found = false;
-            int idx = -1;
-            int size = 0;
-            while (iterator.hasNext()) {
-                found = false;
-                idx = -1;
-                Appointment appointment = iterator.next();
-                Person patient = appointment.getPatient();
-                Provider provider = (Provider) appointment.getProvider();
-                int billingAmount = provider.rate();
-                for (int i = 0; i < appointmentList.size(); i++) {
-                    if (patientHashCodeList[i] != 0) {
-                        if (patientHashCodeList[i] == patient.hashCode()) {
-                            found = true;
-                            idx = i;}}}
-                if (found) {
-                    patientBills[idx] = patientBills[idx] + billingAmount;
-                } else {
-                    patientList[size] = patient;
-                    patientHashCodeList[size] = patient.hashCode();
-                    patientBills[size] = billingAmount;
-                    size++;}}
-            System.out.println("** Billing statement ordered by patient. **");
-            int count = 1;
-            for (int i = 0; i < size; i++) {
-                Person patient = patientList[i];
-                int dueAmount = patientBills[i];
-                String profileInfo = patient.getProfile().toString();
-                System.out.printf("(%d) %s [due: $%,.2f]%n", count++, profileInfo, (double) dueAmount);}
-
-            System.out.println("** end of list **");
-        } else {System.out.println("Schedule calendar is empty.");}
+        RosterState state = roster;
+        if (state.getSchedule().isEmpty()) {
+            out.println("Schedule calendar is empty.");
+            return;
+        }
+        out.println("** Billing statement ordered by patient. **");
+        int count = 1;
+        BillingLedger ledger = state.getSchedule().getLedger();
+        for (Patient patient : ledger) {
+            out.print('(').print(count++).print(") ");
+            ledger.getBilledProfile(patient).formatTo(out);
+            out.print(" [due: $").printAmount(patient.charge(), true).println("]");
+        }
+        out.println("** end of list **");
     }
 
+
         
 
-/**
- * Calculates and prints the expected credit amounts for each provider based on the appointments in the appointment list.
- *
- * If the appointment list is not empty, the method accumulates billing amounts for each provider,
- * stores them in respective arrays, and prints the credit amounts ordered by provider.
- * The output includes each provider's profile information along with their total credit amount.
- * If the appointment list is empty, a message indicating that the schedule is empty is printed.
- */
-private void printExpectedCredits() {
-    if (!appointmentList.isEmpty()) {
-        listEmptied = true;
-        // Use an iterator for the appointmentList
-        appointment(appointmentList, PROVIDER_NAME_DOB);
-        int[] providerCredits = new int[appointmentList.size()];
-        int[] providerHashCodeList = new int[appointmentList.size()];
-        Provider[] providerList = new Provider[appointmentList.size()];
-        Iterator<Appointment> iterator = appointmentList.iterator();
-        boolean found = false;
-        int idx = -1;
-        int size = 0;
-        // Accumulate total billing amounts per provider
-        while (iterator.hasNext()) {
-            found = false;
-            idx = -1;
-            Appointment appointment = iterator.next();
-            Provider provider = (Provider) appointment.getProvider();
-            int billingAmount = provider.rate();
-            for (int i = 0; i < appointmentList.size(); i++) {
-                if (providerHashCodeList[i] != 0) {
-                    if (providerHashCodeList[i] == provider.hashCode()) {
-                        found = true;
-                        idx = i;
-                    }
-                }
-            }
-            if (found) {
-                providerCredits[idx] = providerCredits[idx] + billingAmount;
-            } else {
-                providerList[size] = provider;
-                providerHashCodeList[size] = provider.hashCode();
-                providerCredits[size] = billingAmount;
-                size++;
-            }}
-        // Print in the required format
-        System.out.println("** Credit amount ordered by provider. **");
+    /**
+     * Prints the expected credit amounts for each provider with appointments on the schedule.
+     *
+     * The credits are kept up to date as appointments are booked and canceled, so this walks the
+     * provider directory, which is already ordered by provider, and never looks at the appointments.
+     * The output includes each provider's profile information along with their total credit amount.
+     * If the schedule is empty, a message indicating that the schedule is empty is printed.
+     */
+    private void printExpectedCredits() {
+        RosterState state = roster;
+        if (state.getSchedule().isEmpty()) {
+            out.println("Schedule calendar is empty.");
+            return;
+        }
+        ProviderDirectory directory = state.getDirectory();
+        ProviderCredits providerCredits = state.getCredits();
+        out.println("** Credit amount ordered by provider. **");
         int count = 1;
-        for (int i = 0; i < size; i++) {
-            Person patient = providerList[i];
-            int creditAmount = providerCredits[i];
-            String profileInfo = patient.getProfile().toString();
-            System.out.printf("(%d) %s [credit amount: $%.2f]%n", count++, profileInfo, (double) creditAmount);
+        for (int id = 0; id < directory.size(); id++) {
+            if (providerCredits.getCount(id) == 0) {
+                continue;
+            }
+            out.print('(').print(count++).print(") ");
+            directory.get(id).getProfile().formatTo(out);
+            out.print(" [credit amount: $").printAmount(providerCredits.getCredit(id), false).println("]");
         }
-        System.out.println("** end of list **");
-    } else {
-        System.out.println("Schedule calendar is empty.");
+        out.println("** end of list **");
     }
 }
-}
-
@@ -1,5 +1,7 @@
 package clinic;
 
+import util.OutputBuffer;
+
 /**
  * Represents a Doctor, which is a type of Provider with an associated specialty 
  * and a National Provider Identification (NPI) number.
@@ -44,6 +46,15 @@ public class Doctor extends Provider {
         return npi;
     }
 
+    /**
+     * Gets the specialty of the doctor.
+     *
+     * @return the specialty of the doctor
+     */
+    public Specialty getSpecialty() {
+        return specialty;
+    }
+
     /**
      * Returns the rate charged by the doctor based on their specialty.
      *
@@ -64,4 +75,15 @@ public class Doctor extends Provider {
     public String toString() {
         return (super.toString() + "[" + specialty.name() + ", #" + npi + "]");
     }
+
+    /**
+     * Writes the Doctor in the same format as toString, without building a String.
+     *
+     * @param out the buffer to write to
+     */
+    @Override
+    public void formatTo(OutputBuffer out) {
+        super.formatTo(out);
+        out.print('[').print(specialty.name()).print(", #").print(npi).print(']');
+    }
 }
@@ -1,5 +1,6 @@
 package clinic;
 import util.Date;
+import util.OutputBuffer;
 /**
  * Represents an imaging appointment that extends the Appointment class.
  * Includes additional details specific to imaging services, such as the type of imaging room.
@@ -63,6 +64,17 @@ public class Imaging extends Appointment {
         return super.toString() + "[" + room.name() +"]";
     }
 
+    /**
+     * Writes the imaging appointment in the same format as toString, straight into an output buffer.
+     *
+     * @param out The buffer to write to.
+     */
+    @Override
+    public void formatTo(OutputBuffer out) {
+        super.formatTo(out);
+        out.print('[').print(room.name()).print(']');
+    }
+
     /**
      * Checks if this imaging appointment is equal to another based on the date, timeslot, patient,
      * provider, and room type.
@@ -0,0 +1,744 @@
+package clinic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import util.Date;
+
+/**
+ * An append-only binary journal of the bookings, cancellations and reschedules that change
+ * the schedule, so the schedule can be rebuilt after a crash.
+ *
+ * Each event is one record: its length, its type, its fields, and a CRC-32 of the type and
+ * fields. Records are collected in a buffer and written to the file at the end of each command.
+ * When they are also forced to disk depends on the SyncPolicy:
+ * <ul>
+ *   <li>COMMAND forces after every command that changed the schedule.</li>
+ *   <li>GROUP forces once a group of records is waiting, so a burst of bookings shares one
+ *       force, and a background thread forces whatever is still waiting once the oldest
+ *       waiting record is a period old, even if no other command comes.</li>
+ *   <li>PERIODIC forces from a background thread once every period.</li>
+ * </ul>
+ * Closing the journal always writes and forces whatever is left.
+ *
+ * At startup replay reads the journal back in order. A record cut short by a crash, or one
+ * whose CRC does not match, ends the journal; it is cut off so new records follow the last
+ * good one. An imaging booking records the technician it was assigned, which is also where
+ * the technician rotation stood, so replaying it puts the rotation back in the same place.
+ *
+ * Every record has a position: the number of record bytes appended before it since the
+ * journal was created. A ScheduleCheckpoint notes the position the schedule it holds is
+ * current to, and once it is on disk truncateBefore drops the records before that position.
+ * The header keeps the position of the first record left, so positions never change.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ */
+public class Journal implements Closeable {
+    public static final byte BOOK = 1;
+    public static final byte CANCEL = 2;
+    public static final byte RESCHEDULE = 3;
+    public static final int DEFAULT_GROUP_SIZE = 64; // Records forced together under GROUP
+    public static final long DEFAULT_PERIOD_MILLIS = 100; // Longest a record waits to be forced under GROUP and PERIODIC
+
+    private static final int MAGIC = 0x4A524E4C; // "JRNL"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES; // Magic, version, then the position of the first record
+    private static final int FRAME_BYTES = 2 * Integer.BYTES; // The length before a record and the CRC after it
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte NO_ROOM = -1; // Room stored for an office appointment
+    private static final byte DOCTOR = 'D';
+    private static final byte TECHNICIAN = 'T';
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    /**
+     * When records are forced to disk.
+     */
+    public enum SyncPolicy {
+        COMMAND, GROUP, PERIODIC
+    }
+
+    /**
+     * Receives the events of the journal as it is replayed.
+     */
+    public interface Replayer {
+        /**
+         * Applies one event.
+         *
+         * @param event The event read from the journal.
+         */
+        void apply(Event event);
+    }
+
+    private final Path path; // The journal file
+    private volatile FileChannel channel; // Open for reading and appending, replaced when the journal is truncated
+    private long base; // Position of the first record in the file
+    private final SyncPolicy policy; // When records are forced to disk
+    private final int groupSize; // Records forced together under GROUP
+    private final long periodNanos; // Longest a record waits to be forced under GROUP and PERIODIC
+    private final ByteBuffer buffer; // Records not yet written to the file
+    private final ScheduledExecutorService syncer; // Forces the file in the background under GROUP and PERIODIC, null under COMMAND
+    private int buffered; // Records in the buffer
+    private int unsynced; // Records written to the file but not forced
+    private long oldestUnsyncedNanos; // When the oldest unforced record was written
+    private long appended; // Records appended since the journal was opened
+    private volatile boolean dirty; // Whether anything was written since the last force
+
+    /**
+     * Opens a journal with the default group size and period, creating the file if it does not exist.
+     *
+     * @param path The journal file.
+     * @param policy When records are forced to disk.
+     * @throws IOException if the file cannot be opened or is not a journal.
+     */
+    public Journal(Path path, SyncPolicy policy) throws IOException {
+        this(path, policy, DEFAULT_GROUP_SIZE, DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * Opens a journal, creating the file if it does not exist.
+     *
+     * @param path The journal file.
+     * @param policy When records are forced to disk.
+     * @param groupSize The number of records forced together under GROUP.
+     * @param periodMillis The longest a record waits to be forced under GROUP and PERIODIC.
+     * @throws IOException if the file cannot be opened or is not a journal.
+     */
+    public Journal(Path path, SyncPolicy policy, int groupSize, long periodMillis) throws IOException {
+        if (groupSize <= 0 || periodMillis <= 0) {
+            throw new IllegalArgumentException("Group size and period must be positive");
+        }
+        this.path = path;
+        this.policy = policy;
+        this.groupSize = groupSize;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.channel = openChannel();
+        if (policy == SyncPolicy.COMMAND) {
+            syncer = null;
+        } else {
+            syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (policy == SyncPolicy.PERIODIC) {
+            syncer.scheduleAtFixedRate(this::forceIfDirty, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Records a booking.
+     *
+     * @param appointment The appointment added to the schedule; for an imaging appointment the
+     *                    provider is the technician whose turn it was.
+     */
+    public synchronized void book(Appointment appointment) {
+        Person provider = appointment.getProvider();
+        byte[] npi = provider instanceof Doctor ? bytes(((Doctor) provider).getNpi()) : new byte[0];
+        int start = begin(BOOK, profileBytes(appointment.getPatient().getProfile()) + profileBytes(provider.getProfile()) + npi.length + 12);
+        buffer.putInt(appointment.getDate().toEpochDay()).put((byte) appointment.getTimeslot().getTimeslotInt());
+        putProfile(appointment.getPatient().getProfile());
+        buffer.put(provider instanceof Doctor ? DOCTOR : TECHNICIAN);
+        putProfile(provider.getProfile());
+        buffer.putShort((short) npi.length).put(npi);
+        buffer.put(appointment instanceof Imaging ? (byte) ((Imaging) appointment).getRoom().ordinal() : NO_ROOM);
+        end(start);
+    }
+
+    /**
+     * Records a cancellation.
+     *
+     * @param date The date of the canceled appointment.
+     * @param slot The timeslot of the canceled appointment.
+     * @param patient The patient of the canceled appointment.
+     */
+    public synchronized void cancel(Date date, Timeslot slot, Profile patient) {
+        int start = begin(CANCEL, profileBytes(patient) + 8);
+        buffer.putInt(date.toEpochDay()).put((byte) slot.getTimeslotInt());
+        putProfile(patient);
+        end(start);
+    }
+
+    /**
+     * Records a reschedule to another timeslot on the same day.
+     *
+     * @param date The date of the appointment.
+     * @param slot The timeslot the appointment was moved from.
+     * @param patient The patient of the appointment.
+     * @param newSlot The timeslot the appointment was moved to.
+     */
+    public synchronized void reschedule(Date date, Timeslot slot, Profile patient, Timeslot newSlot) {
+        int start = begin(RESCHEDULE, profileBytes(patient) + 8);
+        buffer.putInt(date.toEpochDay()).put((byte) slot.getTimeslotInt());
+        putProfile(patient);
+        buffer.put((byte) newSlot.getTimeslotInt());
+        end(start);
+    }
+
+    /**
+     * Marks the end of a command: writes its records to the file and forces them to disk if
+     * the sync policy says so.
+     *
+     * @throws UncheckedIOException if the journal cannot be written.
+     */
+    public synchronized void commandDone() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        try {
+            boolean newGroup = unsynced == 0;
+            writeBuffer();
+            long now = System.nanoTime();
+            switch (policy) {
+                case COMMAND:
+                    force();
+                    break;
+                case GROUP:
+                    if (unsynced >= groupSize || now - oldestUnsyncedNanos >= periodNanos) {
+                        force();
+                    } else if (newGroup) { // Make sure the group is forced within a period even if no command follows
+                        syncer.schedule(this::forceWaiting, periodNanos, TimeUnit.NANOSECONDS);
+                    }
+                    break;
+                default: // PERIODIC is forced by the background thread
+                    break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the number of records written to the file but not yet forced to disk.
+     *
+     * @return the number of unforced records.
+     */
+    public synchronized int getUnsyncedCount() {
+        return unsynced;
+    }
+
+    /**
+     * Writes every waiting record and forces the file to disk, whatever the sync policy.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    public synchronized void sync() throws IOException {
+        writeBuffer();
+        force();
+    }
+
+    /**
+     * Reads the journal from the start and hands each event to the replayer in order.
+     * The journal is cut off at the first damaged or incomplete record, and new records
+     * are appended after the last good one.
+     *
+     * @param replayer The replayer applying each event.
+     * @return the number of events replayed.
+     * @throws IOException if the journal cannot be read.
+     */
+    public int replay(Replayer replayer) throws IOException {
+        return replay(replayer, 0);
+    }
+
+    /**
+     * Reads the journal and hands each event at or after a position to the replayer in order.
+     * Earlier events are checked but not replayed, since a checkpoint already holds them.
+     * The journal is cut off at the first damaged or incomplete record, and new records
+     * are appended after the last good one.
+     *
+     * @param replayer The replayer applying each event.
+     * @param from The position of the first event to replay.
+     * @return the number of events replayed.
+     * @throws IOException if the journal cannot be read.
+     */
+    public synchronized int replay(Replayer replayer, long from) throws IOException {
+        long size = channel.size();
+        int events = 0;
+        long good = HEADER_BYTES;
+        if (size > HEADER_BYTES) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.position(HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            while (mapped.remaining() >= FRAME_BYTES) {
+                int length = mapped.getInt(mapped.position());
+                if (length <= 0 || length > mapped.remaining() - FRAME_BYTES) {
+                    break; // Cut short by a crash
+                }
+                ByteBuffer record = mapped.slice();
+                record.position(Integer.BYTES).limit(Integer.BYTES + length);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != mapped.getInt(mapped.position() + Integer.BYTES + length)) {
+                    break;
+                }
+                Event event;
+                try {
+                    event = decode(record);
+                } catch (RuntimeException e) {
+                    break;
+                }
+                if (base + mapped.position() - HEADER_BYTES >= from) {
+                    replayer.apply(event);
+                    events++;
+                }
+                mapped.position(mapped.position() + FRAME_BYTES + length);
+                good = mapped.position();
+            }
+        }
+        if (good < size) {
+            channel.truncate(good);
+            channel.force(true);
+        }
+        channel.position(good);
+        return events;
+    }
+
+    /**
+     * Gets the size of the journal file, including records not yet written to it.
+     *
+     * @return the number of bytes in the journal.
+     * @throws IOException if the size cannot be read.
+     */
+    public synchronized long size() throws IOException {
+        return channel.size() + buffer.position();
+    }
+
+    /**
+     * Gets the position just past the last record appended, including records not yet written
+     * to the file. A checkpoint taken now is current to this position.
+     *
+     * @return the position of the next record.
+     * @throws IOException if the size of the file cannot be read.
+     */
+    public synchronized long position() throws IOException {
+        return base + channel.size() - HEADER_BYTES + buffer.position();
+    }
+
+    /**
+     * Gets the position of the first record still in the journal, which is past 0 once the journal has been truncated.
+     *
+     * @return the position of the first record.
+     */
+    public synchronized long getFirstPosition() {
+        return base;
+    }
+
+    /**
+     * Gets the number of records appended since the journal was opened.
+     *
+     * @return the number of records.
+     */
+    public synchronized long getRecordCount() {
+        return appended;
+    }
+
+    /**
+     * Drops the records before a position, once a checkpoint holding them is safely on disk.
+     * The records after it are copied to a new file, which is forced and then moved over the
+     * journal, so a crash leaves either the old journal or the new one.
+     * Appends wait while the copy is made, which only takes as long as copying the short tail.
+     *
+     * @param position The position of the first record to keep.
+     * @throws IOException if the journal cannot be rewritten.
+     */
+    public synchronized void truncateBefore(long position) throws IOException {
+        writeBuffer();
+        if (position <= base) {
+            return;
+        }
+        long from = HEADER_BYTES + position - base;
+        long size = channel.size();
+        if (from > size) {
+            throw new IllegalArgumentException("Position " + position + " is past the end of the journal");
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel copy = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            copy.write(header(position), 0);
+            long copied = 0;
+            while (copied < size - from) {
+                copied += channel.transferTo(from + copied, size - from - copied, copy.position(HEADER_BYTES + copied));
+            }
+            copy.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        FileChannel old = channel;
+        channel = openChannel();
+        old.close();
+        unsynced = 0; // Everything in the new file was forced before it replaced the journal
+        dirty = false;
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return the path of the journal.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Writes and forces every waiting record, stops the background thread and closes the file.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Opens the journal file and reads its header, writing a new header if the file is empty.
+     * Appends are positioned at the end of the file.
+     *
+     * @return the channel of the journal file.
+     * @throws IOException if the file cannot be opened or is not a journal.
+     */
+    private FileChannel openChannel() throws IOException {
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (opened.size() < HEADER_BYTES) {
+                opened.truncate(0);
+                opened.write(header(0), 0);
+                opened.force(true);
+                base = 0;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                opened.read(header, 0);
+                header.flip();
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException(path + " is not a journal");
+                }
+                base = header.getLong();
+            }
+            opened.position(opened.size());
+            return opened;
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Builds the header of a journal file.
+     *
+     * @param first The position of the first record in the file.
+     * @return the header, ready to be written.
+     */
+    private static ByteBuffer header(long first) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(first);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * Starts a record, writing the waiting records first if the buffer is too full to hold it.
+     *
+     * @param type The type of the record.
+     * @param maxFields The most bytes the fields of the record can take.
+     * @return the position of the record in the buffer.
+     */
+    private int begin(byte type, int maxFields) {
+        if (buffer.remaining() < FRAME_BYTES + 1 + maxFields) {
+            try {
+                writeBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int start = buffer.position();
+        buffer.putInt(0).put(type); // The length is filled in by end
+        return start;
+    }
+
+    /**
+     * Finishes a record by filling in its length and appending its CRC.
+     *
+     * @param start The position of the record in the buffer.
+     */
+    private void end(int start) {
+        int length = buffer.position() - start - Integer.BYTES;
+        buffer.putInt(start, length);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start + Integer.BYTES, length);
+        buffer.putInt((int) crc.getValue());
+        buffered++;
+        appended++;
+    }
+
+    /**
+     * Writes the waiting records to the end of the file.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    private void writeBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        if (unsynced == 0) {
+            oldestUnsyncedNanos = System.nanoTime();
+        }
+        unsynced += buffered;
+        buffered = 0;
+        dirty = true;
+    }
+
+    /**
+     * Forces everything written so far to disk.
+     *
+     * @throws IOException if the file cannot be forced.
+     */
+    private void force() throws IOException {
+        dirty = false;
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Forces the records still waiting under GROUP once the oldest of them is a period old.
+     * A deadline left over from a group that was already forced may force a later group early,
+     * which only costs an extra force.
+     */
+    private synchronized void forceWaiting() {
+        if (unsynced == 0) {
+            return;
+        }
+        try {
+            force();
+        } catch (IOException e) {
+            // Left waiting; the group is already a period old, so the next command forces it
+        }
+    }
+
+    /**
+     * Forces the file from the background thread if anything was written since the last force.
+     */
+    private void forceIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            dirty = true; // Try again on the next period
+        }
+    }
+
+    /**
+     * Decodes the type and fields of a record.
+     *
+     * @param record The record, positioned at its type and limited to its end.
+     * @return the event.
+     * @throws BufferUnderflowException if the record is shorter than its type needs.
+     */
+    private static Event decode(ByteBuffer record) {
+        byte type = record.get();
+        Date date = Date.ofEpochDay(record.getInt());
+        Timeslot slot = Timeslot.of(record.get());
+        Profile patient = getProfile(record);
+        switch (type) {
+            case BOOK:
+                boolean doctor = record.get() == DOCTOR;
+                Profile provider = getProfile(record);
+                byte[] npi = new byte[record.getShort()];
+                record.get(npi);
+                byte room = record.get();
+                return new Event(type, date, slot, patient, provider, doctor ? new String(npi, StandardCharsets.UTF_8) : null,
+                        room == NO_ROOM ? null : ROOMS[room], null);
+            case CANCEL:
+                return new Event(type, date, slot, patient, null, null, null, null);
+            case RESCHEDULE:
+                return new Event(type, date, slot, patient, null, null, null, Timeslot.of(record.get()));
+            default:
+                throw new IllegalArgumentException("Unknown journal record type: " + type);
+        }
+    }
+
+    /**
+     * Appends a profile: first and last name, then date of birth.
+     *
+     * @param profile The profile to append.
+     */
+    private void putProfile(Profile profile) {
+        byte[] firstName = bytes(profile.getFirstName());
+        byte[] lastName = bytes(profile.getLastName());
+        buffer.putShort((short) firstName.length).put(firstName);
+        buffer.putShort((short) lastName.length).put(lastName);
+        Date dateOfBirth = profile.getDateOfBirth();
+        buffer.put((byte) dateOfBirth.getMonth()).put((byte) dateOfBirth.getDay()).putShort((short) dateOfBirth.getYear());
+    }
+
+    /**
+     * Reads a profile appended by putProfile.
+     *
+     * @param record The record, positioned at the profile.
+     * @return the profile.
+     */
+    private static Profile getProfile(ByteBuffer record) {
+        byte[] firstName = new byte[record.getShort()];
+        record.get(firstName);
+        byte[] lastName = new byte[record.getShort()];
+        record.get(lastName);
+        int month = record.get();
+        int day = record.get();
+        return new Profile(new String(firstName, StandardCharsets.UTF_8), new String(lastName, StandardCharsets.UTF_8),
+                new Date(month, day, record.getShort()));
+    }
+
+    /**
+     * Gets the most bytes a profile takes in a record.
+     *
+     * @param profile The profile.
+     * @return the number of bytes.
+     */
+    private static int profileBytes(Profile profile) {
+        return 8 + 3 * (profile.getFirstName().length() + profile.getLastName().length()); // UTF-8 takes at most 3 bytes per char
+    }
+
+    /**
+     * Encodes text as UTF-8.
+     *
+     * @param text The text.
+     * @return the bytes of the text.
+     */
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One event read back from the journal.
+     */
+    public static class Event {
+        private final byte type; // BOOK, CANCEL or RESCHEDULE
+        private final Date date; // The date of the appointment
+        private final Timeslot timeslot; // The timeslot of the appointment, before a reschedule
+        private final Profile patient; // The patient of the appointment
+        private final Profile provider; // The provider of a booking
+        private final String npi; // The NPI of a booking's doctor, null for a technician
+        private final Radiology room; // The room of an imaging booking, null for an office booking
+        private final Timeslot newTimeslot; // The timeslot of a reschedule
+
+        /**
+         * Constructs an event.
+         *
+         * @param type The type of the event.
+         * @param date The date of the appointment.
+         * @param timeslot The timeslot of the appointment.
+         * @param patient The patient of the appointment.
+         * @param provider The provider of a booking, null otherwise.
+         * @param npi The NPI of a booking's doctor, null otherwise.
+         * @param room The room of an imaging booking, null otherwise.
+         * @param newTimeslot The timeslot of a reschedule, null otherwise.
+         */
+        Event(byte type, Date date, Timeslot timeslot, Profile patient, Profile provider, String npi, Radiology room, Timeslot newTimeslot) {
+            this.type = type;
+            this.date = date;
+            this.timeslot = timeslot;
+            this.patient = patient;
+            this.provider = provider;
+            this.npi = npi;
+            this.room = room;
+            this.newTimeslot = newTimeslot;
+        }
+
+        /**
+         * Gets the type of the event.
+         *
+         * @return BOOK, CANCEL or RESCHEDULE.
+         */
+        public byte getType() {
+            return type;
+        }
+
+        /**
+         * Gets the date of the appointment.
+         *
+         * @return the date the appointment is on.
+         */
+        public Date getDate() {
+            return date;
+        }
+
+        /**
+         * Gets the timeslot of the appointment.
+         *
+         * @return the timeslot, before the change for a reschedule.
+         */
+        public Timeslot getTimeslot() {
+            return timeslot;
+        }
+
+        /**
+         * Gets the patient of the appointment.
+         *
+         * @return the patient's profile, as spelled when the event was recorded.
+         */
+        public Profile getPatient() {
+            return patient;
+        }
+
+        /**
+         * Gets the provider of a booking.
+         *
+         * @return the provider's profile, or null if the event is not a booking.
+         */
+        public Profile getProvider() {
+            return provider;
+        }
+
+        /**
+         * Gets the NPI of a booking's doctor.
+         *
+         * @return the NPI, or null if the event is not a booking with a doctor.
+         */
+        public String getNpi() {
+            return npi;
+        }
+
+        /**
+         * Gets the room of an imaging booking.
+         *
+         * @return the room, or null if the event is not an imaging booking.
+         */
+        public Radiology getRoom() {
+            return room;
+        }
+
+        /**
+         * Gets the timeslot an appointment is rescheduled to.
+         *
+         * @return the new timeslot, or null if the event is not a reschedule.
+         */
+        public Timeslot getNewTimeslot() {
+            return newTimeslot;
+        }
+    }
+}
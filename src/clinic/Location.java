@@ -1,5 +1,8 @@
 package clinic;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents various locations along with their corresponding county and zip code.
  *
@@ -18,6 +21,14 @@ public enum Location {
     private final String county;
     private final String zip;
 
+    private static final Map<String, Location> BY_NAME = new HashMap<>(); // Each location keyed by its name
+
+    static {
+        for (Location location : values()) {
+            BY_NAME.put(location.name(), location);
+        }
+    }
+
     /**
      * Constructs a Location enum with the specified county and zip code.
      *
@@ -47,4 +58,13 @@ public enum Location {
         return zip;
     }
 
+    /**
+     * Looks up a location by its name, ignoring whitespace around the name.
+     *
+     * @param name the name of the location, such as "BRIDGEWATER"
+     * @return the matching location, or null if there is none
+     */
+    public static Location of(String name) {
+        return BY_NAME.get(name.trim());
+    }
 }
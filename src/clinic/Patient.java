@@ -1,12 +1,22 @@
 package clinic;
 
+import util.OutputBuffer;
+
 /**
  * Represents a Patient, which is a type of Person with an associated visit history.
+ * The patient keeps a running total of the charges of its appointments, which the BillingLedger
+ * updates as the patient's appointments are booked and canceled.
+ * A patient interned by a PatientRegistry also carries the registry's dense id for it, and two
+ * registered patients are equal when their ids are.
  * 
  * @author Dhawal Arora (Netid: da812)
  */
 public class Patient extends Person{
+    public static final int NO_ID = -1; // Id of a patient that is not in a registry
+
     private Visit visit;
+    private int totalCharge; // Sum of the provider rates of the patient's appointments
+    private final int id; // Dense id from the PatientRegistry, NO_ID if not registered
 
     /**
      * Constructs a Patient with a null profile and visits.
@@ -14,6 +24,8 @@ public class Patient extends Person{
     public Patient() {
         super();  // Calls the default constructor of Person (initializes profile as null)
         visit = null;
+        totalCharge = 0;
+        id = NO_ID;
     }
 
     /**
@@ -25,6 +37,8 @@ public class Patient extends Person{
     public Patient(Appointment appointment) {
         super(appointment.getPatient().getProfile());  // Sets the profile using the appointment's patient profile
         visit = new Visit(appointment);
+        totalCharge = 0;
+        id = NO_ID;
     }
 
     /**
@@ -33,8 +47,29 @@ public class Patient extends Person{
      * @param profile the profile of the patient
      */
     public Patient(Profile profile) {
+        this(profile, NO_ID);
+    }
+
+    /**
+     * Constructs a Patient with the given profile and registry id.
+     *
+     * @param profile the profile of the patient
+     * @param id the dense id the registry gave the patient
+     */
+    Patient(Profile profile, int id) {
         super(profile);  // Calls the constructor of Person to set the profile
         visit = null;
+        totalCharge = 0;
+        this.id = id;
+    }
+
+    /**
+     * Gets the registry id of this patient.
+     *
+     * @return the dense id, or NO_ID if the patient was not interned by a registry
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -47,12 +82,11 @@ public class Patient extends Person{
     }
 
     /**
-     * Calculates the total charge for all visits associated with this patient.
+     * Gets the total charge for the appointments of this patient.
      *
      * @return the total charge as an integer
      */
     public int charge() {
-        int totalCharge = 0;
         return totalCharge;
     }
 
@@ -67,6 +101,50 @@ public class Patient extends Person{
         visit = newVisit;
     }
 
+    /**
+     * Adds the charge of a booked appointment to the patient's total.
+     *
+     * @param amount the rate of the appointment's provider
+     */
+    void addCharge(int amount) {
+        totalCharge += amount;
+    }
+
+    /**
+     * Takes the charge of a canceled appointment off the patient's total.
+     *
+     * @param amount the rate of the appointment's provider
+     */
+    void removeCharge(int amount) {
+        totalCharge -= amount;
+    }
+
+    /**
+     * Checks if this patient is equal to another object. Two patients of a registry are
+     * compared by id; otherwise they are compared by profile, like any Person.
+     *
+     * @param obj The object to compare against.
+     * @return true if both are the same registered patient, or have equal profiles.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof Patient && id != NO_ID && ((Patient) obj).id != NO_ID) {
+            return id == ((Patient) obj).id;
+        }
+        return super.equals(obj);
+    }
+
+    /**
+     * Generates a hash code for the patient based on their profile, which patients with the same
+     * id share.
+     *
+     * @return The hash code of the patient.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
     /**
      * Returns a string representation of the patient, including the profile and total amount due.
      *
@@ -76,4 +154,15 @@ public class Patient extends Person{
     public String toString() {
         return super.toString() + " [amount due: $" + String.format("%,.2f", (float) charge()) + "]";
     }
+
+    /**
+     * Writes the patient in the same format as toString, without building a String.
+     *
+     * @param out The buffer to write to.
+     */
+    @Override
+    public void formatTo(OutputBuffer out) {
+        super.formatTo(out);
+        out.print(" [amount due: $").printAmount(charge(), true).print(']');
+    }
 }
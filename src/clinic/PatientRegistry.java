@@ -0,0 +1,261 @@
+package clinic;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import util.Date;
+
+/**
+ * Interns the patients named by commands, so each person is kept once however many commands
+ * name them.
+ *
+ * A patient is identified by name and date of birth, ignoring letter case like Profile.equals
+ * does, and gets one canonical Patient with a dense id, numbered from 0 in the order patients
+ * are first seen. Each spelling of a patient's name is interned too, as one canonical Person,
+ * since an appointment prints its patient as they were booked; appointments booked under the
+ * same spelling share that Person, and every spelling of a patient maps to the patient's id.
+ *
+ * Spellings also get dense ids, and the spellings of ids handed out are never changed, so an
+ * array of spellings taken from the registry stays valid for those ids while more are added.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ */
+public class PatientRegistry {
+    public static final int NOT_FOUND = -1; // Id returned for a patient that was never registered
+
+    private static final int INITIAL_CAPACITY = 16; // Initial number of patients and spellings
+
+    private final HashMap<Spelling, Integer> spellingIds; // Spelling id of each exact spelling
+    private Person[] spellings; // Canonical Person of each spelling
+    private int[] spellingPatients; // Patient id of each spelling
+    private int spellingCount; // Spellings seen so far
+    private final HashMap<Profile, Integer> patientIds; // Patient id of each patient, ignoring letter case
+    private Patient[] patients; // Canonical Patient of each id, under the spelling it was first seen with
+    private int patientCount; // Patients seen so far
+
+    /**
+     * Constructs an empty registry.
+     */
+    public PatientRegistry() {
+        spellingIds = new HashMap<>();
+        spellings = new Person[INITIAL_CAPACITY];
+        spellingPatients = new int[INITIAL_CAPACITY];
+        patientIds = new HashMap<>();
+        patients = new Patient[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the canonical Person for a spelling of a patient, registering the spelling, and the
+     * patient if they are new. Only builds a Profile when the spelling is new.
+     *
+     * @param firstName The first name, as spelled.
+     * @param lastName The last name, as spelled.
+     * @param dateOfBirth The date of birth.
+     * @return the Person shared by every appointment booked under this spelling.
+     */
+    public Person intern(String firstName, String lastName, Date dateOfBirth) {
+        Spelling key = new Spelling(firstName, lastName, dateOfBirth);
+        Integer spelling = spellingIds.get(key);
+        if (spelling == null) {
+            spelling = register(key, new Profile(firstName, lastName, dateOfBirth));
+        }
+        return spellings[spelling];
+    }
+
+    /**
+     * Gets the canonical Person for a spelling of a patient without registering it, so a command
+     * that is rejected leaves the registry as it was.
+     *
+     * @param firstName The first name, as spelled.
+     * @param lastName The last name, as spelled.
+     * @param dateOfBirth The date of birth.
+     * @return the Person of the spelling, or null if the spelling was never registered.
+     */
+    public Person lookup(String firstName, String lastName, Date dateOfBirth) {
+        Integer spelling = spellingIds.get(new Spelling(firstName, lastName, dateOfBirth));
+        return spelling == null ? null : spellings[spelling];
+    }
+
+    /**
+     * Gets the canonical Person for a spelling of a patient without registering it.
+     *
+     * @param profile The patient's profile, as spelled.
+     * @return the Person of the spelling, or null if the spelling was never registered.
+     */
+    public Person lookup(Profile profile) {
+        return lookup(profile.getFirstName(), profile.getLastName(), profile.getDateOfBirth());
+    }
+
+    /**
+     * Gets the canonical Person for a spelling of a patient, registering it if it is new.
+     *
+     * @param profile The patient's profile, as spelled.
+     * @return the Person shared by every appointment booked under this spelling.
+     */
+    public Person intern(Profile profile) {
+        return spellings[spellingOf(profile)];
+    }
+
+    /**
+     * Gets the id of a spelling of a patient, registering it if it is new.
+     *
+     * @param profile The patient's profile, as spelled.
+     * @return the spelling id.
+     */
+    public int spellingOf(Profile profile) {
+        Spelling key = new Spelling(profile.getFirstName(), profile.getLastName(), profile.getDateOfBirth());
+        Integer spelling = spellingIds.get(key);
+        return spelling != null ? spelling : register(key, profile);
+    }
+
+    /**
+     * Finds the id of a patient, in any spelling, without registering them.
+     *
+     * @param profile The patient's profile.
+     * @return the patient id, or NOT_FOUND if the patient was never registered.
+     */
+    public int find(Profile profile) {
+        Integer patient = patientIds.get(profile);
+        return patient == null ? NOT_FOUND : patient;
+    }
+
+    /**
+     * Gets the patient a spelling belongs to.
+     *
+     * @param spelling The spelling id.
+     * @return the patient id.
+     */
+    public int patientOf(int spelling) {
+        return spellingPatients[spelling];
+    }
+
+    /**
+     * Gets the canonical Person of a spelling.
+     *
+     * @param spelling The spelling id.
+     * @return the Person, whose profile is spelled as it was registered.
+     */
+    public Person getSpelling(int spelling) {
+        return spellings[spelling];
+    }
+
+    /**
+     * Gets the canonical Patient of a patient id.
+     *
+     * @param patient The patient id.
+     * @return the Patient, under the spelling it was first registered with.
+     */
+    public Patient getPatient(int patient) {
+        return patients[patient];
+    }
+
+    /**
+     * Gets the number of patients registered; patient ids are below it.
+     *
+     * @return the number of patients.
+     */
+    public int size() {
+        return patientCount;
+    }
+
+    /**
+     * Gets the number of spellings registered; spelling ids are below it.
+     *
+     * @return the number of spellings.
+     */
+    public int getSpellingCount() {
+        return spellingCount;
+    }
+
+    /**
+     * Gets the spellings registered so far, indexed by spelling id. The array is not copied:
+     * it is the registry's own until more spellings outgrow it, but its entries below
+     * getSpellingCount are never changed.
+     *
+     * @return the spellings array.
+     */
+    Person[] spellings() {
+        return spellings;
+    }
+
+    /**
+     * Registers a new spelling, and its patient if they are new.
+     *
+     * @param key The spelling key.
+     * @param profile The profile of the spelling.
+     * @return the new spelling id.
+     */
+    private int register(Spelling key, Profile profile) {
+        Integer patient = patientIds.get(profile);
+        if (patient == null) {
+            if (patientCount == patients.length) {
+                patients = Arrays.copyOf(patients, patientCount * 2);
+            }
+            patient = patientCount;
+            patients[patientCount++] = new Patient(profile, patient);
+            patientIds.put(patients[patient].getProfile(), patient);
+        }
+        if (spellingCount == spellings.length) {
+            spellings = Arrays.copyOf(spellings, spellingCount * 2);
+            spellingPatients = Arrays.copyOf(spellingPatients, spellingCount * 2);
+        }
+        spellings[spellingCount] = new Person(profile);
+        spellingPatients[spellingCount] = patient;
+        spellingIds.put(key, spellingCount);
+        return spellingCount++;
+    }
+
+    /**
+     * The key of an exact spelling: first name, last name and date of birth, compared with
+     * letter case, unlike Profile.equals.
+     */
+    private static final class Spelling {
+        private final String firstName; // First name, as spelled
+        private final String lastName; // Last name, as spelled
+        private final Date dateOfBirth; // Date of birth
+        private final int hash; // Hash of the three fields, computed once
+
+        /**
+         * Builds the key of a spelling.
+         *
+         * @param firstName The first name.
+         * @param lastName The last name.
+         * @param dateOfBirth The date of birth.
+         */
+        Spelling(String firstName, String lastName, Date dateOfBirth) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.dateOfBirth = dateOfBirth;
+            this.hash = 31 * (31 * firstName.hashCode() + lastName.hashCode()) + dateOfBirth.hashCode();
+        }
+
+        /**
+         * Checks if another key is the same spelling, letter for letter.
+         *
+         * @param other The object to compare with.
+         * @return true if the names match exactly and the dates of birth are equal.
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Spelling)) {
+                return false;
+            }
+            Spelling spelling = (Spelling) other;
+            return hash == spelling.hash && firstName.equals(spelling.firstName)
+                    && lastName.equals(spelling.lastName) && dateOfBirth.equals(spelling.dateOfBirth);
+        }
+
+        /**
+         * Gets the hash of the spelling.
+         *
+         * @return the hash computed when the key was built.
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package clinic;
 
+import util.OutputBuffer;
+
 /**
  * Represents a person in the clinic system. A person can either be a patient or a provider.
  * This class holds a Profile that stores the person's information such as name and date of birth.
@@ -67,6 +69,15 @@ public class Person implements Comparable<Person> {
         return profile.toString();
     }
 
+    /**
+     * Writes the person in the same format as toString, without building a String.
+     *
+     * @param out The buffer to write to.
+     */
+    public void formatTo(OutputBuffer out) {
+        profile.formatTo(out);
+    }
+
     /**
      * Checks if this person is equal to another object based on their profiles.
      *
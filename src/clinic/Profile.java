@@ -1,5 +1,6 @@
 package clinic;
 import util.Date;
+import util.OutputBuffer;
 
 /**
  * Represents a profile for a patient, including personal details such as name and date of birth.
@@ -16,6 +17,7 @@ public class Profile implements Comparable<Profile> {
     private String firstName;
     private String lastName;
     private Date dateOfBirth;
+    private int hash; // Cached hash code, computed on first use since the fields never change
 
     /**
      * Constructs a Profile with default values (empty name and null date of birth).
@@ -129,6 +131,16 @@ public class Profile implements Comparable<Profile> {
         return firstName + " " + lastName + " " + dateOfBirth.toString();
     }
 
+    /**
+     * Writes this profile in the same format as toString, without building a String.
+     *
+     * @param out the buffer to write to
+     */
+    public void formatTo(OutputBuffer out) {
+        out.print(firstName).print(' ').print(lastName).print(' ');
+        dateOfBirth.formatTo(out);
+    }
+
     /**
      * Checks if this profile is equal to another object.
      *
@@ -155,10 +167,14 @@ public class Profile implements Comparable<Profile> {
      */
     @Override
     public int hashCode(){
+        if (hash != 0) {
+            return hash;
+        }
         int result = 17;
         result = 31 * result + (firstName != null ? firstName.toLowerCase().hashCode() : 0);
         result = 31 * result + (lastName != null ? lastName.toLowerCase().hashCode() : 0);
         result = 31 * result + (dateOfBirth != null ? dateOfBirth.hashCode() : 0);
+        hash = result;
         return result;
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package clinic;
 
+import util.OutputBuffer;
+
 /**
  * Represents a Provider, which is an abstract class that extends Person.
  * A Provider has a profile and operates in a specific location.
@@ -56,4 +58,16 @@ public abstract class Provider extends Person {
     public String toString() {
         return ("[" + super.toString() + ", " + location.name() + ", " + location.getCounty() + " " + location.getZip() + "]");
     }
+
+    /**
+     * Writes the provider in the same format as toString, without building a String.
+     *
+     * @param out the buffer to write to
+     */
+    @Override
+    public void formatTo(OutputBuffer out) {
+        out.print('[');
+        super.formatTo(out);
+        out.print(", ").print(location.name()).print(", ").print(location.getCounty()).print(' ').print(location.getZip()).print(']');
+    }
 }
@@ -0,0 +1,76 @@
+package clinic;
+
+/**
+ * Running credit totals of every provider, kept in primitive arrays indexed by provider id.
+ *
+ * Each booking adds the provider's rate to their credit and each cancellation takes it back,
+ * so the expected credits are always up to date and printing them never looks at the
+ * appointments. Provider ids are the dense ids of the ProviderDirectory.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class ProviderCredits {
+    private final int[] credits; // Total expected credit of each provider
+    private final int[] counts; // Number of appointments on the schedule for each provider
+
+    /**
+     * Constructs zeroed credits for the given number of providers.
+     *
+     * @param providers The number of provider ids to track.
+     */
+    public ProviderCredits(int providers) {
+        credits = new int[providers];
+        counts = new int[providers];
+    }
+
+    /**
+     * Credits a provider for an appointment.
+     *
+     * @param provider The provider id.
+     * @param amount The amount charged for the appointment.
+     */
+    public void add(int provider, int amount) {
+        credits[provider] += amount;
+        counts[provider]++;
+    }
+
+    /**
+     * Takes back the credit for an appointment that left the schedule.
+     *
+     * @param provider The provider id.
+     * @param amount The amount charged for the appointment.
+     */
+    public void remove(int provider, int amount) {
+        credits[provider] -= amount;
+        counts[provider]--;
+    }
+
+    /**
+     * Gets the total expected credit of a provider.
+     *
+     * @param provider The provider id.
+     * @return the provider's credit.
+     */
+    public int getCredit(int provider) {
+        return credits[provider];
+    }
+
+    /**
+     * Gets the number of appointments a provider has on the schedule.
+     *
+     * @param provider The provider id.
+     * @return the number of appointments.
+     */
+    public int getCount(int provider) {
+        return counts[provider];
+    }
+
+    /**
+     * Gets the number of provider ids tracked.
+     *
+     * @return the number of providers.
+     */
+    public int size() {
+        return credits.length;
+    }
+}
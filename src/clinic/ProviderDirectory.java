@@ -0,0 +1,126 @@
+package clinic;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import util.HashList;
+import util.List;
+
+/**
+ * An immutable directory of the providers in the roster, with hash lookups by NPI,
+ * by profile and by location.
+ *
+ * The directory is built once from the sorted provider list when the roster is loaded and is
+ * never changed afterwards, so it can be shared freely and replaced as a whole when the roster
+ * is reloaded. Each provider gets a dense id, its position in the sorted order, which other
+ * structures such as the slot occupancy use to index their arrays.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class ProviderDirectory {
+    public static final int NOT_FOUND = -1; // Id returned for a provider that is not in the directory
+
+    private final HashList<Provider> providers; // The providers in sorted order; a provider's index is its id
+    private final Map<String, Doctor> doctorsByNpi; // Each doctor keyed by NPI
+    private final Map<Profile, Provider> providersByProfile; // Each provider keyed by profile
+    private final Map<Location, Provider[]> providersByLocation; // The providers at each location, in sorted order
+
+    /**
+     * Builds a directory of the given providers.
+     *
+     * @param sortedProviders The distinct providers, already sorted; their order decides the ids.
+     *                        If two doctors share an NPI, the one that sorts first is kept.
+     */
+    public ProviderDirectory(List<Provider> sortedProviders) {
+        providers = new HashList<Provider>(sortedProviders.size());
+        providers.addAllDistinct(sortedProviders); // The roster loader already dropped duplicates
+        doctorsByNpi = new HashMap<>(sortedProviders.size() * 2);
+        providersByProfile = new HashMap<>(sortedProviders.size() * 2);
+        Map<Location, ArrayList<Provider>> grouped = new EnumMap<>(Location.class);
+        for (int i = 0; i < providers.size(); i++) {
+            Provider provider = providers.get(i);
+            if (provider instanceof Doctor) {
+                doctorsByNpi.putIfAbsent(((Doctor) provider).getNpi(), (Doctor) provider);
+            }
+            providersByProfile.putIfAbsent(provider.getProfile(), provider);
+            if (provider.getLocation() == null) { // The roster named a location that does not exist
+                continue;
+            }
+            ArrayList<Provider> atLocation = grouped.get(provider.getLocation());
+            if (atLocation == null) {
+                atLocation = new ArrayList<Provider>();
+                grouped.put(provider.getLocation(), atLocation);
+            }
+            atLocation.add(provider);
+        }
+        providersByLocation = new EnumMap<>(Location.class);
+        for (Map.Entry<Location, ArrayList<Provider>> entry : grouped.entrySet()) {
+            providersByLocation.put(entry.getKey(), entry.getValue().toArray(new Provider[0]));
+        }
+    }
+
+    /**
+     * Gets the number of providers in the directory.
+     *
+     * @return the number of providers.
+     */
+    public int size() {
+        return providers.size();
+    }
+
+    /**
+     * Gets the provider with the given id.
+     *
+     * @param id The id of the provider, from 0 to size() - 1.
+     * @return the provider, or null if the id is out of range.
+     */
+    public Provider get(int id) {
+        return providers.get(id);
+    }
+
+    /**
+     * Gets the id of a provider.
+     *
+     * @param provider The provider to look up.
+     * @return the provider's id, or NOT_FOUND if it is not in the directory.
+     */
+    public int idOf(Person provider) {
+        if (!(provider instanceof Provider)) {
+            return NOT_FOUND;
+        }
+        return providers.indexOf((Provider) provider);
+    }
+
+    /**
+     * Finds a doctor by NPI.
+     *
+     * @param npi The doctor's NPI.
+     * @return the doctor, or null if no doctor has that NPI.
+     */
+    public Doctor findDoctor(String npi) {
+        return doctorsByNpi.get(npi);
+    }
+
+    /**
+     * Finds a provider by profile.
+     *
+     * @param profile The provider's profile.
+     * @return the provider, or null if no provider has that profile.
+     */
+    public Provider findByProfile(Profile profile) {
+        return providersByProfile.get(profile);
+    }
+
+    /**
+     * Gets the providers working at a location, in sorted order.
+     *
+     * @param location The location.
+     * @return a new array of the providers at the location, empty if there are none.
+     */
+    public Provider[] getProvidersAt(Location location) {
+        Provider[] atLocation = providersByLocation.get(location);
+        return atLocation == null ? new Provider[0] : atLocation.clone();
+    }
+}
@@ -0,0 +1,359 @@
+package clinic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
+
+import util.ByteText;
+import util.HashList;
+import util.List;
+import util.Rotation;
+import util.Sort;
+import util.Tokenizer;
+
+/**
+ * Loads the provider roster from a file.
+ *
+ * The file is read through a FileChannel into one buffer and cut into chunks of whole lines.
+ * Chunks are parsed in parallel on the common fork/join pool, each with its own Tokenizer
+ * splitting the lines in place. The parsed providers are then added in file order, which drops
+ * duplicates, and sorted once. Counts and the time taken are kept for the last load.
+ *
+ * A loaded roster can be saved as a RosterSnapshot next to the roster file. As long as the
+ * roster file does not change, later loads map the snapshot instead of parsing the text.
+ *
+ * Each line is "D  first  last  dob  location  specialty  npi" for a doctor or
+ * "T  first  last  dob  location  rate" for a technician, with fields separated by two spaces.
+ * Blank lines and lines with the wrong number of fields are skipped, and lines that are
+ * neither a doctor nor a technician are counted as invalid.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class RosterLoader {
+    public static final int CHUNK_SIZE = 1 << 16; // Bytes of lines parsed by one task
+
+    private static final String FIELD_DELIMITER = "  ";
+    private static final int INDEX_TYPE = 0;
+    private static final int INDEX_FIRST_NAME = 1;
+    private static final int INDEX_LAST_NAME = 2;
+    private static final int INDEX_DOB = 3;
+    private static final int INDEX_LOCATION = 4;
+    private static final int INDEX_SPECIALTY = 5;
+    private static final int INDEX_RATE = 5;
+    private static final int INDEX_NPI = 6;
+    private static final int DOCTOR_FIELDS = 7;
+    private static final int TECHNICIAN_FIELDS = 6;
+
+    private final Path path; // The roster file
+    private final int chunkSize; // Bytes of lines parsed by one task
+
+    private HashList<Provider> providers; // Distinct providers of the last load, sorted by profile
+    private Rotation<Technician> technicians; // Distinct technicians of the last load, in file order
+    private int lines; // Lines read by the last load
+    private int invalid; // Lines that were neither a doctor nor a technician
+    private int skipped; // Blank lines and lines with the wrong number of fields
+    private int duplicates; // Providers dropped because an equal provider came earlier
+    private long bytes; // Size of the roster file
+    private long elapsedNanos; // Time the last load took
+    private boolean fromSnapshot; // Whether the last load came from a snapshot
+
+    /**
+     * Constructs a loader for a roster file.
+     *
+     * @param path The roster file.
+     */
+    public RosterLoader(Path path) {
+        this(path, CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a loader for a roster file that parses chunks of the given size.
+     *
+     * @param path The roster file.
+     * @param chunkSize The number of bytes of lines each task parses.
+     */
+    public RosterLoader(Path path, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.path = path;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads and parses the roster file, replacing the results of any earlier load.
+     *
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if a date or rate in the file is not a number.
+     */
+    public void load() throws IOException {
+        long started = System.nanoTime();
+        ByteText text = new ByteText(read());
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        int from = 0;
+        while (from < text.length()) {
+            int to = Math.min(from + chunkSize, text.length());
+            int lineEnd = text.indexOf((byte) '\n', to - 1, text.length());
+            to = lineEnd < 0 ? text.length() : lineEnd + 1; // Extend the chunk to the end of its last line
+            chunks.add(new Chunk(text, from, to));
+            from = to;
+        }
+        if (chunks.size() == 1) {
+            chunks.get(0).compute();
+        } else {
+            for (Chunk chunk : chunks) {
+                chunk.fork();
+            }
+            for (Chunk chunk : chunks) {
+                chunk.join(); // Rethrows the first parse error of the chunk
+            }
+        }
+
+        int parsed = 0;
+        for (Chunk chunk : chunks) {
+            parsed += chunk.parsed.size();
+        }
+        providers = new HashList<Provider>(parsed); // Sized up front so adding never rehashes
+        technicians = new Rotation<Technician>();
+        lines = invalid = skipped = duplicates = 0;
+        for (Chunk chunk : chunks) {
+            lines += chunk.lines;
+            invalid += chunk.invalid;
+            skipped += chunk.skipped;
+            for (Provider provider : chunk.parsed) {
+                if (providers.contains(provider)) {
+                    duplicates++;
+                } else {
+                    providers.add(provider);
+                }
+                if (provider instanceof Technician) {
+                    technicians.add((Technician) provider);
+                }
+            }
+        }
+        Sort.provider(providers);
+        fromSnapshot = false;
+        elapsedNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * Loads the roster from its snapshot if the snapshot matches the roster file, and from the
+     * roster file otherwise, writing a new snapshot after parsing it.
+     * A snapshot that cannot be written is not an error; the next load just parses the text again.
+     *
+     * @throws IOException if the roster file cannot be read.
+     * @throws IllegalArgumentException if a date or rate in the file is not a number.
+     */
+    public void loadWithSnapshot() throws IOException {
+        long started = System.nanoTime();
+        Path snapshotPath = RosterSnapshot.pathFor(path);
+        RosterSnapshot snapshot = RosterSnapshot.read(snapshotPath, path);
+        if (snapshot != null) {
+            providers = snapshot.getProviders();
+            technicians = snapshot.getTechnicians();
+            lines = snapshot.getLineCount();
+            invalid = snapshot.getInvalidCount();
+            skipped = snapshot.getSkippedCount();
+            duplicates = snapshot.getDuplicateCount();
+            bytes = Files.size(snapshotPath);
+            fromSnapshot = true;
+            elapsedNanos = System.nanoTime() - started;
+            return;
+        }
+        load();
+        try {
+            RosterSnapshot.write(snapshotPath, path, this);
+        } catch (IOException e) {
+            // Keep going without a snapshot, for example when the roster's directory is read-only
+        }
+    }
+
+    /**
+     * Gets the providers of the last load.
+     *
+     * @return the distinct providers, sorted by profile.
+     */
+    public List<Provider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Gets the technicians of the last load.
+     *
+     * @return the distinct technicians in the order they appear in the file.
+     */
+    public Rotation<Technician> getTechnicians() {
+        return technicians;
+    }
+
+    /**
+     * Gets the number of lines read by the last load.
+     *
+     * @return the number of lines.
+     */
+    public int getLineCount() {
+        return lines;
+    }
+
+    /**
+     * Gets the number of lines of the last load that were neither a doctor nor a technician.
+     *
+     * @return the number of invalid lines.
+     */
+    public int getInvalidCount() {
+        return invalid;
+    }
+
+    /**
+     * Gets the number of blank lines and lines with the wrong number of fields in the last load.
+     *
+     * @return the number of skipped lines.
+     */
+    public int getSkippedCount() {
+        return skipped;
+    }
+
+    /**
+     * Gets the number of providers the last load dropped as duplicates.
+     *
+     * @return the number of duplicates.
+     */
+    public int getDuplicateCount() {
+        return duplicates;
+    }
+
+    /**
+     * Gets the size of the file read by the last load, the roster file or its snapshot.
+     *
+     * @return the number of bytes read.
+     */
+    public long getBytesRead() {
+        return bytes;
+    }
+
+    /**
+     * Checks if the last load came from a snapshot instead of the roster file.
+     *
+     * @return true if the snapshot was used, false if the roster file was parsed.
+     */
+    public boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+
+    /**
+     * Gets the time the last load took, from reading the file to the end of the sort.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Reads the whole roster file through its channel.
+     *
+     * @return a buffer holding the file, with its limit at the end of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    private ByteBuffer read() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large for a roster: " + size + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full or the file ends
+            }
+            buffer.flip();
+            bytes = buffer.limit();
+            return buffer;
+        }
+    }
+
+    /**
+     * Parses one line, already split into fields.
+     *
+     * @param tokens The fields of the line.
+     * @return the provider on the line, or null if the line has the wrong number of fields.
+     */
+    private static Provider parse(Tokenizer tokens) {
+        boolean doctor = tokens.fieldEquals(INDEX_TYPE, "D");
+        if (tokens.size() != (doctor ? DOCTOR_FIELDS : TECHNICIAN_FIELDS)) {
+            return null;
+        }
+        Profile profile = new Profile(tokens.field(INDEX_FIRST_NAME), tokens.field(INDEX_LAST_NAME), tokens.parseDate(INDEX_DOB));
+        Location location = Location.of(tokens.field(INDEX_LOCATION));
+        if (doctor) {
+            return new Doctor(profile, location, tokens.field(INDEX_NPI), Specialty.of(tokens.field(INDEX_SPECIALTY)));
+        }
+        return new Technician(profile, location, tokens.parseInt(INDEX_RATE));
+    }
+
+    /**
+     * A task that parses a range of whole lines of the roster.
+     */
+    private static class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteText text; // The roster
+        private final int from; // Offset of the first line (inclusive)
+        private final int to; // Offset just past the last line (exclusive)
+        private final ArrayList<Provider> parsed = new ArrayList<>(); // Providers on the lines, in order
+        private int lines; // Lines in the range
+        private int invalid; // Lines that were neither a doctor nor a technician
+        private int skipped; // Blank lines and lines with the wrong number of fields
+
+        /**
+         * Constructs a task for a range of lines.
+         *
+         * @param text The roster.
+         * @param from The offset of the first line (inclusive).
+         * @param to The offset just past the last line (exclusive).
+         */
+        Chunk(ByteText text, int from, int to) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Parses every line of the range.
+         */
+        @Override
+        protected void compute() {
+            Tokenizer tokens = new Tokenizer(FIELD_DELIMITER);
+            int lineStart = from;
+            while (lineStart < to) {
+                int lineEnd = text.indexOf((byte) '\n', lineStart, to);
+                int next = lineEnd < 0 ? to : lineEnd + 1;
+                if (lineEnd < 0) {
+                    lineEnd = to;
+                }
+                if (lineEnd > lineStart && text.byteAt(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                lines++;
+                if (lineEnd == lineStart) {
+                    skipped++;
+                } else if (tokens.split(text, lineStart, lineEnd) > 0
+                        && (tokens.fieldEquals(INDEX_TYPE, "D") || tokens.fieldEquals(INDEX_TYPE, "T"))) {
+                    Provider provider = parse(tokens);
+                    if (provider == null) {
+                        skipped++;
+                    } else {
+                        parsed.add(provider);
+                    }
+                } else {
+                    invalid++;
+                }
+                lineStart = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package clinic;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32;
+
+import util.Date;
+import util.HashList;
+import util.List;
+import util.Rotation;
+
+/**
+ * A compact binary copy of a loaded roster, so the next start can skip parsing and sorting.
+ *
+ * The snapshot holds the providers already sorted, so a provider's position is its id, and the
+ * technician rotation as a table of those ids. It also records the size and modification time
+ * of the roster file it was made from; reading it gives nothing if the roster has changed since,
+ * if the snapshot is damaged, or if it was written by another version of this format.
+ *
+ * Layout, big-endian: magic, version, source size, source modification time, number of lines,
+ * invalid lines, skipped lines, duplicates, number of providers, the providers, number of
+ * technicians, their provider ids, and a CRC-32 of everything before it. Each provider is its
+ * type, first and last name, date of birth, location, and then either specialty and NPI for a
+ * doctor or rate for a technician. Locations and specialties are stored by ordinal, -1 for none.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class RosterSnapshot {
+    public static final String SUFFIX = ".snapshot"; // Added to the roster file name to name its snapshot
+
+    private static final int MAGIC = 0x52535452; // "RSTR"
+    private static final int VERSION = 1;
+    private static final byte DOCTOR = 'D';
+    private static final byte TECHNICIAN = 'T';
+    private static final byte NONE = -1; // Ordinal stored for a missing location or specialty
+    private static final int CRC_BYTES = Integer.BYTES;
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Specialty[] SPECIALTIES = Specialty.values();
+
+    private final HashList<Provider> providers; // The providers in sorted order; a provider's index is its id
+    private final Rotation<Technician> technicians; // The technicians in roster file order
+    private final int[] counts; // Lines, invalid lines, skipped lines and duplicates of the load
+
+    /**
+     * Constructs a snapshot read from a file.
+     *
+     * @param providers The providers in sorted order.
+     * @param technicians The technicians in roster file order.
+     * @param counts The line counts of the load the snapshot was written after.
+     */
+    private RosterSnapshot(HashList<Provider> providers, Rotation<Technician> technicians, int[] counts) {
+        this.providers = providers;
+        this.technicians = technicians;
+        this.counts = counts;
+    }
+
+    /**
+     * Gets the path of the snapshot of a roster file.
+     *
+     * @param roster The roster file.
+     * @return the snapshot path, next to the roster file.
+     */
+    public static Path pathFor(Path roster) {
+        return roster.resolveSibling(roster.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Writes a snapshot of a loaded roster. The file is written under a temporary name and then
+     * moved into place, so a reader never sees half a snapshot.
+     *
+     * @param snapshot The snapshot file to write.
+     * @param source The roster file the providers were loaded from.
+     * @param loader The loader holding the loaded roster.
+     * @return true if the snapshot was written, false if the roster has something the format
+     *         cannot hold, such as an invalid date of birth.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public static boolean write(Path snapshot, Path source, RosterLoader loader) throws IOException {
+        List<Provider> sorted = loader.getProviders();
+        Rotation<Technician> technicians = loader.getTechnicians();
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        buffer = ensure(buffer, 9 * Integer.BYTES + 2 * Long.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(attributes.size()).putLong(attributes.lastModifiedTime().toMillis());
+        buffer.putInt(loader.getLineCount()).putInt(loader.getInvalidCount()).putInt(loader.getSkippedCount()).putInt(loader.getDuplicateCount());
+        buffer.putInt(sorted.size());
+        HashList<Provider> ids = new HashList<Provider>(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            Provider provider = sorted.get(i);
+            if (!provider.getProfile().getDateOfBirth().isValid()) {
+                return false;
+            }
+            ids.add(provider);
+            buffer = putProvider(buffer, provider);
+        }
+        buffer = ensure(buffer, Integer.BYTES * (technicians.size() + 1) + CRC_BYTES);
+        buffer.putInt(technicians.size());
+        for (Technician technician : technicians) {
+            int id = ids.indexOf(technician);
+            if (id == List.NOT_FOUND) {
+                return false;
+            }
+            buffer.putInt(id);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * Reads a snapshot by mapping it into memory.
+     *
+     * @param snapshot The snapshot file.
+     * @param source The roster file the snapshot should match.
+     * @return the snapshot, or null if there is none, it is damaged, or the roster file has
+     *         changed since it was written.
+     */
+    public static RosterSnapshot read(Path snapshot, Path source) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < CRC_BYTES || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer body = mapped.duplicate();
+            body.limit((int) size - CRC_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != mapped.getInt((int) size - CRC_BYTES)) {
+                return null;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            ByteBuffer in = mapped.duplicate();
+            in.limit((int) size - CRC_BYTES);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION || in.getLong() != attributes.size()
+                    || in.getLong() != attributes.lastModifiedTime().toMillis()) {
+                return null;
+            }
+            int[] counts = {in.getInt(), in.getInt(), in.getInt(), in.getInt()};
+            int providerCount = in.getInt();
+            HashList<Provider> providers = new HashList<Provider>(providerCount);
+            for (int i = 0; i < providerCount; i++) {
+                providers.add(getProvider(in));
+            }
+            int technicianCount = in.getInt();
+            Rotation<Technician> technicians = new Rotation<Technician>();
+            for (int i = 0; i < technicianCount; i++) {
+                technicians.add((Technician) providers.get(in.getInt()));
+            }
+            if (in.hasRemaining() || providers.size() != providerCount) {
+                return null;
+            }
+            return new RosterSnapshot(providers, technicians, counts);
+        } catch (IOException | RuntimeException e) { // Missing, unreadable or malformed; the text roster is used instead
+            return null;
+        }
+    }
+
+    /**
+     * Gets the providers of the snapshot.
+     *
+     * @return the providers, sorted by profile.
+     */
+    public HashList<Provider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Gets the technicians of the snapshot.
+     *
+     * @return the technicians in roster file order.
+     */
+    public Rotation<Technician> getTechnicians() {
+        return technicians;
+    }
+
+    /**
+     * Gets the number of lines of the roster file.
+     *
+     * @return the number of lines.
+     */
+    public int getLineCount() {
+        return counts[0];
+    }
+
+    /**
+     * Gets the number of roster lines that were neither a doctor nor a technician.
+     *
+     * @return the number of invalid lines.
+     */
+    public int getInvalidCount() {
+        return counts[1];
+    }
+
+    /**
+     * Gets the number of blank roster lines and lines with the wrong number of fields.
+     *
+     * @return the number of skipped lines.
+     */
+    public int getSkippedCount() {
+        return counts[2];
+    }
+
+    /**
+     * Gets the number of providers dropped as duplicates when the roster was loaded.
+     *
+     * @return the number of duplicates.
+     */
+    public int getDuplicateCount() {
+        return counts[3];
+    }
+
+    /**
+     * Appends a provider to the buffer, growing it if needed.
+     *
+     * @param buffer The buffer to write to.
+     * @param provider The provider to write.
+     * @return the buffer written to, which may be a new, larger buffer.
+     */
+    private static ByteBuffer putProvider(ByteBuffer buffer, Provider provider) {
+        Profile profile = provider.getProfile();
+        byte[] firstName = profile.getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] lastName = profile.getLastName().getBytes(StandardCharsets.UTF_8);
+        byte[] npi = provider instanceof Doctor ? ((Doctor) provider).getNpi().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        buffer = ensure(buffer, 32 + firstName.length + lastName.length + npi.length);
+        buffer.put(provider instanceof Doctor ? DOCTOR : TECHNICIAN);
+        putBytes(buffer, firstName);
+        putBytes(buffer, lastName);
+        Date dateOfBirth = profile.getDateOfBirth();
+        buffer.put((byte) dateOfBirth.getMonth()).put((byte) dateOfBirth.getDay()).putInt(dateOfBirth.getYear());
+        buffer.put(provider.getLocation() == null ? NONE : (byte) provider.getLocation().ordinal());
+        if (provider instanceof Doctor) {
+            Specialty specialty = ((Doctor) provider).getSpecialty();
+            buffer.put(specialty == null ? NONE : (byte) specialty.ordinal());
+            putBytes(buffer, npi);
+        } else {
+            buffer.putInt(provider.rate());
+        }
+        return buffer;
+    }
+
+    /**
+     * Reads a provider from the buffer.
+     *
+     * @param in The buffer, positioned at a provider.
+     * @return the provider.
+     * @throws BufferUnderflowException if the buffer ends in the middle of the provider.
+     * @throws IllegalArgumentException if the provider is malformed.
+     */
+    private static Provider getProvider(ByteBuffer in) {
+        byte type = in.get();
+        String firstName = getString(in);
+        String lastName = getString(in);
+        int month = in.get();
+        int day = in.get();
+        Profile profile = new Profile(firstName, lastName, new Date(month, day, in.getInt()));
+        byte location = in.get();
+        Location providerLocation = location == NONE ? null : LOCATIONS[location];
+        if (type == DOCTOR) {
+            byte specialty = in.get();
+            return new Doctor(profile, providerLocation, getString(in), specialty == NONE ? null : SPECIALTIES[specialty]);
+        }
+        if (type == TECHNICIAN) {
+            return new Technician(profile, providerLocation, in.getInt());
+        }
+        throw new IllegalArgumentException("Unknown provider type: " + type);
+    }
+
+    /**
+     * Writes bytes preceded by their length.
+     *
+     * @param buffer The buffer to write to, with room for the bytes.
+     * @param bytes The bytes to write.
+     */
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    /**
+     * Reads bytes preceded by their length as a UTF-8 String.
+     *
+     * @param in The buffer to read from.
+     * @return the String.
+     */
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes sure a buffer has room for the given number of bytes, copying it into one twice as large if not.
+     *
+     * @param buffer The buffer being written.
+     * @param bytes The number of bytes about to be written.
+     * @return the buffer, or a larger copy of it.
+     */
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+}
@@ -0,0 +1,117 @@
+package clinic;
+
+import util.List;
+import util.Rotation;
+
+/**
+ * The loaded roster together with every structure sized from it: the provider directory, the
+ * technician rotation, the slot occupancy, the provider credits, the technician assigner and
+ * the appointment store, with the registry of the patients on that store.
+ *
+ * These only make sense together, since they all index providers by the ids of one directory,
+ * so they are built together and held by final fields. A reload builds a new RosterState and
+ * publishes it with a single write, so a reader never sees the directory of one roster with
+ * the occupancy or the schedule of another. The reload starts an empty schedule, so it starts an
+ * empty registry too, and the patients of the old schedule are dropped with it.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class RosterState {
+    private final List<Provider> providers; // Providers read from the roster, in sorted order
+    private final ProviderDirectory directory; // Immutable lookups over the providers
+    private final Rotation<Technician> technicians; // Technicians in the order they take imaging appointments
+    private final SlotOccupancy occupancy; // Booked timeslots by provider id and day
+    private final ProviderCredits credits; // Expected credit by provider id
+    private final TechnicianAssigner assigner; // Round-robin technician and room assignment
+    private final PatientRegistry registry; // The patients and spellings of the schedule
+    private final AppointmentStore schedule; // The schedule in columns, with conflict lookups and running bills
+
+    /**
+     * Builds the structures for a roster, with an empty schedule.
+     *
+     * @param providers The providers, already sorted; their order decides the provider ids.
+     * @param technicians The technician rotation, in the order technicians take turns.
+     */
+    public RosterState(List<Provider> providers, Rotation<Technician> technicians) {
+        this.providers = providers;
+        this.directory = new ProviderDirectory(providers);
+        this.technicians = technicians;
+        this.occupancy = new SlotOccupancy(directory.size());
+        this.credits = new ProviderCredits(directory.size());
+        this.assigner = new TechnicianAssigner(technicians, directory, occupancy);
+        this.registry = new PatientRegistry();
+        this.schedule = new AppointmentStore(directory, registry);
+    }
+
+    /**
+     * Gets the providers of the roster.
+     *
+     * @return the providers, in sorted order.
+     */
+    public List<Provider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Gets the provider directory.
+     *
+     * @return the directory whose ids the other structures use.
+     */
+    public ProviderDirectory getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the technician rotation.
+     *
+     * @return the rotation, whose head takes the next imaging appointment.
+     */
+    public Rotation<Technician> getTechnicians() {
+        return technicians;
+    }
+
+    /**
+     * Gets the booked timeslots of the providers.
+     *
+     * @return the slot occupancy.
+     */
+    public SlotOccupancy getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Gets the expected credits of the providers.
+     *
+     * @return the provider credits.
+     */
+    public ProviderCredits getCredits() {
+        return credits;
+    }
+
+    /**
+     * Gets the technician assigner.
+     *
+     * @return the assigner over the rotation and occupancy.
+     */
+    public TechnicianAssigner getAssigner() {
+        return assigner;
+    }
+
+    /**
+     * Gets the appointment store.
+     *
+     * @return the schedule.
+     */
+    public AppointmentStore getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Gets the registry of the schedule's patients.
+     *
+     * @return the registry the schedule interns its patients in.
+     */
+    public PatientRegistry getRegistry() {
+        return registry;
+    }
+}
@@ -1,17 +1,77 @@
 package clinic;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+
+import util.Date;
+import util.OutputBuffer;
+
 /**
  * The entry point for the Clinic Management application.
  * This class initializes and runs the ClinicManager, which handles the clinic operations.
  */
 public class RunProject2 {
+    private static final String BATCH_OPTION = "--batch";
+    private static final String ROSTER_OPTION = "--roster";
+    private static final String JOURNAL_OPTION = "--journal";
+    private static final String SYNC_OPTION = "--sync";
+    private static final String CHECKPOINT_OPTION = "--checkpoint";
 
     /**
      * The main method that starts the Clinic Management application.
      *
-     * @param args command-line arguments passed during application execution
+     * @param args command-line arguments passed during application execution; an optional
+     *             date in the format "MM/DD/YYYY" runs the clinic as if it were that day, and
+     *             "--batch" followed by a file path runs the commands in that file instead of
+     *             reading them from standard input; "--roster" followed by a file path loads
+     *             the providers from that file instead of the default roster; "--journal"
+     *             followed by a file path replays the schedule in that journal and records
+     *             every change to it, and "--sync" followed by "command", "group" or "periodic"
+     *             chooses when the journal is forced to disk (group by default); "--checkpoint"
+     *             followed by a number of journal records sets how often the schedule is
+     *             checkpointed and the journal truncated, 0 to never checkpoint
+     * @throws IOException if the journal cannot be read
      */
-    public static void main(String[] args) {
-        new ClinicManager().run(); // Initializes and runs the ClinicManager
+    public static void main(String[] args) throws IOException {
+        Clock clock = Clock.systemDefaultZone();
+        String commandFile = null;
+        Path rosterFile = ClinicManager.DEFAULT_ROSTER;
+        Path journalFile = null;
+        Journal.SyncPolicy syncPolicy = Journal.SyncPolicy.GROUP;
+        int checkpointInterval = Checkpointer.DEFAULT_INTERVAL;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(BATCH_OPTION) && i + 1 < args.length) {
+                commandFile = args[++i];
+            } else if (args[i].equals(ROSTER_OPTION) && i + 1 < args.length) {
+                rosterFile = Paths.get(args[++i]);
+            } else if (args[i].equals(JOURNAL_OPTION) && i + 1 < args.length) {
+                journalFile = Paths.get(args[++i]);
+            } else if (args[i].equals(SYNC_OPTION) && i + 1 < args.length) {
+                syncPolicy = Journal.SyncPolicy.valueOf(args[++i].toUpperCase());
+            } else if (args[i].equals(CHECKPOINT_OPTION) && i + 1 < args.length) {
+                checkpointInterval = Integer.parseInt(args[++i]);
+            } else {
+                clock = BookingWindow.fixedClock(new Date(args[i])); // Replays a session on a fixed day
+            }
+        }
+        Journal journal = journalFile == null ? null : new Journal(journalFile, syncPolicy);
+        Checkpointer checkpointer = journal == null || checkpointInterval == 0 ? null : new Checkpointer(journal, checkpointInterval);
+        ClinicManager clinicManager = new ClinicManager(clock, OutputBuffer.stdout(), rosterFile, journal, checkpointer); // Initializes the ClinicManager
+        try {
+            if (commandFile != null) {
+                clinicManager.runBatch(Paths.get(commandFile));
+            } else {
+                clinicManager.run();
+            }
+        } finally {
+            if (checkpointer != null) {
+                checkpointer.close(); // Finish the checkpoint being written before the journal closes
+            }
+            if (journal != null) {
+                journal.close();
+            }
+        }
     }
 }
@@ -0,0 +1,423 @@
+package clinic;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import util.Date;
+
+/**
+ * A compact copy of the schedule at one point of the journal, so a restart only replays the
+ * journal records after it.
+ *
+ * The appointments are stored column by column, in the order they were booked: their days,
+ * their timeslots, their patients, their providers and their rooms. Patients and providers are
+ * stored once each in a dictionary and the columns hold their indexes, so a patient with many
+ * appointments costs one int per appointment; names spelled differently are kept apart, as
+ * each appointment prints the patient as booked. Providers are stored by profile and NPI rather
+ * than by id, so a checkpoint still applies after the roster is reloaded. The billing ledger and
+ * provider credits are not stored, since they are rebuilt as the appointments are added back.
+ *
+ * Layout, big-endian: magic, version, journal position, number of appointments, number of
+ * patients, the patients, number of providers, the providers, the dictionary index of the
+ * technician at the head of the rotation (-1 for none), the five columns, and a CRC-32 of
+ * everything before it. A patient is a first and last name and a date of birth; a provider is
+ * its type, then its profile, then its NPI for a doctor.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ */
+public class ScheduleCheckpoint {
+    public static final String SUFFIX = ".checkpoint"; // Added to the journal file name to name its checkpoint
+
+    private static final int MAGIC = 0x5343484B; // "SCHK"
+    private static final int VERSION = 1;
+    private static final byte DOCTOR = 'D';
+    private static final byte TECHNICIAN = 'T';
+    private static final byte NO_ROOM = -1; // Room stored for an office appointment
+    private static final int NONE = -1; // Rotation head stored when there are no technicians
+    private static final int CRC_BYTES = Integer.BYTES;
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    private final long journalPosition; // The journal position the checkpoint is current to
+    private final int[] epochDays; // Day of each appointment
+    private final byte[] timeslots; // Timeslot value of each appointment
+    private final int[] patients; // Patient dictionary index of each appointment
+    private final int[] providers; // Provider dictionary index of each appointment
+    private final byte[] rooms; // Room ordinal of each appointment, NO_ROOM for an office appointment
+    private final Profile[] patientDictionary; // Each patient once
+    private final Profile[] providerProfiles; // Each provider once
+    private final String[] providerNpis; // NPI of each provider, null for a technician
+    private final int rotationHead; // Provider dictionary index of the technician whose turn is next, NONE if none
+
+    /**
+     * Constructs a checkpoint read from a file.
+     *
+     * @param journalPosition The journal position the checkpoint is current to.
+     * @param columns The day, timeslot, patient, provider and room columns.
+     * @param patientDictionary The patients.
+     * @param providerProfiles The profiles of the providers.
+     * @param providerNpis The NPIs of the providers.
+     * @param rotationHead The dictionary index of the technician whose turn is next.
+     */
+    private ScheduleCheckpoint(long journalPosition, Object[] columns, Profile[] patientDictionary,
+            Profile[] providerProfiles, String[] providerNpis, int rotationHead) {
+        this.journalPosition = journalPosition;
+        this.epochDays = (int[]) columns[0];
+        this.timeslots = (byte[]) columns[1];
+        this.patients = (int[]) columns[2];
+        this.providers = (int[]) columns[3];
+        this.rooms = (byte[]) columns[4];
+        this.patientDictionary = patientDictionary;
+        this.providerProfiles = providerProfiles;
+        this.providerNpis = providerNpis;
+        this.rotationHead = rotationHead;
+    }
+
+    /**
+     * Gets the path of the checkpoint of a journal.
+     *
+     * @param journal The journal file.
+     * @return the checkpoint path, next to the journal.
+     */
+    public static Path pathFor(Path journal) {
+        return journal.resolveSibling(journal.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Writes a checkpoint of the schedule. The file is written under a temporary name, forced,
+     * and then moved into place, so a reader never sees half a checkpoint.
+     * Only reads the store it is given, so it can run on another thread on a copy of the store
+     * while commands keep changing the schedule.
+     *
+     * @param checkpoint The checkpoint file to write.
+     * @param schedule The appointments on the schedule, in the order they were booked.
+     * @param rotationHead The technician whose turn is next, or null if there are no technicians.
+     * @param journalPosition The journal position the schedule is current to.
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    public static void write(Path checkpoint, AppointmentStore schedule, Technician rotationHead, long journalPosition) throws IOException {
+        int count = schedule.size();
+        int[] rows = new int[count];
+        for (int row = 0, i = 0; row < schedule.getRowCount(); row++) {
+            if (schedule.isLive(row)) {
+                rows[i++] = row;
+            }
+        }
+        int[] patientColumn = new int[count];
+        int[] providerColumn = new int[count];
+        int[] patientIds = new int[schedule.getSpellingCount()]; // Dictionary index + 1 of each spelling in the store, 0 if not yet stored
+        HashMap<Person, Integer> providerIds = new HashMap<>();
+        int patientCount = 0;
+        ByteBuffer patientBytes = ByteBuffer.allocate(1 << 12);
+        ByteBuffer providerBytes = ByteBuffer.allocate(1 << 10);
+        for (int i = 0; i < count; i++) {
+            int spelling = schedule.getSpellingId(rows[i]);
+            if (patientIds[spelling] == 0) {
+                patientIds[spelling] = ++patientCount;
+                patientBytes = putProfile(patientBytes, schedule.getSpelling(spelling));
+            }
+            patientColumn[i] = patientIds[spelling] - 1;
+            Provider provider = schedule.getProvider(rows[i]);
+            Integer providerId = providerIds.get(provider);
+            if (providerId == null) {
+                providerId = providerIds.size();
+                providerIds.put(provider, providerId);
+                providerBytes = putProvider(providerBytes, provider);
+            }
+            providerColumn[i] = providerId;
+        }
+        int head = NONE;
+        if (rotationHead != null) {
+            Integer headId = providerIds.get(rotationHead);
+            if (headId == null) {
+                headId = providerIds.size();
+                providerIds.put(rotationHead, headId);
+                providerBytes = putProvider(providerBytes, rotationHead);
+            }
+            head = headId;
+        }
+
+        patientBytes.flip();
+        providerBytes.flip();
+        ByteBuffer buffer = ByteBuffer.allocate(6 * Integer.BYTES + Long.BYTES + patientBytes.remaining() + providerBytes.remaining()
+                + count * (3 * Integer.BYTES + 2) + CRC_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(journalPosition).putInt(count);
+        buffer.putInt(patientCount).put(patientBytes);
+        buffer.putInt(providerIds.size()).put(providerBytes);
+        buffer.putInt(head);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(schedule.getEpochDay(rows[i]));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.put((byte) schedule.getTimeslot(rows[i]));
+        }
+        buffer.asIntBuffer().put(patientColumn);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        buffer.asIntBuffer().put(providerColumn);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        for (int i = 0; i < count; i++) {
+            Radiology room = schedule.getRoom(rows[i]);
+            buffer.put(room == null ? NO_ROOM : (byte) room.ordinal());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint by mapping it into memory.
+     *
+     * @param checkpoint The checkpoint file.
+     * @return the checkpoint, or null if there is none, it is damaged, or it was written by
+     *         another version of this format.
+     */
+    public static ScheduleCheckpoint read(Path checkpoint) {
+        try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < CRC_BYTES || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer in = mapped.duplicate();
+            in.limit((int) size - CRC_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(in.duplicate());
+            if ((int) crc.getValue() != mapped.getInt((int) size - CRC_BYTES)
+                    || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                return null;
+            }
+            long journalPosition = in.getLong();
+            int count = in.getInt();
+            Profile[] patientDictionary = new Profile[in.getInt()];
+            for (int i = 0; i < patientDictionary.length; i++) {
+                patientDictionary[i] = getProfile(in);
+            }
+            int providerCount = in.getInt();
+            Profile[] providerProfiles = new Profile[providerCount];
+            String[] providerNpis = new String[providerCount];
+            for (int i = 0; i < providerCount; i++) {
+                byte type = in.get();
+                providerProfiles[i] = getProfile(in);
+                providerNpis[i] = type == DOCTOR ? getString(in) : null;
+            }
+            int head = in.getInt();
+            Object[] columns = {new int[count], new byte[count], new int[count], new int[count], new byte[count]};
+            in.asIntBuffer().get((int[]) columns[0]);
+            in.position(in.position() + count * Integer.BYTES);
+            in.get((byte[]) columns[1]);
+            in.asIntBuffer().get((int[]) columns[2]);
+            in.position(in.position() + count * Integer.BYTES);
+            in.asIntBuffer().get((int[]) columns[3]);
+            in.position(in.position() + count * Integer.BYTES);
+            in.get((byte[]) columns[4]);
+            if (in.hasRemaining() || head < NONE || head >= providerCount) {
+                return null;
+            }
+            for (int i = 0; i < count; i++) {
+                if (((int[]) columns[2])[i] >= patientDictionary.length || ((int[]) columns[3])[i] >= providerCount) {
+                    return null;
+                }
+            }
+            return new ScheduleCheckpoint(journalPosition, columns, patientDictionary, providerProfiles, providerNpis, head);
+        } catch (IOException | RuntimeException e) { // Missing, unreadable or malformed; the whole journal is replayed instead
+            return null;
+        }
+    }
+
+    /**
+     * Gets the journal position the checkpoint is current to; journal records from there on
+     * happened after it was taken.
+     *
+     * @return the journal position.
+     */
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+
+    /**
+     * Gets the number of appointments in the checkpoint.
+     *
+     * @return the number of appointments.
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Looks up every provider of the checkpoint in the loaded roster.
+     *
+     * @param directory The loaded providers.
+     * @return the providers, by dictionary index; null for a provider no longer on the roster.
+     */
+    public Provider[] resolveProviders(ProviderDirectory directory) {
+        Provider[] resolved = new Provider[providerProfiles.length];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = providerNpis[i] != null ? directory.findDoctor(providerNpis[i]) : directory.findByProfile(providerProfiles[i]);
+        }
+        return resolved;
+    }
+
+    /**
+     * Gets the day of an appointment.
+     *
+     * @param index The index of the appointment.
+     * @return the date of the appointment.
+     */
+    public Date getDate(int index) {
+        return Date.ofEpochDay(epochDays[index]);
+    }
+
+    /**
+     * Gets the timeslot of an appointment.
+     *
+     * @param index The index of the appointment.
+     * @return the timeslot of the appointment.
+     */
+    public Timeslot getTimeslot(int index) {
+        return Timeslot.of(timeslots[index]);
+    }
+
+    /**
+     * Gets the patient of an appointment.
+     *
+     * @param index The index of the appointment.
+     * @return the patient's profile, shared by every appointment of the patient.
+     */
+    public Profile getPatient(int index) {
+        return patientDictionary[patients[index]];
+    }
+
+    /**
+     * Gets the provider of an appointment.
+     *
+     * @param index The index of the appointment.
+     * @return the dictionary index of the provider, as used by resolveProviders.
+     */
+    public int getProvider(int index) {
+        return providers[index];
+    }
+
+    /**
+     * Gets the room of an appointment.
+     *
+     * @param index The index of the appointment.
+     * @return the room of an imaging appointment, or null for an office appointment.
+     */
+    public Radiology getRoom(int index) {
+        return rooms[index] == NO_ROOM ? null : ROOMS[rooms[index]];
+    }
+
+    /**
+     * Gets the technician whose turn was next when the checkpoint was taken.
+     *
+     * @return the dictionary index of the technician, as used by resolveProviders, or -1 if there were no technicians.
+     */
+    public int getRotationHead() {
+        return rotationHead;
+    }
+
+    /**
+     * Appends a provider to the buffer, growing it if needed.
+     *
+     * @param buffer The buffer to write to.
+     * @param provider The provider to write.
+     * @return the buffer written to, which may be a new, larger buffer.
+     */
+    private static ByteBuffer putProvider(ByteBuffer buffer, Person provider) {
+        boolean doctor = provider instanceof Doctor;
+        buffer = ensure(buffer, 1);
+        buffer.put(doctor ? DOCTOR : TECHNICIAN);
+        buffer = putProfile(buffer, provider.getProfile());
+        if (doctor) {
+            byte[] npi = ((Doctor) provider).getNpi().getBytes(StandardCharsets.UTF_8);
+            buffer = ensure(buffer, Integer.BYTES + npi.length);
+            buffer.putInt(npi.length).put(npi);
+        }
+        return buffer;
+    }
+
+    /**
+     * Appends a profile to the buffer, growing it if needed.
+     *
+     * @param buffer The buffer to write to.
+     * @param profile The profile to write.
+     * @return the buffer written to, which may be a new, larger buffer.
+     */
+    private static ByteBuffer putProfile(ByteBuffer buffer, Profile profile) {
+        byte[] firstName = profile.getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] lastName = profile.getLastName().getBytes(StandardCharsets.UTF_8);
+        buffer = ensure(buffer, 2 * Integer.BYTES + firstName.length + lastName.length + 6);
+        buffer.putInt(firstName.length).put(firstName);
+        buffer.putInt(lastName.length).put(lastName);
+        Date dateOfBirth = profile.getDateOfBirth();
+        buffer.put((byte) dateOfBirth.getMonth()).put((byte) dateOfBirth.getDay()).putInt(dateOfBirth.getYear());
+        return buffer;
+    }
+
+    /**
+     * Reads a profile from the buffer.
+     *
+     * @param in The buffer, positioned at a profile.
+     * @return the profile.
+     * @throws BufferUnderflowException if the buffer ends in the middle of the profile.
+     */
+    private static Profile getProfile(ByteBuffer in) {
+        String firstName = getString(in);
+        String lastName = getString(in);
+        int month = in.get();
+        int day = in.get();
+        return new Profile(firstName, lastName, new Date(month, day, in.getInt()));
+    }
+
+    /**
+     * Reads bytes preceded by their length as a UTF-8 String.
+     *
+     * @param in The buffer to read from.
+     * @return the String.
+     */
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes sure a buffer has room for the given number of bytes, copying it into one twice as large if not.
+     *
+     * @param buffer The buffer being written.
+     * @param bytes The number of bytes about to be written.
+     * @return the buffer, or a larger copy of it.
+     */
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+}
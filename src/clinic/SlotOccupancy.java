@@ -0,0 +1,146 @@
+package clinic;
+
+import util.Date;
+
+/**
+ * Records which timeslots each provider is booked in, one bit per slot.
+ *
+ * A day has 12 timeslots, so a provider's bookings for one day fit in a short. The shorts are
+ * kept in a single array indexed by provider id and business day, so checking if a provider is
+ * free is one bit test and the whole six month calendar takes a few kilobytes.
+ *
+ * Business days are numbered from 1/1/1970, skipping weekends, and stored in a ring of
+ * RING_DAYS days. Each position of the ring remembers which day it currently holds, so days
+ * that have passed are cleared lazily when the ring comes back around to them. The ring is
+ * about a year long, twice the booking window, so every day that can be booked is covered.
+ *
+ * Provider ids are the dense ids of the ProviderDirectory, from 0 to the number of providers.
+ * Anything else booked by timeslot, such as the imaging rooms of each location, can be tracked
+ * the same way under its own ids.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class SlotOccupancy {
+    public static final int RING_DAYS = 256; // Number of business days the ring holds (power of two)
+
+    private static final int RING_MASK = RING_DAYS - 1;
+    private static final int NO_DAY = Integer.MIN_VALUE; // Marks a ring position that holds no day yet
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int BUSINESS_DAYS_PER_WEEK = 5;
+    private static final int EPOCH_DAYS_AFTER_MONDAY = 3; // 1/1/1970 was a Thursday
+
+    private final int providers; // Number of provider ids tracked
+    private final short[] slots; // Bit s of slots[day * providers + id] is set if the provider is booked in slot s + 1
+    private final int[] days; // Business day number held by each position of the ring
+
+    /**
+     * Constructs an empty occupancy for the given number of providers.
+     *
+     * @param providers The number of provider ids to track.
+     */
+    public SlotOccupancy(int providers) {
+        this.providers = providers;
+        slots = new short[RING_DAYS * providers];
+        days = new int[RING_DAYS];
+        for (int i = 0; i < RING_DAYS; i++) {
+            days[i] = NO_DAY;
+        }
+    }
+
+    /**
+     * Checks if a provider and timeslot on a date can be tracked: the provider id is known, the
+     * date is a valid weekday and the timeslot is one of the 12 bookable slots.
+     *
+     * @param provider The provider id.
+     * @param date The date.
+     * @param slot The timeslot.
+     * @return true if the occupancy can answer for this provider, date and slot.
+     */
+    public boolean covers(int provider, Date date, Timeslot slot) {
+        return provider >= 0 && provider < providers && date != null && date.isValid() && !date.isWeekend()
+                && slot != null && slot.getTimeslotInt() >= Timeslot.FIRST_SLOT && slot.getTimeslotInt() <= Timeslot.LAST_SLOT;
+    }
+
+    /**
+     * Checks if a provider is booked at a timeslot on a date.
+     *
+     * @param provider The provider id.
+     * @param date A date covered by the occupancy.
+     * @param slot A timeslot covered by the occupancy.
+     * @return true if the provider is booked at that time, false if they are free.
+     */
+    public boolean isBooked(int provider, Date date, Timeslot slot) {
+        int day = businessDay(date);
+        int position = day & RING_MASK;
+        return days[position] == day && (slots[position * providers + provider] & bit(slot)) != 0;
+    }
+
+    /**
+     * Gets the timeslots a provider is booked in on a date.
+     *
+     * @param provider The provider id.
+     * @param date A weekday.
+     * @return a mask with bit s set if the provider is booked in timeslot s + 1.
+     */
+    public int getDay(int provider, Date date) {
+        int day = businessDay(date);
+        int position = day & RING_MASK;
+        return days[position] == day ? slots[position * providers + provider] : 0;
+    }
+
+    /**
+     * Marks a provider as booked at a timeslot on a date.
+     *
+     * @param provider The provider id.
+     * @param date A date covered by the occupancy.
+     * @param slot A timeslot covered by the occupancy.
+     */
+    public void book(int provider, Date date, Timeslot slot) {
+        int day = businessDay(date);
+        int position = day & RING_MASK;
+        if (days[position] != day) { // The position still holds a day that has passed
+            for (int i = position * providers; i < (position + 1) * providers; i++) {
+                slots[i] = 0;
+            }
+            days[position] = day;
+        }
+        slots[position * providers + provider] |= bit(slot);
+    }
+
+    /**
+     * Marks a provider as free at a timeslot on a date.
+     *
+     * @param provider The provider id.
+     * @param date A date covered by the occupancy.
+     * @param slot A timeslot covered by the occupancy.
+     */
+    public void release(int provider, Date date, Timeslot slot) {
+        int day = businessDay(date);
+        int position = day & RING_MASK;
+        if (days[position] == day) {
+            slots[position * providers + provider] &= ~bit(slot);
+        }
+    }
+
+    /**
+     * Numbers a weekday by counting the weekdays since 1/1/1970.
+     *
+     * @param date A weekday.
+     * @return the business day number of the date.
+     */
+    private static int businessDay(Date date) {
+        int fromMonday = date.toEpochDay() + EPOCH_DAYS_AFTER_MONDAY;
+        int week = Math.floorDiv(fromMonday, DAYS_PER_WEEK);
+        return week * BUSINESS_DAYS_PER_WEEK + Math.floorMod(fromMonday, DAYS_PER_WEEK);
+    }
+
+    /**
+     * Gets the bit of a timeslot in a day's mask.
+     *
+     * @param slot A bookable timeslot.
+     * @return the mask with only the bit of the timeslot set.
+     */
+    private static int bit(Timeslot slot) {
+        return 1 << (slot.getTimeslotInt() - Timeslot.FIRST_SLOT);
+    }
+}
@@ -1,5 +1,8 @@
 package clinic;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Enum representing various medical specialties and their associated charges.
  * @author Dhawal Arora (Netid: da812)
@@ -11,6 +14,14 @@ public enum Specialty {
 
     private final int charge;
 
+    private static final Map<String, Specialty> BY_NAME = new HashMap<>(); // Each specialty keyed by its name
+
+    static {
+        for (Specialty specialty : values()) {
+            BY_NAME.put(specialty.name(), specialty);
+        }
+    }
+
     /**
      * Constructor for the Specialty enum.
      *
@@ -28,4 +39,14 @@ public enum Specialty {
     public int getCharge() {
         return charge;
     }
+
+    /**
+     * Looks up a specialty by its name, ignoring whitespace around the name.
+     *
+     * @param name the name of the specialty, such as "FAMILY"
+     * @return the matching specialty, or null if there is none
+     */
+    public static Specialty of(String name) {
+        return BY_NAME.get(name.trim());
+    }
 }
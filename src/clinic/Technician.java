@@ -1,5 +1,7 @@
 package clinic;
 
+import util.OutputBuffer;
+
 /**
  * Represents a Technician, a type of Provider who performs medical procedures.
  * A Technician has a profile, location, and a rate charged per visit.
@@ -50,4 +52,15 @@ public class Technician extends Provider {
     public String toString() {
         return (super.toString() + "[rate: $" + ratePerVisit + ".00]"); // Combines superclass toString with rate information
     }
+
+    /**
+     * Writes the technician in the same format as toString, without building a String.
+     *
+     * @param out the buffer to write to
+     */
+    @Override
+    public void formatTo(OutputBuffer out) {
+        super.formatTo(out);
+        out.print("[rate: $").print(ratePerVisit).print(".00]");
+    }
 }
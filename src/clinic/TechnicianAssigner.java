@@ -0,0 +1,125 @@
+package clinic;
+
+import util.Date;
+import util.Rotation;
+
+/**
+ * Assigns technicians to imaging appointments in round-robin order.
+ *
+ * A technician can take an imaging appointment if they are free at that date and timeslot,
+ * and the requested imaging room at their location is also free then. Both checks are bit
+ * tests: technicians in the shared provider slot occupancy, keyed on (date, slot, technician),
+ * and rooms in an occupancy of this assigner, keyed on (date, slot, location, room). Finding
+ * the next free technician walks the rotation once, so it takes O(technicians) no matter
+ * how many appointments are booked.
+ *
+ * After an assignment the rotation resumes from the technician after the one assigned.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ */
+public class TechnicianAssigner {
+    private static final int ROOMS_PER_LOCATION = Radiology.values().length;
+    private static final int ROOMS = Location.values().length * ROOMS_PER_LOCATION;
+
+    private final Rotation<Technician> rotation; // Technicians in rotation order; the next in turn is asked first
+    private final ProviderDirectory providers; // The provider directory, which gives each provider its id
+    private final SlotOccupancy technicianSlots; // Booked timeslots of every provider
+    private final SlotOccupancy roomSlots; // Booked timeslots of every imaging room at every location
+
+    /**
+     * Constructs an assigner over a rotation of technicians.
+     *
+     * @param rotation The technicians in rotation order.
+     * @param providers The provider directory, whose ids are the ids used in the occupancy.
+     * @param technicianSlots The occupancy tracking the booked timeslots of every provider.
+     */
+    public TechnicianAssigner(Rotation<Technician> rotation, ProviderDirectory providers, SlotOccupancy technicianSlots) {
+        this.rotation = rotation;
+        this.providers = providers;
+        this.technicianSlots = technicianSlots;
+        this.roomSlots = new SlotOccupancy(ROOMS);
+    }
+
+    /**
+     * Finds the next technician in the rotation who is free at a date and timeslot and whose
+     * location has the requested room free, and moves the rotation past them.
+     *
+     * @param date The date of the imaging appointment.
+     * @param slot The timeslot of the imaging appointment.
+     * @param room The imaging service requested.
+     * @return the assigned technician, or null if no technician is available.
+     */
+    public Technician assign(Date date, Timeslot slot, Radiology room) {
+        for (int turns = 0; turns < rotation.size(); turns++) {
+            Technician technician = rotation.get(turns);
+            if (isFree(technician, date, slot, room)) {
+                rotation.advance(turns + 1);
+                return technician;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks the room of an imaging appointment as booked at its date and timeslot.
+     *
+     * @param imaging The imaging appointment being added to the schedule.
+     */
+    public void book(Imaging imaging) {
+        int room = roomId(imaging);
+        if (roomSlots.covers(room, imaging.getDate(), imaging.getTimeslot())) {
+            roomSlots.book(room, imaging.getDate(), imaging.getTimeslot());
+        }
+    }
+
+    /**
+     * Marks the room of an imaging appointment as free at its date and timeslot.
+     *
+     * @param imaging The imaging appointment being removed from the schedule.
+     */
+    public void release(Imaging imaging) {
+        int room = roomId(imaging);
+        if (roomSlots.covers(room, imaging.getDate(), imaging.getTimeslot())) {
+            roomSlots.release(room, imaging.getDate(), imaging.getTimeslot());
+        }
+    }
+
+    /**
+     * Checks if a technician and the requested room at their location are both free.
+     *
+     * @param technician The technician to check.
+     * @param date The date of the imaging appointment.
+     * @param slot The timeslot of the imaging appointment.
+     * @param room The imaging service requested.
+     * @return true if the technician can take the appointment, false otherwise.
+     */
+    private boolean isFree(Technician technician, Date date, Timeslot slot, Radiology room) {
+        int roomId = roomId(technician.getLocation(), room);
+        if (roomSlots.covers(roomId, date, slot) && roomSlots.isBooked(roomId, date, slot)) {
+            return false;
+        }
+        int technicianId = providers.idOf(technician);
+        return !(technicianSlots.covers(technicianId, date, slot) && technicianSlots.isBooked(technicianId, date, slot));
+    }
+
+    /**
+     * Gets the id of the room an imaging appointment uses.
+     *
+     * @param imaging The imaging appointment.
+     * @return the id of the room at the technician's location.
+     */
+    private static int roomId(Imaging imaging) {
+        return roomId(((Provider) imaging.getProvider()).getLocation(), imaging.getRoom());
+    }
+
+    /**
+     * Gets the id of an imaging room at a location.
+     *
+     * @param location The location of the room.
+     * @param room The imaging service of the room.
+     * @return the id of the room.
+     */
+    private static int roomId(Location location, Radiology room) {
+        return location.ordinal() * ROOMS_PER_LOCATION + room.ordinal();
+    }
+}
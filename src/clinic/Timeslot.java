@@ -1,5 +1,7 @@
 package clinic;
 
+import util.OutputBuffer;
+
 /**
  * Represents a time slot for scheduling appointments with hour and minute fields.
  * Implements Comparable to allow comparison between time slots.
@@ -9,6 +11,17 @@ package clinic;
  * @author Joshua Goykhman (Netid: jg1986)
  */
 public class Timeslot implements Comparable<Timeslot> {
+    public static final int FIRST_SLOT = 1;  // Value of the first bookable slot (9:00 AM)
+    public static final int LAST_SLOT = 12;  // Value of the last bookable slot (4:30 PM)
+
+    private static final Timeslot[] SLOTS = new Timeslot[LAST_SLOT + 1]; // Shared instance of each bookable slot
+
+    static {
+        for (int i = FIRST_SLOT; i <= LAST_SLOT; i++) {
+            SLOTS[i] = new Timeslot(i);
+        }
+    }
+
     private int hour;   // Hour of the time slot
     private int minute; // Minute of the time slot
 
@@ -54,6 +67,19 @@ public class Timeslot implements Comparable<Timeslot> {
 
     }
 
+    /**
+     * Returns the shared Timeslot for a timeslot value.
+     * Time slots never change once created, so every bookable slot has a single instance.
+     *
+     * @param timeslotValue The integer value representing the timeslot (see {@link #Timeslot(int)}).
+     * @return the shared instance for values 1 to 12, or a new invalid Timeslot otherwise.
+     */
+    public static Timeslot of(int timeslotValue) {
+        if (timeslotValue < FIRST_SLOT || timeslotValue > LAST_SLOT) {
+            return new Timeslot(timeslotValue);
+        }
+        return SLOTS[timeslotValue];
+    }
 
     /**
      * Gets the hour of the time slot.
@@ -147,6 +173,16 @@ public class Timeslot implements Comparable<Timeslot> {
         return String.format("%d:%02d %s", displayHour, minute, amPm);
     }
 
+    /**
+     * Writes the time slot in the same format as toString, without building a String.
+     *
+     * @param out The buffer to write to.
+     */
+    public void formatTo(OutputBuffer out) {
+        int displayHour = (hour % 12 == 0) ? 12 : hour % 12;
+        out.print(displayHour).print(':').printPadded(minute, 2).print(hour < 12 ? " AM" : " PM");
+    }
+
 
     /**
      * Checks if this time slot is equal to another object.
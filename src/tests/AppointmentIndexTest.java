@@ -0,0 +1,59 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import clinic.AppointmentIndex;
+import org.junit.Test;
+import util.Date;
+
+public class AppointmentIndexTest {
+
+    private static final int DAY = new Date(11, 2, 2026).toEpochDay();
+
+    @Test
+    public void testFindByPatientAndProvider() {
+        AppointmentIndex index = new AppointmentIndex();
+        index.add(7, DAY, 3, 2, 5);
+
+        assertEquals(7, index.findByPatient(DAY, 3, 2));
+        assertEquals(7, index.findByProvider(DAY, 3, 5));
+        assertEquals(AppointmentIndex.NOT_FOUND, index.findByPatient(DAY, 4, 2));
+        assertEquals(AppointmentIndex.NOT_FOUND, index.findByPatient(DAY + 1, 3, 2));
+        assertEquals(AppointmentIndex.NOT_FOUND, index.findByProvider(DAY, 3, 2)); // Patient and provider ids are separate keys
+    }
+
+    @Test
+    public void testRemoveKeepsOtherEntriesReachable() {
+        AppointmentIndex index = new AppointmentIndex();
+        for (int row = 0; row < 200; row++) {
+            index.add(row, DAY, row % 12 + 1, row, 0);
+        }
+        for (int row = 0; row < 200; row += 2) {
+            index.remove(row, DAY, row % 12 + 1, row, 0);
+        }
+        for (int row = 0; row < 200; row++) {
+            assertEquals(row % 2 == 0 ? AppointmentIndex.NOT_FOUND : row, index.findByPatient(DAY, row % 12 + 1, row));
+        }
+    }
+
+    @Test
+    public void testRenumberFollowsCompaction() {
+        AppointmentIndex index = new AppointmentIndex();
+        for (int row = 0; row < 100; row++) {
+            index.add(row, DAY + row, 1, 0, row);
+        }
+        int[] renumbered = new int[100];
+        for (int row = 0; row < 100; row++) {
+            if (row % 4 != 0) {
+                index.remove(row, DAY + row, 1, 0, row);
+            } else {
+                renumbered[row] = row / 4;
+            }
+        }
+        index.renumber(renumbered);
+        for (int row = 0; row < 100; row += 4) {
+            assertEquals(row / 4, index.findByProvider(DAY + row, 1, row));
+            assertEquals(row / 4, index.findByPatient(DAY + row, 1, 0));
+        }
+    }
+}
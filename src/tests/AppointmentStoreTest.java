@@ -0,0 +1,254 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+import org.junit.Test;
+import clinic.Appointment;
+import clinic.AppointmentStore;
+import clinic.BillingLedger;
+import clinic.Doctor;
+import clinic.Imaging;
+import clinic.Location;
+import clinic.Patient;
+import clinic.PatientRegistry;
+import clinic.Person;
+import clinic.Profile;
+import clinic.Provider;
+import clinic.ProviderDirectory;
+import clinic.Radiology;
+import clinic.Specialty;
+import clinic.Technician;
+import clinic.Timeslot;
+import util.Date;
+import util.HashList;
+import util.Sort;
+
+public class AppointmentStoreTest {
+    private static final Date DAY = new Date(11, 20, 2026);
+    private static final Profile JOHN = new Profile("JOHN", "DOE", new Date(1, 2, 1990));
+    private static final Profile JANE = new Profile("JANE", "DOE", new Date(5, 1, 1996));
+    private static final Technician GARY = new Technician(new Profile("GARY", "JOHNSON", new Date(6, 2, 1987)), Location.PISCATAWAY, 150);
+    private static final Doctor DOCTOR = new Doctor(new Profile("RACHAEL", "LIM", new Date(11, 30, 1975)), Location.BRIDGEWATER, "23", Specialty.PEDIATRICIAN);
+    private static final Technician FRANK = new Technician(new Profile("FRANK", "LIN", new Date(12, 25, 1989)), Location.EDISON, 120);
+
+    @Test
+    public void testAddFindAndRemove() {
+        AppointmentStore store = new AppointmentStore(directory());
+        Appointment office = new Appointment(DAY, Timeslot.of(3), new Person(JOHN), DOCTOR);
+        Imaging imaging = new Imaging(DAY, Timeslot.of(5), new Person(JOHN), GARY, Radiology.XRAY);
+        int first = store.add(office);
+        int second = store.add(imaging);
+        assertEquals(AppointmentStore.NOT_FOUND, store.add(new Appointment(DAY, Timeslot.of(3), new Person(JOHN), DOCTOR)));
+        assertEquals(2, store.size());
+        assertTrue(store.contains(office));
+        assertFalse(store.contains(new Imaging(DAY, Timeslot.of(5), new Person(JOHN), GARY, Radiology.CATSCAN)));
+        assertEquals(first, store.findByPatient(DAY, Timeslot.of(3), new Profile("john", "doe", new Date(1, 2, 1990))));
+        assertEquals(second, store.findByProvider(DAY, Timeslot.of(5), 0));
+        assertEquals(AppointmentStore.NOT_FOUND, store.findByPatient(DAY, Timeslot.of(4), JOHN));
+        assertEquals(imaging, store.get(second));
+        assertSame(store.get(first).getPatient(), store.get(second).getPatient()); // Both share the patient's interned Person
+        assertEquals(store.getPatientId(first), store.getPatientId(second));
+        assertEquals(Radiology.XRAY, store.getRoom(second));
+        assertNull(store.getRoom(first));
+
+        store.remove(first);
+        assertFalse(store.contains(office));
+        assertEquals(AppointmentStore.NOT_FOUND, store.findByProvider(DAY, Timeslot.of(3), 1));
+        assertEquals(second, store.findByPatient(DAY, Timeslot.of(5), JOHN));
+        store.remove(first); // Removing a free row does nothing
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testRejectedAddDoesNotRegisterPatient() {
+        PatientRegistry registry = new PatientRegistry();
+        AppointmentStore store = new AppointmentStore(directory(), registry);
+        store.add(new Appointment(DAY, Timeslot.of(1), new Person(JOHN), DOCTOR));
+        assertEquals(1, registry.getSpellingCount());
+        Profile lower = new Profile("john", "doe", new Date(1, 2, 1990));
+        assertEquals(AppointmentStore.NOT_FOUND, store.add(new Appointment(DAY, Timeslot.of(1), new Person(lower), DOCTOR)));
+        assertEquals(1, registry.getSpellingCount()); // Only a booked appointment interns its spelling
+        assertNull(registry.lookup("john", "doe", lower.getDateOfBirth()));
+    }
+
+    @Test
+    public void testInvalidDateIsNotFound() {
+        AppointmentStore store = new AppointmentStore(directory());
+        store.add(new Appointment(DAY, Timeslot.of(1), new Person(JOHN), DOCTOR));
+        Date invalid = Date.parse("13/45/2026", 0, 10); // Parsed like a command field, so not checked
+        assertEquals(AppointmentStore.NOT_FOUND, store.findByPatient(invalid, Timeslot.of(1), JOHN));
+        assertEquals(AppointmentStore.NOT_FOUND, store.findByProvider(invalid, Timeslot.of(1), 1));
+    }
+
+    @Test
+    public void testCompactionKeepsBookingOrder() {
+        AppointmentStore store = new AppointmentStore(directory());
+        for (int day = 0; day < 40; day++) {
+            store.add(new Appointment(DAY.plusDays(day), Timeslot.of(1), new Person(JOHN), DOCTOR));
+        }
+        for (int day = 0; day < 40; day += 4) {
+            store.remove(store.findByPatient(DAY.plusDays(day), Timeslot.of(1), JOHN));
+        }
+        for (int day = 1; day < 40; day += 4) {
+            store.remove(store.findByPatient(DAY.plusDays(day), Timeslot.of(1), JOHN));
+        }
+        for (int day = 2; day < 40; day += 4) {
+            store.remove(store.findByPatient(DAY.plusDays(day), Timeslot.of(1), JOHN));
+        }
+        assertEquals(10, store.size());
+        assertTrue(store.getRowCount() < 40); // Compacted
+        int previous = Integer.MIN_VALUE;
+        int live = 0;
+        for (int row = 0; row < store.getRowCount(); row++) {
+            if (!store.isLive(row)) {
+                continue;
+            }
+            live++;
+            assertTrue(store.getEpochDay(row) > previous);
+            previous = store.getEpochDay(row);
+            assertEquals(row, store.findByPatient(Date.ofEpochDay(previous), Timeslot.of(1), JOHN));
+        }
+        assertEquals(10, live);
+    }
+
+    @Test
+    public void testSortedRows() {
+        AppointmentStore store = new AppointmentStore(directory());
+        int late = store.add(new Appointment(DAY.plusDays(1), Timeslot.of(1), new Person(JOHN), DOCTOR));
+        int frank = store.add(new Imaging(DAY, Timeslot.of(2), new Person(JOHN), FRANK, Radiology.XRAY));
+        int gary = store.add(new Imaging(DAY, Timeslot.of(2), new Person(JANE), GARY, Radiology.XRAY));
+        int upper = store.add(new Appointment(DAY, Timeslot.of(4), new Person(JANE), DOCTOR));
+        int lower = store.add(new Appointment(DAY, Timeslot.of(5), new Person(new Profile("jane", "doe", new Date(5, 1, 1996))), DOCTOR));
+        assertEquals(store.getPatientId(upper), store.getPatientId(lower)); // One patient, two spellings
+        assertNotEquals(store.getPatientId(frank), store.getPatientId(gary));
+
+        assertRows(store.sortedRows(AppointmentStore.BY_DATE_TIME_PROVIDER), gary, frank, upper, lower, late);
+        assertRows(store.sortedRows(AppointmentStore.BY_PATIENT_DATE_TIME), gary, upper, frank, late, lower);
+        assertRows(store.sortedRows(AppointmentStore.BY_COUNTY_DATE_TIME), gary, frank, upper, lower, late);
+    }
+
+    @Test
+    public void testOrdersMatchComparators() {
+        AppointmentStore store = new AppointmentStore(directory());
+        Provider[] providers = { GARY, DOCTOR, FRANK };
+        Profile[] patients = { JOHN, JANE, new Profile("jane", "doe", new Date(5, 1, 1996)) };
+        for (int i = 0; i < 60; i++) {
+            Date day = DAY.plusDays((i * 7) % 5);
+            Timeslot slot = Timeslot.of((i * 5) % 12 + 1);
+            Person patient = new Person(patients[i % 3]);
+            Provider provider = providers[(i * 11) % 3];
+            store.add(provider instanceof Technician
+                    ? new Imaging(day, slot, patient, provider, Radiology.XRAY)
+                    : new Appointment(day, slot, patient, provider));
+        }
+        assertOrdered(store, AppointmentStore.BY_DATE_TIME_PROVIDER, Sort.DATE_TIME_PROVIDER_NAME);
+        assertOrdered(store, AppointmentStore.BY_PATIENT_DATE_TIME, Sort.PATIENT_DATE_TIME);
+        assertOrdered(store, AppointmentStore.BY_COUNTY_DATE_TIME, Sort.COUNTY_DATE_TIME);
+    }
+
+    @Test
+    public void testBulkLoadSortsLikeSingleAdds() {
+        AppointmentStore loaded = new AppointmentStore(directory());
+        AppointmentStore single = new AppointmentStore(directory());
+        Provider[] providers = { GARY, DOCTOR, FRANK };
+        loaded.beginLoad();
+        for (int i = 0; i < Sort.PARALLEL_THRESHOLD + 500; i++) { // Enough rows to sort in parallel
+            Date day = DAY.plusDays(i % 90);
+            Timeslot slot = Timeslot.of(i % 12 + 1);
+            Person patient = new Person(new Profile("P" + (i * 31) % 977, "DOE", new Date(1, 2, 1990)));
+            Provider provider = providers[i % 3];
+            Appointment appointment = provider instanceof Technician
+                    ? new Imaging(day, slot, patient, provider, Radiology.XRAY)
+                    : new Appointment(day, slot, patient, provider);
+            loaded.add(appointment);
+            single.add(appointment);
+            if (i % 5 == 4) {
+                loaded.remove(loaded.findByPatient(day, slot, patient.getProfile()));
+                single.remove(single.findByPatient(day, slot, patient.getProfile()));
+            }
+        }
+        loaded.endLoad();
+        for (int order : new int[] { AppointmentStore.BY_DATE_TIME_PROVIDER, AppointmentStore.BY_PATIENT_DATE_TIME, AppointmentStore.BY_COUNTY_DATE_TIME }) {
+            assertRows(loaded.sortedRows(order), single.sortedRows(order));
+        }
+    }
+
+    @Test
+    public void testOrdersFollowRemovalsAndCompaction() {
+        AppointmentStore store = new AppointmentStore(directory());
+        for (int day = 39; day >= 0; day--) {
+            store.add(new Appointment(DAY.plusDays(day), Timeslot.of(1), new Person(day % 2 == 0 ? JOHN : JANE), DOCTOR));
+        }
+        for (int day = 0; day < 30; day++) {
+            store.remove(store.findByPatient(DAY.plusDays(day), Timeslot.of(1), day % 2 == 0 ? JOHN : JANE));
+        }
+        assertTrue(store.getRowCount() < 40); // Compacted
+        int[] byDate = store.sortedRows(AppointmentStore.BY_DATE_TIME_PROVIDER);
+        assertEquals(10, byDate.length);
+        for (int i = 0; i < byDate.length; i++) {
+            assertEquals(DAY.plusDays(30 + i).toEpochDay(), store.getEpochDay(byDate[i]));
+        }
+        int[] byPatient = store.sortedRows(AppointmentStore.BY_PATIENT_DATE_TIME);
+        assertEquals(JANE, store.getSpelling(store.getSpellingId(byPatient[0])));
+        assertEquals(JOHN, store.getSpelling(store.getSpellingId(byPatient[9])));
+    }
+
+    @Test
+    public void testBillingUsesFirstSpelling() {
+        AppointmentStore store = new AppointmentStore(directory());
+        store.add(new Appointment(DAY, Timeslot.of(1), new Person(new Profile("jane", "doe", new Date(5, 1, 1996))), DOCTOR));
+        store.add(new Imaging(DAY, Timeslot.of(2), new Person(JANE), GARY, Radiology.XRAY));
+        store.add(new Imaging(DAY, Timeslot.of(3), new Person(JOHN), FRANK, Radiology.XRAY));
+        BillingLedger ledger = store.getLedger();
+        Iterator<Patient> billed = ledger.iterator();
+        assertEquals(JOHN, ledger.getBilledProfile(billed.next())); // Ordered by the billed spelling, and "DOE" sorts before "doe"
+        Patient jane = billed.next();
+        assertEquals("jane", ledger.getBilledProfile(jane).getFirstName());
+        assertEquals(DOCTOR.rate() + GARY.rate(), jane.charge());
+        assertFalse(billed.hasNext());
+
+        store.remove(store.findByPatient(DAY, Timeslot.of(3), JOHN));
+        assertEquals(1, ledger.size());
+    }
+
+    @Test
+    public void testCopyIsUnaffectedByChanges() {
+        AppointmentStore store = new AppointmentStore(directory());
+        int row = store.add(new Appointment(DAY, Timeslot.of(1), new Person(JOHN), DOCTOR));
+        AppointmentStore copy = store.copy();
+        store.remove(row);
+        store.add(new Appointment(DAY, Timeslot.of(2), new Person(JANE), DOCTOR));
+        assertEquals(1, copy.size());
+        assertEquals(1, copy.getRowCount());
+        assertTrue(copy.isLive(0));
+        assertEquals(JOHN, copy.getSpelling(copy.getSpellingId(0)));
+        assertEquals(1, copy.getTimeslot(0));
+        assertSame(DOCTOR, copy.getProvider(0));
+    }
+
+    private static void assertOrdered(AppointmentStore store, int order, Comparator<Appointment> comparator) {
+        int[] rows = store.sortedRows(order);
+        assertEquals(store.size(), rows.length);
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(comparator.compare(store.get(rows[i - 1]), store.get(rows[i])) <= 0);
+        }
+    }
+
+    private static void assertRows(int[] actual, int... expected) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+
+    private static ProviderDirectory directory() {
+        HashList<Provider> roster = new HashList<Provider>();
+        roster.add(GARY);
+        roster.add(DOCTOR);
+        roster.add(FRANK);
+        return new ProviderDirectory(roster);
+    }
+}
@@ -0,0 +1,54 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import clinic.BillingLedger;
+import clinic.Patient;
+import clinic.PatientRegistry;
+import clinic.Profile;
+import org.junit.Test;
+import util.Date;
+
+public class BillingLedgerTest {
+
+    private static final Date DOB = new Date(12, 13, 1989);
+
+    @Test
+    public void testRunningTotals() {
+        PatientRegistry registry = new PatientRegistry();
+        BillingLedger ledger = new BillingLedger(registry);
+        int john = registry.spellingOf(new Profile("John", "Doe", DOB));
+        int upper = registry.spellingOf(new Profile("JOHN", "doe", DOB)); // The same patient, spelled with different case
+        ledger.add(registry.patientOf(john), john, 250);
+        ledger.add(registry.patientOf(upper), upper, 350);
+
+        assertEquals(1, ledger.size());
+        Patient patient = ledger.iterator().next();
+        assertEquals(600, patient.charge());
+        assertEquals("John Doe 12/13/1989 [amount due: $600.00]", patient.toString());
+
+        ledger.remove(registry.patientOf(john), 250);
+        assertEquals(350, patient.charge());
+        assertEquals("John", ledger.getBilledProfile(patient).getFirstName()); // Still billed under the first spelling
+
+        ledger.remove(registry.patientOf(upper), 350);
+        assertTrue(ledger.isEmpty());
+        assertEquals(0, patient.charge());
+    }
+
+    @Test
+    public void testPatientsInBillingOrder() {
+        PatientRegistry registry = new PatientRegistry();
+        BillingLedger ledger = new BillingLedger(registry);
+        for (String[] name : new String[][] { { "Roy", "Zhang" }, { "Ann", "Adams" }, { "Bob", "Mills" } }) {
+            int spelling = registry.spellingOf(new Profile(name[0], name[1], new Date(1, 1, 1990)));
+            ledger.add(registry.patientOf(spelling), spelling, 100);
+        }
+        String previous = "";
+        for (Patient patient : ledger) {
+            assertTrue(previous.compareTo(ledger.getBilledProfile(patient).getLastName()) < 0);
+            previous = ledger.getBilledProfile(patient).getLastName();
+        }
+        assertEquals("Zhang", previous);
+    }
+}
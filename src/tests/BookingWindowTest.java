@@ -0,0 +1,41 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import clinic.BookingWindow;
+import org.junit.Test;
+import util.Date;
+
+public class BookingWindowTest {
+
+    @Test
+    public void testClassifyAgainstFixedClock() {
+        BookingWindow window = new BookingWindow(BookingWindow.fixedClock(new Date(8, 31, 2026)));
+        assertEquals(new Date(8, 31, 2026), window.getToday());
+        assertEquals(new Date(2, 28, 2027), window.getHorizon()); // August 31st clamps to the end of February
+        assertEquals(BookingWindow.BEFORE_TODAY, window.classify(new Date(8, 30, 2026)));
+        assertEquals(BookingWindow.TODAY, window.classify(new Date(8, 31, 2026)));
+        assertEquals(BookingWindow.IN_WINDOW, window.classify(new Date(2, 28, 2027)));
+        assertEquals(BookingWindow.AFTER_HORIZON, window.classify(new Date(3, 1, 2027)));
+    }
+
+    @Test
+    public void testBusinessDaysMatchDayOfWeek() {
+        BookingWindow window = new BookingWindow(BookingWindow.fixedClock(new Date(10, 16, 2026)));
+        // Inside the window the cached bitmap is used, outside it the date is checked directly
+        for (Date date = new Date(9, 1, 2026); date.compareTo(new Date(6, 1, 2027)) < 0; date = date.plusDays(1)) {
+            assertEquals(!date.isWeekend(), window.isBusinessDay(date));
+        }
+        assertFalse(window.isBusinessDay(new Date(10, 17, 2026)));
+        assertTrue(window.isBusinessDay(new Date(10, 19, 2026)));
+    }
+
+    @Test
+    public void testInternSharesDatesInsideWindow() {
+        BookingWindow window = new BookingWindow(BookingWindow.fixedClock(new Date(10, 16, 2026)));
+        Date first = window.intern(new Date(11, 2, 2026));
+        assertSame(first, window.intern(new Date(11, 2, 2026)));
+        Date outside = new Date(11, 2, 2027);
+        assertSame(outside, window.intern(outside));
+    }
+}
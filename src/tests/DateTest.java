@@ -29,4 +29,27 @@ public class DateTest {
         assertFalse(date3.isValid());
         assertFalse(date4.isValid());
     }
+
+    @Test
+    public void testEpochDay() {
+        assertEquals(0, new Date("1/1/1970").toEpochDay());
+        assertEquals(-1, new Date("12/31/1969").toEpochDay());
+        assertEquals(new Date("02/29/2020"), Date.ofEpochDay(new Date("02/29/2020").toEpochDay()));
+        assertTrue(new Date("3/1/2020").compareTo(new Date("02/29/2020")) > 0);
+    }
+
+    @Test
+    public void testDayOfWeek() {
+        assertEquals(Date.THURSDAY, new Date("1/1/1970").getDayOfWeek());
+        assertEquals(Date.SUNDAY, new Date("10/18/2026").getDayOfWeek());
+        assertTrue(new Date("10/17/2026").isWeekend());
+        assertFalse(new Date("10/19/2026").isWeekend());
+    }
+
+    @Test
+    public void testDateArithmetic() {
+        assertEquals(new Date("3/1/2024"), new Date("2/28/2024").plusDays(2));
+        assertEquals(new Date("2/29/2024"), new Date("8/31/2023").plusMonths(6)); // Clamped to the end of February
+        assertEquals(new Date("1/15/2027"), new Date("12/15/2026").plusMonths(1));
+    }
 }
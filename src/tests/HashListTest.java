@@ -0,0 +1,93 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import util.HashList;
+import util.List;
+
+public class HashListTest {
+
+    @Test
+    public void testAddRejectsDuplicates() {
+        List<String> list = new HashList<>();
+
+        list.add("alpha");
+        list.add("beta");
+        list.add(new String("alpha")); // Equal but not the same instance
+
+        assertEquals(2, list.size());
+        assertEquals(0, list.indexOf("alpha"));
+        assertEquals(1, list.indexOf("beta"));
+    }
+
+    @Test
+    public void testRemoveKeepsIndex() {
+        List<Integer> list = new HashList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+
+        list.remove(10);
+        list.remove(50);
+        list.remove(1000); // Not in the list
+
+        assertEquals(98, list.size());
+        assertEquals(99, (int) list.get(10)); // The last element moved into the gap
+        assertEquals(98, (int) list.get(50));
+        assertFalse(list.contains(10));
+        assertFalse(list.contains(50));
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(i, list.indexOf(list.get(i)));
+        }
+    }
+
+    @Test
+    public void testSetSwapKeepsBothIndexed() {
+        List<String> list = new HashList<>();
+        list.add("a");
+        list.add("b");
+        list.add("c");
+
+        String temp = list.get(0);
+        list.set(0, list.get(2));
+        list.set(2, temp);
+
+        assertEquals(0, list.indexOf("c"));
+        assertEquals(1, list.indexOf("b"));
+        assertEquals(2, list.indexOf("a"));
+    }
+
+    @Test
+    public void testAddAllDistinctIndexesCopiedObjects() {
+        List<String> source = new List<>();
+        source.add("b");
+        source.add("c");
+
+        List<String> copy = new HashList<>();
+        copy.add("a");
+        copy.addAllDistinct(source);
+        assertEquals(3, copy.size());
+        assertEquals(1, copy.indexOf("b"));
+        assertEquals(2, copy.indexOf("c"));
+        copy.add("c"); // Still rejected as a duplicate
+        assertEquals(3, copy.size());
+    }
+
+    @Test
+    public void testAddAllSkipsDuplicatesLeftBySet() {
+        List<String> source = new HashList<>();
+        source.add("a");
+        source.add("b");
+        source.add("c");
+        source.set(2, "a");
+
+        List<String> copy = new HashList<>();
+        copy.addAll(source);
+        assertEquals(2, copy.size());
+        assertEquals(1, copy.indexOf("b"));
+        copy.remove("a");
+        assertEquals(0, copy.indexOf("b"));
+        assertFalse(copy.contains("a"));
+    }
+}
@@ -0,0 +1,172 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.Test;
+import clinic.Appointment;
+import clinic.Doctor;
+import clinic.Imaging;
+import clinic.Journal;
+import clinic.Location;
+import clinic.Person;
+import clinic.Profile;
+import clinic.Radiology;
+import clinic.Specialty;
+import clinic.Technician;
+import clinic.Timeslot;
+import util.Date;
+
+public class JournalTest {
+    private static final Date DAY = new Date(11, 20, 2026);
+    private static final Profile PATIENT = new Profile("JOHN", "DOE", new Date(1, 2, 1990));
+    private static final Doctor DOCTOR = new Doctor(new Profile("RACHAEL", "LIM", new Date(11, 30, 1975)), Location.BRIDGEWATER, "23", Specialty.PEDIATRICIAN);
+    private static final Technician TECHNICIAN = new Technician(new Profile("GARY", "JOHNSON", new Date(6, 2, 1987)), Location.PISCATAWAY, 150);
+
+    @Test
+    public void testEventsReplayInOrder() throws IOException {
+        Path file = Files.createTempFile("journal", ".bin");
+        Files.delete(file);
+        for (Journal.SyncPolicy policy : Journal.SyncPolicy.values()) {
+            try (Journal journal = new Journal(file, policy)) {
+                writeEvents(journal);
+            }
+            ArrayList<Journal.Event> events = replay(file);
+            assertEquals(4, events.size());
+            Journal.Event office = events.get(0);
+            assertEquals(Journal.BOOK, office.getType());
+            assertEquals(DAY, office.getDate());
+            assertEquals(Timeslot.of(3), office.getTimeslot());
+            assertEquals(PATIENT, office.getPatient());
+            assertEquals(DOCTOR.getProfile(), office.getProvider());
+            assertEquals("23", office.getNpi());
+            assertNull(office.getRoom());
+            Journal.Event imaging = events.get(1);
+            assertNull(imaging.getNpi());
+            assertEquals(TECHNICIAN.getProfile(), imaging.getProvider());
+            assertEquals(Radiology.CATSCAN, imaging.getRoom());
+            assertEquals(Journal.RESCHEDULE, events.get(2).getType());
+            assertEquals(Timeslot.of(9), events.get(2).getNewTimeslot());
+            assertEquals(Journal.CANCEL, events.get(3).getType());
+            assertEquals(Timeslot.of(5), events.get(3).getTimeslot());
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTornTailIsCutOff() throws IOException {
+        Path file = Files.createTempFile("journal", ".bin");
+        Files.delete(file);
+        try (Journal journal = new Journal(file, Journal.SyncPolicy.COMMAND)) {
+            writeEvents(journal);
+        }
+        long whole = Files.size(file);
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] torn = new byte[bytes.length - 3];
+        System.arraycopy(bytes, 0, torn, 0, torn.length);
+        Files.write(file, torn);
+        assertEquals(3, replay(file).size());
+        assertTrue(Files.size(file) < whole - 3); // The partial record is gone
+
+        try (Journal journal = new Journal(file, Journal.SyncPolicy.COMMAND)) {
+            assertEquals(3, journal.replay(event -> { }));
+            journal.cancel(DAY, Timeslot.of(1), PATIENT);
+            journal.commandDone();
+        }
+        ArrayList<Journal.Event> events = replay(file);
+        assertEquals(4, events.size());
+        assertEquals(Timeslot.of(1), events.get(3).getTimeslot());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testDamagedRecordEndsTheJournal() throws IOException {
+        Path file = Files.createTempFile("journal", ".bin");
+        Files.delete(file);
+        try (Journal journal = new Journal(file, Journal.SyncPolicy.GROUP, 2, 1000)) {
+            writeEvents(journal);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        int events = replay(file).size();
+        assertTrue(events < 4);
+        assertEquals(events, replay(file).size());
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        try {
+            new Journal(file, Journal.SyncPolicy.COMMAND);
+            fail(); // Expected an IOException
+        } catch (IOException e) {
+            // expected
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testTruncateKeepsPositions() throws IOException {
+        Path file = Files.createTempFile("journal", ".bin");
+        Files.delete(file);
+        long mark;
+        try (Journal journal = new Journal(file, Journal.SyncPolicy.COMMAND)) {
+            assertEquals(0, journal.position());
+            writeEvents(journal);
+            assertEquals(4, journal.getRecordCount());
+            mark = journal.position();
+            journal.cancel(DAY, Timeslot.of(7), PATIENT);
+            journal.truncateBefore(mark);
+            assertEquals(mark, journal.getFirstPosition());
+            journal.cancel(DAY, Timeslot.of(8), PATIENT);
+            journal.commandDone();
+        }
+        try (Journal journal = new Journal(file, Journal.SyncPolicy.COMMAND)) {
+            assertEquals(mark, journal.getFirstPosition());
+            ArrayList<Journal.Event> events = new ArrayList<>();
+            assertEquals(2, journal.replay(events::add));
+            assertEquals(Timeslot.of(7), events.get(0).getTimeslot());
+            assertEquals(Timeslot.of(8), events.get(1).getTimeslot());
+            events.clear();
+            long second = journal.position() - (journal.position() - mark) / 2;
+            assertEquals(1, journal.replay(events::add, second));
+            assertEquals(Timeslot.of(8), events.get(0).getTimeslot());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testGroupIsForcedWithinAPeriodWithoutAnotherCommand() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("journal", ".bin");
+        Files.delete(file);
+        try (Journal journal = new Journal(file, Journal.SyncPolicy.GROUP, 1000, 200)) {
+            journal.cancel(DAY, Timeslot.of(1), PATIENT);
+            journal.commandDone();
+            assertEquals(1, journal.getUnsyncedCount()); // Waiting for more of its group
+            for (int i = 0; i < 300 && journal.getUnsyncedCount() > 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, journal.getUnsyncedCount());
+        }
+        Files.delete(file);
+    }
+
+    private static void writeEvents(Journal journal) {
+        journal.book(new Appointment(DAY, Timeslot.of(3), new Person(PATIENT), DOCTOR));
+        journal.commandDone();
+        journal.book(new Imaging(DAY, Timeslot.of(5), new Person(PATIENT), TECHNICIAN, Radiology.CATSCAN));
+        journal.commandDone();
+        journal.reschedule(DAY, Timeslot.of(3), PATIENT, Timeslot.of(9));
+        journal.cancel(DAY, Timeslot.of(5), PATIENT);
+        journal.commandDone();
+    }
+
+    private static ArrayList<Journal.Event> replay(Path file) throws IOException {
+        ArrayList<Journal.Event> events = new ArrayList<>();
+        try (Journal journal = new Journal(file, Journal.SyncPolicy.COMMAND)) {
+            journal.replay(events::add);
+        }
+        return events;
+    }
+}
@@ -48,4 +48,49 @@ public class ListTest {
         providerList.remove(technician);
         assertFalse(providerList.contains(technician));
     }
+
+    @Test
+    public void testAddAll() {
+        List<Integer> source = new List<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            source.add(i);
+        }
+
+        List<Integer> copy = new List<>();
+        copy.addAll(source);
+        assertEquals(1000, copy.size());
+        assertEquals(999, (int) copy.get(999));
+
+        // Objects that are already present are skipped
+        copy.addAll(source);
+        assertEquals(1000, copy.size());
+    }
+
+    @Test
+    public void testAddAllDistinctAppendsInBulk() {
+        List<Integer> source = new List<>();
+        for (int i = 0; i < 100; i++) {
+            source.add(i);
+        }
+
+        List<Integer> copy = new List<>();
+        copy.add(-1);
+        copy.addAllDistinct(source);
+        assertEquals(101, copy.size());
+        assertEquals(-1, (int) copy.get(0));
+        assertEquals(99, (int) copy.get(100));
+    }
+
+    @Test
+    public void testAddAllSkipsDuplicatesLeftBySet() {
+        List<String> source = new List<>();
+        source.add("a");
+        source.add("b");
+        source.set(1, "a"); // set does not check for duplicates
+
+        List<String> copy = new List<>();
+        copy.addAll(source);
+        assertEquals(1, copy.size());
+        assertEquals("a", copy.get(0));
+    }
 }
@@ -0,0 +1,123 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.Test;
+import util.MappedLineReader;
+import util.Tokenizer;
+
+public class MappedLineReaderTest {
+
+    @Test
+    public void testLinesMatchAcrossWindows() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append("D,11/2/2026,").append(i % 12 + 1).append(",Patient").append(i).append(",Doe\n");
+        }
+        Path file = write(content.toString());
+        for (int window : new int[] {64, 100, 4096, MappedLineReader.DEFAULT_WINDOW}) {
+            MappedLineReader reader = new MappedLineReader(file, window);
+            ArrayList<String> lines = readAll(reader);
+            assertEquals(200, lines.size());
+            for (int i = 0; i < 200; i++) {
+                assertEquals("D,11/2/2026," + (i % 12 + 1) + ",Patient" + i + ",Doe", lines.get(i));
+            }
+            assertEquals(content.length(), reader.getBytesRead());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testCarriageReturnsAndLastLineWithoutTerminator() throws IOException {
+        Path file = write("PA\r\n\r\nC,1,2\nQ");
+        ArrayList<String> lines = readAll(new MappedLineReader(file, 6));
+        assertEquals(4, lines.size());
+        assertEquals("PA", lines.get(0));
+        assertEquals("", lines.get(1));
+        assertEquals("C,1,2", lines.get(2));
+        assertEquals("Q", lines.get(3));
+        Files.delete(file);
+    }
+
+    @Test
+    public void testFieldsSplitInPlace() throws IOException {
+        Path file = write("T,11/2/2026,12,John,Doe,12/13/1989,xray\n");
+        Tokenizer tokens = new Tokenizer(",");
+        new MappedLineReader(file).read((text, from, to) -> {
+            assertEquals(7, tokens.split(text, from, to));
+            assertEquals(12, tokens.parseInt(2));
+            assertTrue(tokens.fieldEqualsIgnoreCase(6, "XRAY"));
+            assertEquals("John", tokens.field(3));
+            return true;
+        });
+        Files.delete(file);
+    }
+
+    @Test
+    public void testHandlerStopsReading() throws IOException {
+        Path file = write("PA\nQ\nPA\nPA\n");
+        int[] handled = new int[1];
+        long lines = new MappedLineReader(file).read((text, from, to) -> {
+            handled[0]++;
+            return to - from != 1; // Stop at the Q
+        });
+        assertEquals(2, lines);
+        assertEquals(2, handled[0]);
+        Files.delete(file);
+    }
+
+    @Test
+    public void testLineLongerThanWindowIsRejected() throws IOException {
+        Path file = write("PA\nthis line is too long\nPA\n");
+        try {
+            readAll(new MappedLineReader(file, 8));
+            fail(); // Expected an IOException
+        } catch (IOException e) {
+            // expected
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path file = write("");
+        assertEquals(0, readAll(new MappedLineReader(file)).size());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testNamesOutsideOfAsciiDecodeAsUtf8() throws IOException {
+        Path file = Files.createTempFile("commands", ".txt");
+        Files.write(file, "D,10/20/2026,1,Jos\u00e9,N\u00fa\u00f1ez,12/13/1989,120\n".getBytes(StandardCharsets.UTF_8));
+        Tokenizer tokens = new Tokenizer(",");
+        new MappedLineReader(file).read((text, from, to) -> {
+            assertEquals(7, tokens.split(text, from, to));
+            assertEquals("Jos\u00e9", tokens.field(3));
+            assertEquals("N\u00fa\u00f1ez", tokens.field(4));
+            assertEquals(120, tokens.parseInt(6));
+            return true;
+        });
+        Files.delete(file);
+    }
+
+    private static ArrayList<String> readAll(MappedLineReader reader) throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        reader.read((text, from, to) -> {
+            lines.add(text.subSequence(from, to).toString());
+            return true;
+        });
+        return lines;
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("commands", ".txt");
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
@@ -0,0 +1,97 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import clinic.Appointment;
+import clinic.Doctor;
+import clinic.Imaging;
+import clinic.Location;
+import clinic.Person;
+import clinic.Profile;
+import clinic.Radiology;
+import clinic.Specialty;
+import clinic.Technician;
+import clinic.Timeslot;
+import util.Date;
+import util.OutputBuffer;
+
+public class OutputBufferTest {
+    private static final Doctor DOCTOR = new Doctor(new Profile("Andrew", "Patel", new Date(1, 21, 1989)), Location.BRIDGEWATER, "01", Specialty.FAMILY);
+    private static final Technician TECHNICIAN = new Technician(new Profile("Jenny", "Patel", new Date(9, 5, 1990)), Location.EDISON, 125);
+
+    @Test
+    public void testOutputIsHeldUntilFlush() {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        OutputBuffer out = new OutputBuffer(Channels.newChannel(sink));
+        out.print("Schedule").print(' ').print(42).println();
+        assertEquals(0, sink.size());
+        out.flush();
+        assertEquals("Schedule 42" + System.lineSeparator(), sink.toString());
+        assertEquals(0, out.pending());
+    }
+
+    @Test
+    public void testFullBufferIsWrittenOut() {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        OutputBuffer out = new OutputBuffer(Channels.newChannel(sink), 8);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            out.print(i).print(',');
+            expected.append(i).append(',');
+        }
+        out.flush();
+        assertEquals(expected.toString(), sink.toString());
+    }
+
+    @Test
+    public void testNumbersMatchFormat() {
+        int[] values = {0, 7, -7, 999, 1000, -1234567, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int value : values) {
+            assertEquals(String.format("%,.2f", (double) value), render(value, true));
+            assertEquals(String.format("%.2f", (double) value), render(value, false));
+        }
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        OutputBuffer out = new OutputBuffer(Channels.newChannel(sink));
+        out.printPadded(5, 2).print(' ').printPadded(30, 2).print(' ').print(Integer.MIN_VALUE);
+        out.flush();
+        assertEquals("05 30 " + Integer.MIN_VALUE, sink.toString());
+    }
+
+    @Test
+    public void testTextIsEncodedAsUtf8() {
+        String text = "café € 😀";
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        OutputBuffer out = new OutputBuffer(Channels.newChannel(sink));
+        out.print(text).print((CharSequence) null);
+        out.flush();
+        assertEquals((text + "null").getBytes(StandardCharsets.UTF_8).length, sink.size());
+        assertEquals(text + "null", new String(sink.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAppointmentsFormatLikeToString() {
+        Person patient = new Person(new Profile("John", "Doe", new Date(12, 13, 1989)));
+        Appointment office = new Appointment(new Date(11, 2, 2026), Timeslot.of(7), patient, DOCTOR);
+        Imaging imaging = new Imaging(new Date(11, 2, 2026), Timeslot.of(1), patient, TECHNICIAN, Radiology.XRAY);
+        for (Appointment appointment : new Appointment[] {office, imaging}) {
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            OutputBuffer out = new OutputBuffer(Channels.newChannel(sink));
+            appointment.formatTo(out);
+            out.flush();
+            assertEquals(appointment.toString(), sink.toString());
+        }
+    }
+
+    private static String render(int dollars, boolean grouping) {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        OutputBuffer out = new OutputBuffer(Channels.newChannel(sink));
+        out.printAmount(dollars, grouping);
+        out.flush();
+        return sink.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import clinic.Patient;
+import clinic.PatientRegistry;
+import clinic.Person;
+import clinic.Profile;
+import util.Date;
+
+public class PatientRegistryTest {
+    private static final Date DOB = new Date(1, 2, 1990);
+
+    @Test
+    public void testSpellingsAreInterned() {
+        PatientRegistry registry = new PatientRegistry();
+        Person john = registry.intern("John", "Doe", DOB);
+        assertSame(john, registry.intern("John", "Doe", new Date(1, 2, 1990)));
+        assertSame(john, registry.intern(new Profile("John", "Doe", DOB)));
+        Person lower = registry.intern("john", "doe", DOB);
+        assertNotSame(john, lower); // Printed as booked
+        assertEquals("john", lower.getProfile().getFirstName());
+        assertEquals(2, registry.getSpellingCount());
+        assertEquals(1, registry.size());
+        assertNotSame(john, registry.intern("John", "Doe", new Date(1, 3, 1990)));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void testLookupDoesNotRegister() {
+        PatientRegistry registry = new PatientRegistry();
+        assertNull(registry.lookup("John", "Doe", DOB));
+        assertEquals(0, registry.getSpellingCount());
+        Person john = registry.intern("John", "Doe", DOB);
+        assertSame(john, registry.lookup("John", "Doe", new Date(1, 2, 1990)));
+        assertNull(registry.lookup("JOHN", "DOE", DOB)); // Another spelling
+        assertSame(john, registry.lookup(new Profile("John", "Doe", DOB)));
+        assertEquals(1, registry.getSpellingCount());
+    }
+
+    @Test
+    public void testPatientIds() {
+        PatientRegistry registry = new PatientRegistry();
+        assertEquals(PatientRegistry.NOT_FOUND, registry.find(new Profile("Jane", "Roe", DOB)));
+        int jane = registry.spellingOf(new Profile("Jane", "Roe", DOB));
+        int john = registry.spellingOf(new Profile("John", "Doe", DOB));
+        int upper = registry.spellingOf(new Profile("JANE", "ROE", DOB));
+        assertEquals(0, registry.patientOf(jane));
+        assertEquals(1, registry.patientOf(john));
+        assertEquals(0, registry.patientOf(upper));
+        assertEquals(0, registry.find(new Profile("jAnE", "rOe", DOB)));
+
+        Patient patient = registry.getPatient(0);
+        assertEquals(0, patient.getId());
+        assertEquals("Jane", patient.getProfile().getFirstName()); // The first spelling seen
+        assertEquals(Patient.NO_ID, new Patient(new Profile("Jane", "Roe", DOB)).getId());
+    }
+
+    @Test
+    public void testRegisteredPatientsCompareById() {
+        PatientRegistry registry = new PatientRegistry();
+        registry.spellingOf(new Profile("Jane", "Roe", DOB));
+        registry.spellingOf(new Profile("Jane", "Roe", new Date(1, 3, 1990)));
+        Patient jane = registry.getPatient(0);
+        assertEquals(jane, registry.getPatient(registry.find(new Profile("JANE", "ROE", DOB))));
+        assertNotEquals(jane, registry.getPatient(1));
+        assertEquals(jane, new Patient(new Profile("jane", "roe", DOB))); // Not registered, so compared by profile
+        assertEquals(jane.hashCode(), new Patient(new Profile("jane", "roe", DOB)).hashCode());
+    }
+
+    @Test
+    public void testIdsGrowPastInitialCapacity() {
+        PatientRegistry registry = new PatientRegistry();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, registry.spellingOf(new Profile("Pat" + i, "Doe", DOB)));
+        }
+        assertEquals(100, registry.size());
+        assertEquals("Pat7", registry.getSpelling(7).getProfile().getFirstName());
+        assertEquals(99, registry.getPatient(99).getId());
+    }
+}
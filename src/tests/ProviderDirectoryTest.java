@@ -0,0 +1,52 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import clinic.Doctor;
+import clinic.Location;
+import clinic.Person;
+import clinic.Profile;
+import clinic.Provider;
+import clinic.ProviderDirectory;
+import clinic.Specialty;
+import clinic.Technician;
+import org.junit.Test;
+import util.Date;
+import util.List;
+
+public class ProviderDirectoryTest {
+
+    private final Doctor doctor = new Doctor(new Profile("Andrew", "Patel", new Date(1, 21, 1989)), Location.BRIDGEWATER, "01", Specialty.FAMILY);
+    private final Technician technician = new Technician(new Profile("Jenny", "Patel", new Date(6, 5, 1997)), Location.BRIDGEWATER, 125);
+    private final Doctor other = new Doctor(new Profile("Tom", "Kaur", new Date(6, 1, 1979)), Location.PRINCETON, "02", Specialty.ALLERGIST);
+
+    /**
+     * Builds a directory of the three providers in the given order.
+     */
+    private ProviderDirectory directory() {
+        List<Provider> providers = new List<Provider>();
+        providers.add(doctor);
+        providers.add(technician);
+        providers.add(other);
+        return new ProviderDirectory(providers);
+    }
+
+    @Test
+    public void testLookups() {
+        ProviderDirectory directory = directory();
+        assertSame(other, directory.findDoctor("02"));
+        assertNull(directory.findDoctor("03"));
+        assertSame(technician, directory.findByProfile(new Profile("jenny", "PATEL", new Date(6, 5, 1997))));
+        assertArrayEquals(new Provider[] {doctor, technician}, directory.getProvidersAt(Location.BRIDGEWATER));
+        assertEquals(0, directory.getProvidersAt(Location.CLARK).length);
+    }
+
+    @Test
+    public void testIdsFollowListOrder() {
+        ProviderDirectory directory = directory();
+        assertEquals(3, directory.size());
+        assertEquals(1, directory.idOf(technician));
+        assertSame(other, directory.get(2));
+        assertEquals(ProviderDirectory.NOT_FOUND, directory.idOf(new Person(doctor.getProfile())));
+    }
+}
@@ -0,0 +1,113 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import clinic.Doctor;
+import clinic.Location;
+import clinic.Provider;
+import clinic.RosterLoader;
+import clinic.Technician;
+import util.List;
+
+public class RosterLoaderTest {
+    private static final String ROSTER =
+            "D  RACHAEL  LIM  11/30/1975  BRIDGEWATER  PEDIATRICIAN  23\n"
+            + "T  GARY  JOHNSON  06/02/1987  PISCATAWAY  150\r\n"
+            + "\n"
+            + "D  ANDREW  PATEL  01/21/1989  BRIDGEWATER  FAMILY  01\n"
+            + "X  NOT  A  PROVIDER\n"
+            + "D  MISSING  NPI  01/21/1989  CLARK  FAMILY\n"
+            + "T  FRANK  LIN  12/25/1989  EDISON  120\n"
+            + "D  ANDREW  PATEL  01/21/1989  CLARK  ALLERGIST  99\n"
+            + "T  MONICA  FOX  03/01/1991  PRINCETON  90";
+
+    @Test
+    public void testLoadParsesSortsAndCounts() throws IOException {
+        Path file = write(ROSTER);
+        RosterLoader loader = new RosterLoader(file);
+        loader.load();
+        List<Provider> providers = loader.getProviders();
+        assertEquals(5, providers.size());
+        String[] lastNames = {"FOX", "JOHNSON", "LIM", "LIN", "PATEL"};
+        for (int i = 0; i < lastNames.length; i++) {
+            assertEquals(lastNames[i], providers.get(i).getProfile().getLastName());
+        }
+        Doctor patel = (Doctor) providers.get(4);
+        assertEquals("01", patel.getNpi()); // The first of two equal providers is kept
+        assertEquals(Location.BRIDGEWATER, patel.getLocation());
+        assertEquals(150, ((Technician) providers.get(1)).rate());
+
+        String[] rotation = {"JOHNSON", "LIN", "FOX"}; // File order
+        int i = 0;
+        for (Technician technician : loader.getTechnicians()) {
+            assertEquals(rotation[i++], technician.getProfile().getLastName());
+        }
+        assertEquals(3, i);
+
+        assertEquals(9, loader.getLineCount());
+        assertEquals(1, loader.getInvalidCount());
+        assertEquals(2, loader.getSkippedCount());
+        assertEquals(1, loader.getDuplicateCount());
+        assertEquals(ROSTER.length(), loader.getBytesRead());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testSmallChunksGiveTheSameRoster() throws IOException {
+        StringBuilder roster = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            roster.append(i % 4 == 0 ? "T  TECH" + i + "  DOE  01/01/1980  EDISON  " + (100 + i) + "\n"
+                    : "D  DOC" + i + "  DOE  02/02/1975  CLARK  FAMILY  " + i + "\n");
+        }
+        Path file = write(roster.toString());
+        RosterLoader whole = new RosterLoader(file);
+        whole.load();
+        for (int chunkSize : new int[] {1, 37, 1024}) {
+            RosterLoader chunked = new RosterLoader(file, chunkSize);
+            chunked.load();
+            assertEquals(500, chunked.getLineCount());
+            assertEquals(whole.getProviders().size(), chunked.getProviders().size());
+            for (int i = 0; i < whole.getProviders().size(); i++) {
+                assertEquals(whole.getProviders().get(i), chunked.getProviders().get(i));
+            }
+            assertEquals(whole.getTechnicians().size(), chunked.getTechnicians().size());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testBadRateFailsTheLoad() throws IOException {
+        Path file = write("T  GARY  JOHNSON  06/02/1987  PISCATAWAY  lots\n");
+        try {
+            new RosterLoader(file).load();
+            fail(); // Expected a NumberFormatException
+        } catch (NumberFormatException e) {
+            // expected
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void testNamesOutsideOfAsciiDecodeAsUtf8() throws IOException {
+        Path file = Files.createTempFile("providers", ".txt");
+        Files.write(file, "D  JOS\u00c9  N\u00da\u00d1EZ  11/30/1975  BRIDGEWATER  PEDIATRICIAN  23\n".getBytes(StandardCharsets.UTF_8));
+        RosterLoader loader = new RosterLoader(file);
+        loader.load();
+        assertEquals(1, loader.getProviders().size());
+        assertEquals("JOS\u00c9", loader.getProviders().get(0).getProfile().getFirstName());
+        assertEquals("N\u00da\u00d1EZ", loader.getProviders().get(0).getProfile().getLastName());
+        Files.delete(file);
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("providers", ".txt");
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
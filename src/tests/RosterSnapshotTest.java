@@ -0,0 +1,95 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+import clinic.Doctor;
+import clinic.RosterLoader;
+import clinic.RosterSnapshot;
+import clinic.Technician;
+
+public class RosterSnapshotTest {
+    private static final String ROSTER =
+            "D  RACHAEL  LIM  11/30/1975  BRIDGEWATER  PEDIATRICIAN  23\n"
+            + "T  GARY  JOHNSON  06/02/1987  PISCATAWAY  150\n"
+            + "X  NOT  A  PROVIDER\n"
+            + "D  ANDREW  PATEL  01/21/1989  NOWHERE  FAMILY  01\n"
+            + "T  FRANK  LIN  12/25/1989  EDISON  120\n";
+
+    @Test
+    public void testSnapshotMatchesTextLoad() throws IOException {
+        Path roster = write(ROSTER);
+        RosterLoader text = new RosterLoader(roster);
+        text.loadWithSnapshot();
+        assertFalse(text.isFromSnapshot());
+        RosterLoader mapped = new RosterLoader(roster);
+        mapped.loadWithSnapshot();
+        assertTrue(mapped.isFromSnapshot());
+
+        assertEquals(text.getProviders().size(), mapped.getProviders().size());
+        for (int i = 0; i < text.getProviders().size(); i++) {
+            assertEquals(text.getProviders().get(i), mapped.getProviders().get(i));
+            if (text.getProviders().get(i).getLocation() != null) {
+                assertEquals(text.getProviders().get(i).toString(), mapped.getProviders().get(i).toString());
+            }
+        }
+        assertNull(((Doctor) mapped.getProviders().get(3)).getLocation()); // PATEL works at an unknown location
+        StringBuilder textRotation = new StringBuilder();
+        for (Technician technician : text.getTechnicians()) {
+            textRotation.append(technician).append(';');
+        }
+        StringBuilder mappedRotation = new StringBuilder();
+        for (Technician technician : mapped.getTechnicians()) {
+            mappedRotation.append(technician).append(';');
+        }
+        assertEquals(textRotation.toString(), mappedRotation.toString());
+        assertEquals(1, mapped.getInvalidCount());
+        assertEquals(5, mapped.getLineCount());
+        delete(roster);
+    }
+
+    @Test
+    public void testChangedRosterIsParsedAgain() throws IOException {
+        Path roster = write(ROSTER);
+        new RosterLoader(roster).loadWithSnapshot();
+        Files.write(roster, "T  MONICA  FOX  03/01/1991  PRINCETON  90\n".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+        assertNull(RosterSnapshot.read(RosterSnapshot.pathFor(roster), roster));
+        RosterLoader loader = new RosterLoader(roster);
+        loader.loadWithSnapshot();
+        assertFalse(loader.isFromSnapshot());
+        assertEquals(5, loader.getProviders().size());
+        delete(roster);
+    }
+
+    @Test
+    public void testDamagedSnapshotIsIgnored() throws IOException {
+        Path roster = write(ROSTER);
+        new RosterLoader(roster).loadWithSnapshot();
+        Path snapshot = RosterSnapshot.pathFor(roster);
+        assertNotNull(RosterSnapshot.read(snapshot, roster));
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+        assertNull(RosterSnapshot.read(snapshot, roster));
+        Files.write(snapshot, new byte[] {1, 2});
+        assertNull(RosterSnapshot.read(snapshot, roster));
+        delete(roster);
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("providers", ".txt");
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static void delete(Path roster) throws IOException {
+        Files.deleteIfExists(RosterSnapshot.pathFor(roster));
+        Files.delete(roster);
+    }
+}
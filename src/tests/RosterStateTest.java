@@ -0,0 +1,48 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import clinic.Doctor;
+import clinic.Location;
+import clinic.Profile;
+import clinic.Provider;
+import clinic.RosterState;
+import clinic.Specialty;
+import clinic.Technician;
+import util.Date;
+import util.HashList;
+import util.Rotation;
+
+public class RosterStateTest {
+    private static final Technician GARY = new Technician(new Profile("GARY", "JOHNSON", new Date(6, 2, 1987)), Location.PISCATAWAY, 150);
+    private static final Doctor DOCTOR = new Doctor(new Profile("RACHAEL", "LIM", new Date(11, 30, 1975)), Location.BRIDGEWATER, "23", Specialty.PEDIATRICIAN);
+
+    @Test
+    public void testStructuresShareOneDirectory() {
+        HashList<Provider> providers = new HashList<Provider>();
+        providers.add(GARY);
+        providers.add(DOCTOR);
+        Rotation<Technician> technicians = new Rotation<Technician>();
+        technicians.add(GARY);
+        RosterState state = new RosterState(providers, technicians);
+
+        assertSame(providers, state.getProviders());
+        assertSame(technicians, state.getTechnicians());
+        assertEquals(2, state.getDirectory().size());
+        assertSame(DOCTOR, state.getDirectory().findDoctor("23"));
+        assertTrue(state.getSchedule().isEmpty());
+        assertEquals(0, state.getRegistry().size());
+        assertEquals(0, state.getCredits().getCount(state.getDirectory().idOf(DOCTOR)));
+        assertNotNull(state.getAssigner());
+        assertNotNull(state.getOccupancy());
+    }
+
+    @Test
+    public void testEmptyRoster() {
+        RosterState state = new RosterState(new HashList<Provider>(), new Rotation<Technician>());
+        assertEquals(0, state.getDirectory().size());
+        assertTrue(state.getTechnicians().isEmpty());
+        assertTrue(state.getSchedule().isEmpty());
+    }
+}
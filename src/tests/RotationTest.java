@@ -0,0 +1,69 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import util.Rotation;
+
+public class RotationTest {
+
+    /**
+     * Joins the members of a rotation in turn order.
+     */
+    private static String order(Rotation<String> rotation) {
+        StringBuilder result = new StringBuilder();
+        for (String member : rotation) {
+            result.append(member);
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testAdvanceAndReverse() {
+        Rotation<String> rotation = new Rotation<>();
+        rotation.add("A");
+        rotation.add("B");
+        rotation.add("C");
+        rotation.add("A"); // Duplicates are ignored
+        assertEquals("ABC", order(rotation));
+
+        rotation.reverse();
+        assertEquals("CBA", order(rotation));
+
+        rotation.advance(2);
+        assertEquals("A", rotation.get(0));
+        assertEquals(1, rotation.turnsUntil("C"));
+        assertEquals("ACB", order(rotation));
+    }
+
+    @Test
+    public void testAddAndRemoveKeepNextMember() {
+        Rotation<String> rotation = new Rotation<>();
+        rotation.add("A");
+        rotation.add("B");
+        rotation.add("C");
+        rotation.advance(1);
+
+        rotation.add("D"); // Joins at the end of the turn order
+        assertEquals("BCAD", order(rotation));
+        rotation.remove("A");
+        assertEquals("BCD", order(rotation));
+        rotation.remove("B"); // The next member leaves, so the turn passes on
+        assertEquals("CD", order(rotation));
+        assertEquals(Rotation.NOT_FOUND, rotation.turnsUntil("B"));
+    }
+
+    @Test
+    public void testSnapshotIterationAllowsChanges() {
+        Rotation<String> rotation = new Rotation<>();
+        rotation.add("A");
+        rotation.add("B");
+        int seen = 0;
+        for (String member : rotation) {
+            rotation.remove(member);
+            seen++;
+        }
+        assertEquals(2, seen);
+        assertTrue(rotation.isEmpty());
+    }
+}
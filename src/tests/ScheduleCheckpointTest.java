@@ -0,0 +1,111 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import clinic.Appointment;
+import clinic.AppointmentStore;
+import clinic.Doctor;
+import clinic.Imaging;
+import clinic.Location;
+import clinic.Person;
+import clinic.Profile;
+import clinic.Provider;
+import clinic.ProviderDirectory;
+import clinic.Radiology;
+import clinic.ScheduleCheckpoint;
+import clinic.Specialty;
+import clinic.Technician;
+import clinic.Timeslot;
+import util.Date;
+import util.HashList;
+
+public class ScheduleCheckpointTest {
+    private static final Date DAY = new Date(11, 20, 2026);
+    private static final Profile JOHN = new Profile("JOHN", "DOE", new Date(1, 2, 1990));
+    private static final Profile JANE = new Profile("JANE", "DOE", new Date(5, 1, 1996));
+    private static final Doctor DOCTOR = new Doctor(new Profile("RACHAEL", "LIM", new Date(11, 30, 1975)), Location.BRIDGEWATER, "23", Specialty.PEDIATRICIAN);
+    private static final Technician GARY = new Technician(new Profile("GARY", "JOHNSON", new Date(6, 2, 1987)), Location.PISCATAWAY, 150);
+    private static final Technician FRANK = new Technician(new Profile("FRANK", "LIN", new Date(12, 25, 1989)), Location.EDISON, 120);
+
+    @Test
+    public void testColumnsRoundTrip() throws IOException {
+        ProviderDirectory directory = directory();
+        AppointmentStore schedule = new AppointmentStore(directory);
+        Appointment cancelled = new Appointment(DAY, Timeslot.of(1), new Person(JOHN), DOCTOR);
+        schedule.add(cancelled);
+        Appointment[] appointments = {
+                new Appointment(DAY, Timeslot.of(3), new Person(JOHN), DOCTOR),
+                new Imaging(DAY.plusDays(1), Timeslot.of(5), new Person(JANE), GARY, Radiology.CATSCAN),
+                new Appointment(DAY, Timeslot.of(4), new Person(JANE), DOCTOR),
+                new Appointment(DAY, Timeslot.of(6), new Person(new Profile("jane", "doe", new Date(5, 1, 1996))), DOCTOR),
+        };
+        for (Appointment appointment : appointments) {
+            schedule.add(appointment);
+        }
+        schedule.remove(schedule.findByPatient(DAY, Timeslot.of(1), JOHN)); // Removed rows are left out
+        Path file = Files.createTempFile("schedule", ScheduleCheckpoint.SUFFIX);
+        ScheduleCheckpoint.write(file, schedule, FRANK, 1234);
+        ScheduleCheckpoint checkpoint = ScheduleCheckpoint.read(file);
+        assertNotNull(checkpoint);
+        assertEquals(1234, checkpoint.getJournalPosition());
+        assertEquals(4, checkpoint.size());
+
+        Provider[] providers = checkpoint.resolveProviders(directory);
+        for (int i = 0; i < appointments.length; i++) {
+            Appointment appointment = appointments[i];
+            assertEquals(appointment.getDate(), checkpoint.getDate(i));
+            assertEquals(appointment.getTimeslot(), checkpoint.getTimeslot(i));
+            assertEquals(appointment.getPatient().getProfile(), checkpoint.getPatient(i));
+            assertSame(appointment.getProvider(), providers[checkpoint.getProvider(i)]);
+        }
+        assertSame(checkpoint.getPatient(1), checkpoint.getPatient(2)); // One dictionary entry per patient
+        assertEquals("jane", checkpoint.getPatient(3).getFirstName()); // Spelled as booked
+        assertNull(checkpoint.getRoom(0));
+        assertEquals(Radiology.CATSCAN, checkpoint.getRoom(1));
+        assertSame(FRANK, providers[checkpoint.getRotationHead()]);
+        Files.delete(file);
+    }
+
+    @Test
+    public void testEmptyScheduleAndMissingProvider() throws IOException {
+        Path file = Files.createTempFile("schedule", ScheduleCheckpoint.SUFFIX);
+        AppointmentStore schedule = new AppointmentStore(directory());
+        ScheduleCheckpoint.write(file, schedule, null, 0);
+        ScheduleCheckpoint empty = ScheduleCheckpoint.read(file);
+        assertEquals(0, empty.size());
+        assertEquals(-1, empty.getRotationHead());
+
+        schedule.add(new Appointment(DAY, Timeslot.of(3), new Person(JOHN), DOCTOR));
+        ScheduleCheckpoint.write(file, schedule, null, 0);
+        Provider[] providers = ScheduleCheckpoint.read(file).resolveProviders(new ProviderDirectory(new HashList<Provider>()));
+        assertNull(providers[0]); // The doctor left the roster
+        Files.delete(file);
+    }
+
+    @Test
+    public void testDamagedCheckpointIsIgnored() throws IOException {
+        Path file = Files.createTempFile("schedule", ScheduleCheckpoint.SUFFIX);
+        AppointmentStore schedule = new AppointmentStore(directory());
+        schedule.add(new Appointment(DAY, Timeslot.of(3), new Person(JOHN), DOCTOR));
+        ScheduleCheckpoint.write(file, schedule, GARY, 99);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertNull(ScheduleCheckpoint.read(file));
+        Files.delete(file);
+        assertNull(ScheduleCheckpoint.read(file));
+    }
+
+    private static ProviderDirectory directory() {
+        HashList<Provider> roster = new HashList<Provider>();
+        roster.add(GARY);
+        roster.add(DOCTOR);
+        roster.add(FRANK);
+        return new ProviderDirectory(roster);
+    }
+}
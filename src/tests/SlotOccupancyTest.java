@@ -0,0 +1,53 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import clinic.ProviderDirectory;
+import clinic.SlotOccupancy;
+import clinic.Timeslot;
+import org.junit.Test;
+import util.Date;
+
+public class SlotOccupancyTest {
+
+    @Test
+    public void testBookAndRelease() {
+        SlotOccupancy occupancy = new SlotOccupancy(3);
+        Date date = new Date(11, 2, 2026);
+        assertTrue(occupancy.covers(1, date, Timeslot.of(12)));
+        occupancy.book(1, date, Timeslot.of(12));
+        occupancy.book(1, date, Timeslot.of(1));
+
+        assertTrue(occupancy.isBooked(1, date, Timeslot.of(12)));
+        assertFalse(occupancy.isBooked(0, date, Timeslot.of(12)));
+        assertFalse(occupancy.isBooked(1, new Date(11, 3, 2026), Timeslot.of(12)));
+        assertEquals(0x801, occupancy.getDay(1, date));
+
+        occupancy.release(1, date, Timeslot.of(12));
+        assertFalse(occupancy.isBooked(1, date, Timeslot.of(12)));
+        assertTrue(occupancy.isBooked(1, date, Timeslot.of(1)));
+    }
+
+    @Test
+    public void testCoversOnlyWeekdaysAndBookableSlots() {
+        SlotOccupancy occupancy = new SlotOccupancy(1);
+        assertFalse(occupancy.covers(0, new Date(10, 17, 2026), Timeslot.of(1))); // Saturday
+        assertFalse(occupancy.covers(0, new Date(10, 19, 2026), Timeslot.of(13)));
+        assertFalse(occupancy.covers(1, new Date(10, 19, 2026), Timeslot.of(1)));
+        assertFalse(occupancy.covers(ProviderDirectory.NOT_FOUND, new Date(10, 19, 2026), Timeslot.of(1)));
+    }
+
+    @Test
+    public void testRingReuseClearsPassedDay() {
+        SlotOccupancy occupancy = new SlotOccupancy(2);
+        Date date = new Date(10, 19, 2026); // Monday
+        occupancy.book(0, date, Timeslot.of(5));
+        // A whole ring of business days later the same ring position is reused
+        Date later = date.plusDays(SlotOccupancy.RING_DAYS / 5 * 7 + (SlotOccupancy.RING_DAYS % 5));
+        assertFalse(later.isWeekend());
+        occupancy.book(1, later, Timeslot.of(6));
+        assertFalse(occupancy.isBooked(0, later, Timeslot.of(5)));
+        assertFalse(occupancy.isBooked(0, date, Timeslot.of(5))); // The old day was dropped from the ring
+        assertTrue(occupancy.isBooked(1, later, Timeslot.of(6)));
+    }
+}
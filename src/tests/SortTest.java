@@ -0,0 +1,59 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import util.List;
+import util.Sort;
+
+import java.util.Comparator;
+
+public class SortTest {
+
+    @Test
+    public void testSortOrdersLargeList() {
+        List<Integer> list = new List<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add((i * 7919) % 1000); // Every value in 0..999 exactly once, shuffled
+        }
+
+        Sort.sort(list, Comparator.naturalOrder());
+
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(i, (int) list.get(i));
+        }
+    }
+
+    @Test
+    public void testSortIsStable() {
+        List<String> list = new List<>();
+        for (int i = 0; i < 200; i++) {
+            list.add((char) ('a' + i % 3) + "-" + i);
+        }
+
+        // Compare by the leading letter only, so the numbers must stay in increasing order
+        Sort.sort(list, Comparator.comparing((String s) -> s.charAt(0)));
+
+        for (int i = 1; i < list.size(); i++) {
+            String previous = list.get(i - 1);
+            String current = list.get(i);
+            if (previous.charAt(0) == current.charAt(0)) {
+                assertTrue(Integer.parseInt(previous.substring(2)) < Integer.parseInt(current.substring(2)));
+            } else {
+                assertTrue(previous.charAt(0) < current.charAt(0));
+            }
+        }
+    }
+
+    @Test
+    public void testPackedKeysOrderLikeTheirFields() {
+        int early = -40000; // Epoch days before 1970 are negative
+        int late = 20000;
+        assertTrue(Sort.timeKey(early, 12) < Sort.timeKey(early + 1, 1));
+        assertTrue(Sort.timeKey(late, 1) < Sort.timeKey(late, 2));
+        assertTrue(Sort.timeRankKey(late, 1, Sort.MAX_RANK) < Sort.timeRankKey(late, 2, 0));
+        assertTrue(Sort.timeRankKey(late, 3, 1) < Sort.timeRankKey(late, 3, 2));
+        assertTrue(Sort.rankTimeKey(0, late, 12) < Sort.rankTimeKey(1, early, 1));
+        assertTrue(Sort.rankTimeKey(Sort.MAX_RANK, late, 12) > 0); // Never overflows into the sign bit
+    }
+}
@@ -0,0 +1,46 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import util.SortedList;
+
+import java.util.Comparator;
+
+public class SortedListTest {
+
+    @Test
+    public void testAddKeepsOrder() {
+        SortedList<Integer> list = new SortedList<>(Comparator.naturalOrder());
+        int[] values = {5, 3, 9, 1, 7, 3};
+        for (int value : values) {
+            list.add(value);
+        }
+
+        int previous = Integer.MIN_VALUE;
+        for (int value : list) {
+            assertTrue(previous <= value);
+            previous = value;
+        }
+        assertEquals(6, list.size());
+    }
+
+    @Test
+    public void testRemoveFindsObjectAmongEqualKeys() {
+        // Compare by length only, so "ab" and "cd" are tied and remove must pick the right one
+        SortedList<String> list = new SortedList<>(Comparator.comparingInt(String::length));
+        list.add("ab");
+        list.add("x");
+        list.add("cd");
+        list.add("efg");
+
+        list.remove("cd");
+
+        assertEquals(3, list.size());
+        assertTrue(list.contains("ab"));
+        assertFalse(list.contains("cd"));
+        assertEquals("x", list.get(0));
+        assertEquals("ab", list.get(1));
+        assertEquals("efg", list.get(2));
+    }
+}
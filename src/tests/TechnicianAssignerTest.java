@@ -0,0 +1,67 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import clinic.Imaging;
+import clinic.Location;
+import clinic.Person;
+import clinic.Profile;
+import clinic.ProviderDirectory;
+import clinic.Provider;
+import clinic.Radiology;
+import clinic.SlotOccupancy;
+import clinic.Technician;
+import clinic.TechnicianAssigner;
+import clinic.Timeslot;
+import org.junit.Test;
+import util.Date;
+import util.List;
+import util.Rotation;
+
+public class TechnicianAssignerTest {
+
+    private final Technician first = new Technician(new Profile("Jenny", "Patel", new Date(6, 5, 1997)), Location.BRIDGEWATER, 125);
+    private final Technician second = new Technician(new Profile("Charles", "Brown", new Date(12, 23, 1975)), Location.BRIDGEWATER, 100);
+    private final Person patient = new Person(new Profile("John", "Doe", new Date(12, 13, 1989)));
+    private final List<Provider> providers = new List<Provider>();
+    private final Rotation<Technician> rotation = new Rotation<Technician>();
+    private final SlotOccupancy occupancy = new SlotOccupancy(2);
+    private final TechnicianAssigner assigner;
+
+    public TechnicianAssignerTest() {
+        providers.add(first);
+        providers.add(second);
+        rotation.add(first);
+        rotation.add(second);
+        assigner = new TechnicianAssigner(rotation, new ProviderDirectory(providers), occupancy);
+    }
+
+    /**
+     * Books an imaging appointment the way ClinicManager does.
+     */
+    private void book(Date date, Timeslot slot, Technician technician, Radiology room) {
+        occupancy.book(providers.indexOf(technician), date, slot);
+        assigner.book(new Imaging(date, slot, patient, technician, room));
+    }
+
+    @Test
+    public void testRoundRobinSkipsBusyTechnician() {
+        Date date = new Date(11, 2, 2026);
+        Technician assigned = assigner.assign(date, Timeslot.of(1), Radiology.XRAY);
+        assertSame(first, assigned);
+        book(date, Timeslot.of(1), assigned, Radiology.XRAY);
+
+        // The rotation moved on, and the room at Bridgewater is taken at that time
+        assertNull(assigner.assign(date, Timeslot.of(1), Radiology.XRAY));
+        assertSame(second, assigner.assign(date, Timeslot.of(1), Radiology.CATSCAN));
+    }
+
+    @Test
+    public void testSameSlotOnAnotherDateIsFree() {
+        Date date = new Date(11, 2, 2026);
+        book(date, Timeslot.of(4), first, Radiology.ULTRASOUND);
+        book(date, Timeslot.of(4), second, Radiology.XRAY);
+        assertNull(assigner.assign(date, Timeslot.of(4), Radiology.CATSCAN));
+        assertNotNull(assigner.assign(new Date(11, 3, 2026), Timeslot.of(4), Radiology.CATSCAN));
+    }
+}
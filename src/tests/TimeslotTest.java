@@ -0,0 +1,24 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import clinic.Timeslot;
+import org.junit.Test;
+
+public class TimeslotTest {
+
+    @Test
+    public void testOfSharesBookableSlots() {
+        for (int i = Timeslot.FIRST_SLOT; i <= Timeslot.LAST_SLOT; i++) {
+            assertSame(Timeslot.of(i), Timeslot.of(i));
+            assertEquals(new Timeslot(i), Timeslot.of(i));
+            assertEquals(i, Timeslot.of(i).getTimeslotInt());
+        }
+    }
+
+    @Test
+    public void testOfInvalidValue() {
+        assertEquals(-1, Timeslot.of(0).getTimeslotInt());
+        assertEquals(new Timeslot(13), Timeslot.of(13));
+    }
+}
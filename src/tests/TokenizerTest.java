@@ -0,0 +1,49 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import util.Date;
+import util.Tokenizer;
+
+public class TokenizerTest {
+
+    @Test
+    public void testSplitDropsTrailingEmptyFields() {
+        Tokenizer tokens = new Tokenizer(",");
+        // Same fields as "D,,2,John,,".split(",")
+        assertEquals(4, tokens.split("D,,2,John,,"));
+        assertEquals("D", tokens.field(0));
+        assertEquals("", tokens.field(1));
+        assertEquals("John", tokens.field(3));
+        assertTrue(tokens.fieldEquals(2, "2"));
+        assertFalse(tokens.fieldEquals(4, "John"));
+    }
+
+    @Test
+    public void testParseIntFollowsIntegerParseInt() {
+        Tokenizer tokens = new Tokenizer(",");
+        tokens.split("12,-7,2147483647,2147483648,1a,");
+        assertEquals(12, tokens.parseInt(0));
+        assertEquals(-7, tokens.parseInt(1));
+        assertEquals(Integer.MAX_VALUE, tokens.parseInt(2));
+        for (int i = 3; i < 5; i++) {
+            try {
+                tokens.parseInt(i);
+                fail(); // Expected a NumberFormatException
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseDateInPlace() {
+        Tokenizer tokens = new Tokenizer(",");
+        tokens.split("T,10/31/2024,xray");
+        Date date = tokens.parseDate(1);
+        assertEquals(new Date(10, 31, 2024), date);
+        assertTrue(tokens.fieldEqualsIgnoreCase(2, "XRAY"));
+        assertEquals("T", tokens.match(0, new String[] {"D", "T"}));
+    }
+}
@@ -0,0 +1,120 @@
+package util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A CharSequence over the bytes of UTF-8 text in a buffer.
+ *
+ * Wrapping a buffer copies nothing, so a Tokenizer can split text that was read or mapped
+ * from a file straight out of the file's bytes. Characters are only copied when a
+ * subsequence is asked for.
+ *
+ * Offsets, length and charAt work on bytes: charAt gives each byte as a char. Every byte of a
+ * character outside of ASCII is at or above 0x80, so it never matches an ASCII delimiter,
+ * digit or whitespace character, and splitting on those finds the same fields as splitting
+ * the decoded text. subSequence decodes the bytes as UTF-8, so a field holding a name such
+ * as "Núñez" comes out as it was written.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class ByteText implements CharSequence {
+    private ByteBuffer bytes; // The bytes read as text, from index 0 up to the limit
+
+    /**
+     * Constructs a text with no bytes.
+     */
+    public ByteText() {
+        this(ByteBuffer.allocate(0));
+    }
+
+    /**
+     * Constructs a text over a buffer.
+     *
+     * @param bytes The buffer to read characters from.
+     */
+    public ByteText(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Points this text at a new buffer.
+     *
+     * @param bytes The buffer to read characters from.
+     */
+    public void wrap(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Gets a raw byte of the text.
+     *
+     * @param index The offset of the byte.
+     * @return the byte at the offset.
+     */
+    public byte byteAt(int index) {
+        return bytes.get(index);
+    }
+
+    /**
+     * Finds the next occurrence of a byte.
+     *
+     * @param b The byte to look for.
+     * @param from The offset to start searching at (inclusive).
+     * @param to The offset to stop searching at (exclusive).
+     * @return the offset of the byte, or -1 if it does not occur in the range.
+     */
+    public int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    /**
+     * Gets a byte of the text as a char; a byte of a character outside of ASCII comes out at or above 0x80.
+     *
+     * @param index The offset of the byte.
+     * @return the byte as a char.
+     */
+    @Override
+    public char charAt(int index) {
+        return (char) (bytes.get(index) & 0xFF);
+    }
+
+    /**
+     * Decodes a range of bytes as UTF-8. ASCII text, the common case, is copied without a decoder.
+     *
+     * @param start The offset of the first byte (inclusive).
+     * @param end The offset just past the last byte (exclusive).
+     * @return the decoded text, which is shorter than the range if it holds characters outside of ASCII.
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b < 0) { // Part of a character outside of ASCII
+                byte[] encoded = new byte[end - start];
+                for (int j = start; j < end; j++) {
+                    encoded[j - start] = bytes.get(j);
+                }
+                return new String(encoded, StandardCharsets.UTF_8);
+            }
+            chars[i - start] = (char) b;
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+}
@@ -4,6 +4,10 @@ package util;
  * Represents a date with year, month, and day, and includes methods for
  * validating the date, checking for leap years, and comparing dates.
  *
+ * A valid date also keeps its epoch day, the number of days since 1/1/1970, so that
+ * comparisons, the day of the week, and date arithmetic are single integer operations.
+ * A date that is not a valid calendar date only keeps its fields, so it can still be printed.
+ *
  * This class also provides constants for leap year and month length calculations.
  *
  * @author Joshua Goykhman (Netid: jg1986)
@@ -23,11 +27,32 @@ public class Date implements Comparable<Date> {
     public static final int DATE_MONTH_INDEX = 0;
     public static final int DATE_DAY_INDEX = 1;
     public static final int DATE_YEAR_INDEX = 2;
+    public static final char DATE_SEPARATOR = '/'; // Separates the month, day, and year in "MM/DD/YYYY"
+
+    // Days of the week as returned by getDayOfWeek, numbered Monday to Sunday
+    public static final int MONDAY = 1;
+    public static final int TUESDAY = 2;
+    public static final int WEDNESDAY = 3;
+    public static final int THURSDAY = 4;
+    public static final int FRIDAY = 5;
+    public static final int SATURDAY = 6;
+    public static final int SUNDAY = 7;
+
+    public static final int INVALID_EPOCH_DAY = Integer.MIN_VALUE; // Epoch day of a date that is not a valid calendar date
+
+    // Constants for converting between calendar fields and epoch days
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int EPOCH_DAY_OF_WEEK = THURSDAY; // 1/1/1970 was a Thursday
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int DAYS_PER_ERA = 146097; // Days in a 400 year cycle of the Gregorian calendar
+    private static final int YEARS_PER_ERA = 400;
+    private static final int DAYS_0000_TO_1970 = 719468; // Days from 3/1/0000 to 1/1/1970
 
     // Instance variables for year, month, and day
     private int year;
     private int month;
     private int day;
+    private int epochDay; // Days since 1/1/1970, or INVALID_EPOCH_DAY if the fields are not a valid date
 
     /**
      * Default constructor that initializes the date fields to invalid values (-1).
@@ -36,6 +61,7 @@ public class Date implements Comparable<Date> {
         this.year = -1;
         this.month = -1;
         this.day = -1;
+        this.epochDay = INVALID_EPOCH_DAY;
     }
 
     /**
@@ -53,6 +79,7 @@ public class Date implements Comparable<Date> {
         this.year = year;
         this.month = month;
         this.day = day;
+        this.epochDay = toEpochDay(month, day, year);
     }
 
     /**
@@ -62,19 +89,60 @@ public class Date implements Comparable<Date> {
      * @throws IllegalArgumentException if the string is not properly formatted or the date is invalid.
      */
     public Date(String dateString) {
+        this(parse(dateString, 0, dateString.length()));
+    }
+
+    /**
+     * Parses a region of text in the format "MM/DD/YYYY" without splitting it into substrings.
+     *
+     * The fields are read in place, with the same rules as splitting on "/" and parsing each part
+     * with Integer.parseInt. The result may not be a valid calendar date; check it with isValid.
+     *
+     * @param text The text holding the date.
+     * @param from The offset of the first character of the date (inclusive).
+     * @param to The offset just past the last character of the date (exclusive).
+     * @return the parsed date.
+     * @throws IllegalArgumentException if the region is not three numbers separated by "/".
+     */
+    public static Date parse(CharSequence text, int from, int to) {
+        while (to > from && text.charAt(to - 1) == DATE_SEPARATOR) { // Trailing empty parts are ignored, like String.split
+            to--;
+        }
+        int firstSeparator = indexOfSeparator(text, from, to);
+        int secondSeparator = firstSeparator < 0 ? -1 : indexOfSeparator(text, firstSeparator + 1, to);
+        if (secondSeparator < 0 || indexOfSeparator(text, secondSeparator + 1, to) >= 0) {
+            throw new IllegalArgumentException("Invalid date format. Expected MM/DD/YYYY.");
+        }
         try {
-            String[] dateParts = dateString.split("/");
-            if (dateParts.length != 3) {
-                throw new IllegalArgumentException("Invalid date format. Expected MM/DD/YYYY.");
-            }
-            this.month = Integer.parseInt(dateParts[DATE_MONTH_INDEX]);
-            this.day = Integer.parseInt(dateParts[DATE_DAY_INDEX]);
-            this.year = Integer.parseInt(dateParts[DATE_YEAR_INDEX]);
+            Date date = new Date();
+            date.month = Tokenizer.parseInt(text, from, firstSeparator);
+            date.day = Tokenizer.parseInt(text, firstSeparator + 1, secondSeparator);
+            date.year = Tokenizer.parseInt(text, secondSeparator + 1, to);
+            date.epochDay = isDayValid(date.month, date.day, date.year)
+                    ? toEpochDay(date.month, date.day, date.year) : INVALID_EPOCH_DAY;
+            return date;
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Invalid date format. Expected numeric values in MM/DD/YYYY.");
         }
     }
 
+    /**
+     * Finds the first date separator in a region of text.
+     *
+     * @param text The text to search.
+     * @param from The offset to start searching at (inclusive).
+     * @param to The offset to stop searching at (exclusive).
+     * @return the offset of the separator, or -1 if there is none.
+     */
+    private static int indexOfSeparator(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == DATE_SEPARATOR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Copy constructor that creates a new Date object by copying the values from
      * another Date object.
@@ -85,6 +153,40 @@ public class Date implements Comparable<Date> {
         this.year = date.year;
         this.month = date.month;
         this.day = date.day;
+        this.epochDay = date.epochDay;
+    }
+
+    /**
+     * Creates the date with the specified month, day, and year.
+     *
+     * @param month The month of the date.
+     * @param day The day of the date.
+     * @param year The year of the date.
+     * @return the date.
+     * @throws IllegalArgumentException if the date is invalid.
+     */
+    public static Date of(int month, int day, int year) {
+        return new Date(month, day, year);
+    }
+
+    /**
+     * Creates the date that is the given number of days after 1/1/1970.
+     *
+     * @param epochDay The number of days since 1/1/1970 (negative for earlier dates).
+     * @return the date.
+     */
+    public static Date ofEpochDay(int epochDay) {
+        // Inverse of toEpochDay, counting years from March so that February is the last month
+        int shifted = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        int dayOfEra = shifted - era * DAYS_PER_ERA;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / (DAYS_PER_ERA - 1)) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153; // 0 is March, 11 is February
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * YEARS_PER_ERA + (month <= 2 ? 1 : 0);
+        return new Date(month, day, year);
     }
 
     /**
@@ -93,7 +195,7 @@ public class Date implements Comparable<Date> {
      * @return true if the date is valid, false otherwise.
      */
     public boolean isValid() {
-        return isDayValid(month, day, year);
+        return epochDay != INVALID_EPOCH_DAY;
     }
 
     /**
@@ -123,6 +225,66 @@ public class Date implements Comparable<Date> {
         return year;
     }
 
+    /**
+     * Gets the number of days between 1/1/1970 and this date.
+     *
+     * @return the epoch day of the date.
+     * @throws IllegalStateException if the date is not a valid calendar date.
+     */
+    public int toEpochDay() {
+        if (epochDay == INVALID_EPOCH_DAY) {
+            throw new IllegalStateException("Invalid date.");
+        }
+        return epochDay;
+    }
+
+    /**
+     * Gets the day of the week of the date.
+     *
+     * @return the day of the week, from MONDAY (1) to SUNDAY (7).
+     * @throws IllegalStateException if the date is not a valid calendar date.
+     */
+    public int getDayOfWeek() {
+        return Math.floorMod(toEpochDay() + EPOCH_DAY_OF_WEEK - 1, DAYS_PER_WEEK) + 1;
+    }
+
+    /**
+     * Checks if the date falls on a Saturday or Sunday.
+     *
+     * @return true if the date is on a weekend, false otherwise.
+     * @throws IllegalStateException if the date is not a valid calendar date.
+     */
+    public boolean isWeekend() {
+        return getDayOfWeek() >= SATURDAY;
+    }
+
+    /**
+     * Returns the date the given number of days after this date.
+     *
+     * @param days The number of days to add (negative to go back).
+     * @return the resulting date.
+     * @throws IllegalStateException if the date is not a valid calendar date.
+     */
+    public Date plusDays(int days) {
+        return ofEpochDay(toEpochDay() + days);
+    }
+
+    /**
+     * Returns the date the given number of months after this date. If the resulting month is
+     * shorter than this date's day, the last day of that month is used.
+     *
+     * @param months The number of months to add (negative to go back).
+     * @return the resulting date.
+     * @throws IllegalStateException if the date is not a valid calendar date.
+     */
+    public Date plusMonths(int months) {
+        toEpochDay(); // Only valid dates can be moved
+        int monthIndex = year * MONTHS_PER_YEAR + (month - 1) + months;
+        int newYear = Math.floorDiv(monthIndex, MONTHS_PER_YEAR);
+        int newMonth = Math.floorMod(monthIndex, MONTHS_PER_YEAR) + 1;
+        return new Date(newMonth, Math.min(day, lastDayOfMonth(newMonth, newYear)), newYear);
+    }
+
     /**
      * Validates the day of the month for the given month and year.
      *
@@ -131,13 +293,42 @@ public class Date implements Comparable<Date> {
      * @param year The year to check.
      * @return true if the day is valid for the given month and year, false otherwise.
      */
-    private boolean isDayValid(int month, int day, int year) {
+    private static boolean isDayValid(int month, int day, int year) {
         if (year < 1 || month < 1 || month > 12) {
             return false;
         }
-        int lastDay = (month == 2) ? (isLeapYear(year) ? LAST_DAY_FEB_LEAP_YEAR : LAST_DAY_FEB_NOT_LEAP_YEAR)
-                                    : (isBigMonth(month) ? LAST_DAY_NORMAL_MONTH_BIG : LAST_DAY_NORMAL_MONTH_SMALL);
-        return day > 0 && day <= lastDay;
+        return day > 0 && day <= lastDayOfMonth(month, year);
+    }
+
+    /**
+     * Gets the last day of the given month.
+     *
+     * @param month The month (1 to 12).
+     * @param year The year of the month.
+     * @return the number of days in the month.
+     */
+    private static int lastDayOfMonth(int month, int year) {
+        return (month == 2) ? (isLeapYear(year) ? LAST_DAY_FEB_LEAP_YEAR : LAST_DAY_FEB_NOT_LEAP_YEAR)
+                            : (isBigMonth(month) ? LAST_DAY_NORMAL_MONTH_BIG : LAST_DAY_NORMAL_MONTH_SMALL);
+    }
+
+    /**
+     * Converts a valid calendar date to the number of days since 1/1/1970.
+     *
+     * @param month The month of the date.
+     * @param day The day of the date.
+     * @param year The year of the date.
+     * @return the epoch day of the date.
+     */
+    private static int toEpochDay(int month, int day, int year) {
+        // Count years from March so that the leap day is the last day of the year
+        int shiftedYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(shiftedYear, YEARS_PER_ERA);
+        int yearOfEra = shiftedYear - era * YEARS_PER_ERA;
+        int shiftedMonth = month > 2 ? month - 3 : month + 9; // 0 is March, 11 is February
+        int dayOfYear = (153 * shiftedMonth + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
     }
 
     /**
@@ -146,7 +337,7 @@ public class Date implements Comparable<Date> {
      * @param month The month to check.
      * @return true if the month has 31 days, false otherwise.
      */
-    private boolean isBigMonth(int month) {
+    private static boolean isBigMonth(int month) {
         for (int bigMonth : BIG_MONTHS) {
             if (month == bigMonth) {
                 return true;
@@ -161,7 +352,7 @@ public class Date implements Comparable<Date> {
      * @param year The year to check.
      * @return true if the year is a leap year, false otherwise.
      */
-    private boolean isLeapYear(int year) {
+    private static boolean isLeapYear(int year) {
         return (year % QUADRENNIAL == 0 && year % CENTENNIAL != 0) || (year % QUATERCENTENNIAL == 0);
     }
 
@@ -173,6 +364,9 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public int compareTo(Date targetDate) {
+        if (epochDay != INVALID_EPOCH_DAY && targetDate.epochDay != INVALID_EPOCH_DAY) {
+            return Integer.compare(epochDay, targetDate.epochDay);
+        }
         if (year != targetDate.year) {
             return Integer.compare(this.year, targetDate.year);
         }
@@ -192,6 +386,15 @@ public class Date implements Comparable<Date> {
         return month + "/" + day + "/" + year;
     }
 
+    /**
+     * Writes the date in the same format as toString, without building a String.
+     *
+     * @param out The buffer to write to.
+     */
+    public void formatTo(OutputBuffer out) {
+        out.print(month).print('/').print(day).print('/').print(year);
+    }
+
     /**
      * Checks if this date is equal to another date object based on their day,
      * month, and year.
@@ -0,0 +1,278 @@
+package util;
+
+/**
+ * A List that keeps a hash index of its elements alongside the backing array,
+ * so that add, contains, indexOf and the lookup half of remove take expected
+ * constant time instead of a linear scan.
+ *
+ * The list keeps the semantics of List, with one exception: duplicates (by equals) are
+ * rejected and elements stay in insertion order, but remove takes O(1) by moving the last
+ * element into the removed element's position instead of shifting every later element left,
+ * so removing an element reorders the list. A caller that needs its order kept across
+ * removals, like Rotation, must restore it itself. Elements must not be null and must
+ * provide a hashCode consistent with equals.
+ *
+ * The index is an open-addressing table with linear probing that maps each
+ * element to its current position in the list.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ *
+ * @param <E> the type of elements in this list
+ */
+public class HashList<E> extends List<E> {
+    public static final int INITIAL_TABLE_CAPACITY = 16; // Initial number of slots in the hash table (power of two)
+    private static final int EMPTY = -1; // Position stored in a slot that holds no element
+
+    private Object[] keys; // Elements stored in the hash table slots
+    private int[] positions; // Position in the list of the element stored in each slot
+    private int mask; // Table capacity minus one, used to wrap probe indices
+    private int count; // Number of occupied slots in the hash table
+
+    /**
+     * Constructs an empty HashList.
+     */
+    public HashList() {
+        super();
+        keys = new Object[INITIAL_TABLE_CAPACITY];
+        positions = new int[INITIAL_TABLE_CAPACITY];
+        mask = INITIAL_TABLE_CAPACITY - 1;
+        count = 0;
+    }
+
+    /**
+     * Constructs an empty HashList presized to hold the given number of elements
+     * without growing the list or rebuilding the index.
+     *
+     * @param initialCapacity The number of elements the list can hold before it grows.
+     */
+    public HashList(int initialCapacity) {
+        super(initialCapacity);
+        int capacity = tableCapacityFor(initialCapacity);
+        keys = new Object[capacity];
+        positions = new int[capacity];
+        mask = capacity - 1;
+        count = 0;
+    }
+
+    /**
+     * Finds the index of the specified object using the hash index.
+     *
+     * @param e The object to find.
+     * @return the index of the object if found, or NOT_FOUND if not.
+     */
+    @Override
+    protected int find(E e) {
+        int slot = slotOf(e);
+        return slot == EMPTY ? NOT_FOUND : positions[slot];
+    }
+
+    /**
+     * Adds a new object to the end of the list if it is not already present.
+     *
+     * @param e The object to be added.
+     */
+    @Override
+    public void add(E e) {
+        int position = size();
+        super.add(e);
+        if (size() > position) { // The object was not a duplicate
+            put(e, position);
+        }
+    }
+
+    /**
+     * Appends every object of another list in one bulk copy and indexes them. As for
+     * List.addAllDistinct, the caller must guarantee that the objects are not already present
+     * and hold no duplicates.
+     *
+     * @param other The list whose objects are to be appended.
+     */
+    @Override
+    public void addAllDistinct(List<E> other) {
+        int first = size();
+        super.addAllDistinct(other);
+        for (int i = first; i < size(); i++) { // The bulk copy bypassed add, so index the copied objects here
+            put(get(i), i);
+        }
+    }
+
+    /**
+     * Makes sure the list and its index can hold at least the given number of elements
+     * without growing again.
+     *
+     * @param minCapacity The number of elements the list should be able to hold.
+     */
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        super.ensureCapacity(minCapacity);
+        if (tableCapacityFor(minCapacity) > keys.length) {
+            rehash(tableCapacityFor(minCapacity));
+        }
+    }
+
+    /**
+     * Removes an object from the list in expected constant time. The last element moves into
+     * the removed object's position, so unlike List.remove this does not keep the order.
+     *
+     * @param e The object to be removed.
+     */
+    @Override
+    public void remove(E e) {
+        int index = find(e);
+        if (index == NOT_FOUND) {
+            return;
+        }
+        delete(e);
+        int last = size() - 1;
+        if (index != last) {
+            positions[slotOf(get(last))] = index; // The last element fills the gap
+        }
+        removeBySwap(index);
+    }
+
+    /**
+     * Sets the object at the specified index to a new value and updates the index.
+     *
+     * The old element is only dropped from the index if the index still maps it to
+     * this position, so swapping two elements through consecutive calls keeps both indexed.
+     *
+     * @param index The index of the object to set.
+     * @param e The new object to set at the index.
+     */
+    @Override
+    public void set(int index, E e) {
+        if (index < 0 || index >= size()) {
+            return;
+        }
+        E old = get(index);
+        if (find(old) == index) {
+            delete(old);
+        }
+        super.set(index, e);
+        put(e, index);
+    }
+
+    /**
+     * Replaces the objects of the list with a reordering of the same objects and
+     * updates the position of every object in the index.
+     *
+     * @param reordered An array holding exactly the objects of this list, in their new order.
+     */
+    @Override
+    void reorder(Object[] reordered) {
+        super.reorder(reordered);
+        for (int i = 0; i < size(); i++) {
+            positions[slotOf(reordered[i])] = i;
+        }
+    }
+
+    /**
+     * Computes the table capacity needed to hold the given number of elements at a load factor of one half.
+     *
+     * @param elements The number of elements to hold.
+     * @return the smallest power of two that is at least twice the number of elements.
+     */
+    private static int tableCapacityFor(int elements) {
+        int capacity = INITIAL_TABLE_CAPACITY;
+        while (capacity < elements * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spreads the bits of a hash code so that the low bits used by the table are well mixed.
+     *
+     * @param e The object to hash.
+     * @return the spread hash code.
+     */
+    private static int hash(Object e) {
+        int h = e.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds the table slot that holds the specified object.
+     *
+     * @param e The object to find.
+     * @return the slot holding the object, or EMPTY if it is not in the table.
+     */
+    private int slotOf(Object e) {
+        int slot = hash(e) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(e)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Maps an object to a position, inserting it into the table if it is not already there.
+     *
+     * @param e The object to map.
+     * @param position The position of the object in the list.
+     */
+    private void put(Object e, int position) {
+        int slot = hash(e) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(e)) {
+                positions[slot] = position;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = e;
+        positions[slot] = position;
+        count++;
+        if (count * 2 > keys.length) { // Keep the load factor at or below one half
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes an object from the table, shifting later entries of its probe run back
+     * so that no tombstones are needed.
+     *
+     * @param e The object to remove.
+     */
+    private void delete(Object e) {
+        int hole = slotOf(e);
+        if (hole == EMPTY) {
+            return;
+        }
+        int slot = (hole + 1) & mask;
+        while (keys[slot] != null) {
+            int home = hash(keys[slot]) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, slot]
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                positions[hole] = positions[slot];
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[hole] = null;
+        count--;
+    }
+
+    /**
+     * Rebuilds the table with a new capacity.
+     *
+     * @param capacity The new number of slots, which must be a power of two.
+     */
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldPositions = positions;
+        keys = new Object[capacity];
+        positions = new int[capacity];
+        mask = capacity - 1;
+        count = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                put(oldKeys[i], oldPositions[i]);
+            }
+        }
+    }
+}
@@ -14,7 +14,7 @@ import java.util.Iterator;
  */
 public class List<E> {
     public static final int INITIAL_CAPACITY = 4; // Initial capacity of the list
-    public static final int INCREASE_CAPACITY = 4; // Amount to increase capacity by when needed
+    public static final int INCREASE_CAPACITY = 4; // Minimum amount to increase capacity by when needed
     public static final int NOT_FOUND = -1; // Constant used to indicate an item not found
 
     private E[] objects; // Array to store the elements of the list
@@ -28,13 +28,25 @@ public class List<E> {
         size = 0; // Initializes size to 0
     }
 
+    /**
+     * Constructs a List presized to hold the given number of elements without growing.
+     *
+     * @param initialCapacity The number of elements the list can hold before it grows.
+     */
+    public List(int initialCapacity) {
+        @SuppressWarnings("unchecked")
+        E[] array = (E[]) new Object[Math.max(initialCapacity, INITIAL_CAPACITY)];
+        objects = array; // Initializes the objects array
+        size = 0; // Initializes size to 0
+    }
+
     /**
      * Finds the index of the specified object in the list.
      *
      * @param e The object to find.
      * @return the index of the object if found, or NOT_FOUND if not.
      */
-    private int find(E e) {
+    protected int find(E e) {
         for (int i = 0; i < size; i++) {
             if (objects[i].equals(e)) {
                 return i; // Return the index if the object is found
@@ -44,16 +56,36 @@ public class List<E> {
     }
 
     /**
-     * Grows the internal array to accommodate more elements.
+     * Grows the internal array by half of its current length (at least INCREASE_CAPACITY),
+     * so a run of n adds costs amortized O(n) copying.
      */
     private void grow() {
-        E[] newObjects = (E[]) new Object[objects.length + INCREASE_CAPACITY]; // Create a new larger array
-        for (int i = 0; i < size; i++) {
-            newObjects[i] = objects[i]; // Copy elements to the new array
-        }
+        resize(objects.length + Math.max(objects.length >> 1, INCREASE_CAPACITY));
+    }
+
+    /**
+     * Replaces the internal array with one of the given length, keeping the current elements.
+     *
+     * @param capacity The new length of the internal array.
+     */
+    private void resize(int capacity) {
+        @SuppressWarnings("unchecked")
+        E[] newObjects = (E[]) new Object[capacity]; // Create a new larger array
+        System.arraycopy(objects, 0, newObjects, 0, size); // Copy elements to the new array
         objects = newObjects; // Update the reference to the new array
     }
 
+    /**
+     * Makes sure the list can hold at least the given number of elements without growing again.
+     *
+     * @param minCapacity The number of elements the list should be able to hold.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > objects.length) {
+            resize(Math.max(minCapacity, objects.length + (objects.length >> 1)));
+        }
+    }
+
     /**
      * Checks if the list contains the specified object.
      *
@@ -79,6 +111,35 @@ public class List<E> {
         objects[size++] = e; // Add the new object and increment the size
     }
 
+    /**
+     * Adds every object of another list that is not already present, keeping their order.
+     * The capacity is reserved once up front, then each object goes through add.
+     *
+     * @param other The list whose objects are to be added.
+     */
+    public void addAll(List<E> other) {
+        int count = other.size; // Read before adding in case other is this list
+        ensureCapacity(size + count);
+        for (int i = 0; i < count; i++) {
+            add(other.objects[i]); // Skips objects that are already present
+        }
+    }
+
+    /**
+     * Appends every object of another list in one bulk copy, keeping their order, without
+     * checking for duplicates. The caller must guarantee that no two objects of the other list
+     * are equal and that none is equal to an object already in this list, as holds when this
+     * list is empty and the other was only filled through add; otherwise use addAll.
+     *
+     * @param other The list whose objects are to be appended.
+     */
+    public void addAllDistinct(List<E> other) {
+        int count = other.size; // Read before adding in case other is this list
+        ensureCapacity(size + count);
+        System.arraycopy(other.objects, 0, objects, size, count);
+        size += count;
+    }
+
     /**
      * Removes an object from the list.
      *
@@ -90,9 +151,18 @@ public class List<E> {
             return; // Do nothing
         }
         // Shift elements to the left to fill the gap
-        for (int i = index; i < size - 1; i++) {
-            objects[i] = objects[i + 1]; // Shift elements to the left
-        }
+        System.arraycopy(objects, index + 1, objects, index, size - index - 1);
+        objects[--size] = null; // Decrement size and set the last element to null
+    }
+
+    /**
+     * Removes the object at an index by moving the last object into its place. This takes O(1)
+     * instead of shifting every later object, but the last object changes position.
+     *
+     * @param index The index of the object to remove, which must be in the list.
+     */
+    void removeBySwap(int index) {
+        objects[index] = objects[size - 1]; // Fill the gap with the last object
         objects[--size] = null; // Decrement size and set the last element to null
     }
 
@@ -149,6 +219,27 @@ public class List<E> {
         objects[index] = e; // Set the object at the index
     }
 
+    /**
+     * Returns a copy of the objects in the list, in list order.
+     *
+     * @return a new array holding the objects of the list.
+     */
+    public Object[] toArray() {
+        Object[] copy = new Object[size];
+        System.arraycopy(objects, 0, copy, 0, size); // Copy the objects in list order
+        return copy;
+    }
+
+    /**
+     * Replaces the objects of the list with a reordering of the same objects.
+     * Used by Sort to write a sorted array back in one pass.
+     *
+     * @param reordered An array holding exactly the objects of this list, in their new order.
+     */
+    void reorder(Object[] reordered) {
+        System.arraycopy(reordered, 0, objects, 0, size); // Overwrite the objects in their new order
+    }
+
     /**
      * Returns the index of the specified object in the list.
      *
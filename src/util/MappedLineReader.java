@@ -0,0 +1,133 @@
+package util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a text file line by line through memory-mapped windows, without copying the lines.
+ *
+ * The file is mapped with FileChannel.map a window at a time, and each line is handed to a
+ * LineHandler as a region of a CharSequence over the mapped bytes, so a Tokenizer can split
+ * it in place. A window ends at the last full line it holds and the next window starts right
+ * after it, so files larger than one mapping are read the same way as small ones.
+ *
+ * Lines end at '\n', and a '\r' before it is dropped, like Scanner.nextLine. The text is a
+ * ByteText, so fields taken from a line are decoded as UTF-8.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class MappedLineReader {
+    public static final int DEFAULT_WINDOW = Integer.MAX_VALUE; // Largest region a single mapping can cover
+
+    private final Path path; // The file to read
+    private final int window; // Most bytes mapped at once
+    private long bytesRead; // Bytes handed to the handler so far, including line terminators
+
+    /**
+     * Receives each line of a file as a region of some text.
+     */
+    public interface LineHandler {
+        /**
+         * Handles one line.
+         *
+         * @param text The text holding the line; only valid until this method returns.
+         * @param from The offset of the first character of the line (inclusive).
+         * @param to The offset just past the last character of the line (exclusive).
+         * @return true to keep reading, false to stop after this line.
+         */
+        boolean line(CharSequence text, int from, int to);
+    }
+
+    /**
+     * Constructs a reader that maps the file with the largest possible windows.
+     *
+     * @param path The file to read.
+     */
+    public MappedLineReader(Path path) {
+        this(path, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Constructs a reader that maps the file in windows of the given size.
+     *
+     * @param path The file to read.
+     * @param window The most bytes mapped at once; no line, counting its terminator, may be longer than this.
+     */
+    public MappedLineReader(Path path, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + window);
+        }
+        this.path = path;
+        this.window = window;
+    }
+
+    /**
+     * Reads the file from the start, handing every line to the handler in order.
+     *
+     * @param handler The handler receiving each line.
+     * @return the number of lines handled.
+     * @throws IOException if the file cannot be read or has a line longer than the window.
+     */
+    public long read(LineHandler handler) throws IOException {
+        bytesRead = 0;
+        long lines = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            ByteText text = new ByteText();
+            while (position < size) {
+                int length = (int) Math.min(window, size - position);
+                boolean lastWindow = position + length == size;
+                text.wrap(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (text.byteAt(i) != '\n') {
+                        continue;
+                    }
+                    lines++;
+                    bytesRead += i + 1 - lineStart;
+                    if (!handler.line(text, lineStart, trimReturn(text, lineStart, i))) {
+                        return lines;
+                    }
+                    lineStart = i + 1;
+                }
+                if (lastWindow) {
+                    if (lineStart < length) { // The last line has no terminator
+                        lines++;
+                        bytesRead += length - lineStart;
+                        handler.line(text, lineStart, trimReturn(text, lineStart, length));
+                    }
+                    break;
+                }
+                if (lineStart == 0) {
+                    throw new IOException("Line at byte " + position + " of " + path + " is longer than " + window + " bytes");
+                }
+                position += lineStart; // Map the unfinished line again at the start of the next window
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Gets the number of bytes handed to the handler by the last read, including line terminators.
+     *
+     * @return the number of bytes read.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Drops a '\r' at the end of a line.
+     *
+     * @param text The text holding the line.
+     * @param from The offset of the first character of the line.
+     * @param to The offset just past the last character of the line.
+     * @return the end of the line without the '\r'.
+     */
+    private static int trimReturn(ByteText text, int from, int to) {
+        return to > from && text.byteAt(to - 1) == '\r' ? to - 1 : to;
+    }
+}
@@ -0,0 +1,291 @@
+package util;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Collects output text in one large reusable buffer and writes it to a channel in bulk.
+ *
+ * Printing to System.out locks the stream and flushes it on every line. An OutputBuffer
+ * instead encodes text as UTF-8 straight into its buffer and only writes to its sink when
+ * the buffer is full or when flush is called, so the caller decides the flush points, such
+ * as the end of each command. Numbers are printed without building intermediate Strings,
+ * and classes with a formatTo method can print themselves the same way.
+ *
+ * The sink is any WritableByteChannel: standard output, a FileChannel, or an in-memory
+ * channel over a ByteArrayOutputStream.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class OutputBuffer {
+    public static final int DEFAULT_CAPACITY = 1 << 16; // Bytes buffered before the sink is written to
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int MAX_DIGITS = 11; // Enough for any int, including the sign
+    private static final int RADIX = 10;
+    private static final String NO_CENTS = ".00"; // Amounts are whole dollars
+    private static final int DIGITS_PER_GROUP = 3;
+
+    private final WritableByteChannel sink; // Where the buffered bytes are written
+    private final ByteBuffer buffer; // Bytes waiting to be written
+    private final byte[] digits; // Scratch space for printing numbers
+
+    /**
+     * Constructs an OutputBuffer with the default capacity.
+     *
+     * @param sink The channel to write to.
+     */
+    public OutputBuffer(WritableByteChannel sink) {
+        this(sink, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an OutputBuffer with the given capacity.
+     *
+     * @param sink The channel to write to.
+     * @param capacity The number of bytes buffered before the sink is written to.
+     */
+    public OutputBuffer(WritableByteChannel sink, int capacity) {
+        this.sink = sink;
+        this.buffer = ByteBuffer.allocate(capacity);
+        this.digits = new byte[MAX_DIGITS];
+    }
+
+    /**
+     * Creates an OutputBuffer that writes to the process's standard output.
+     *
+     * @return a buffer over standard output.
+     */
+    public static OutputBuffer stdout() {
+        return new OutputBuffer(Channels.newChannel(new FileOutputStream(FileDescriptor.out)));
+    }
+
+    /**
+     * Appends a character.
+     *
+     * @param c The character to append.
+     * @return this buffer.
+     */
+    public OutputBuffer print(char c) {
+        if (c < 0x80) {
+            ensureRoom(1);
+            buffer.put((byte) c);
+        } else {
+            putCodePoint(c);
+        }
+        return this;
+    }
+
+    /**
+     * Appends text, or "null" if the text is null.
+     *
+     * @param text The text to append.
+     * @return this buffer.
+     */
+    public OutputBuffer print(CharSequence text) {
+        if (text == null) {
+            text = "null";
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ensureRoom(1);
+                buffer.put((byte) c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                putCodePoint(Character.toCodePoint(c, text.charAt(++i)));
+            } else {
+                putCodePoint(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends the text of an object, as String.valueOf would give it.
+     *
+     * @param object The object to append.
+     * @return this buffer.
+     */
+    public OutputBuffer print(Object object) {
+        return print(String.valueOf(object));
+    }
+
+    /**
+     * Appends a decimal integer.
+     *
+     * @param value The number to append.
+     * @return this buffer.
+     */
+    public OutputBuffer print(int value) {
+        return printNumber(value, 1);
+    }
+
+    /**
+     * Appends a decimal integer padded with leading zeros to at least the given width,
+     * like the format "%02d".
+     *
+     * @param value The number to append.
+     * @param width The minimum number of digits.
+     * @return this buffer.
+     */
+    public OutputBuffer printPadded(int value, int width) {
+        return printNumber(value, width);
+    }
+
+    /**
+     * Appends a whole dollar amount with two decimal places, like the format "%.2f",
+     * optionally grouping thousands with commas like "%,.2f".
+     *
+     * @param dollars The amount in whole dollars.
+     * @param grouping true to separate groups of thousands with commas.
+     * @return this buffer.
+     */
+    public OutputBuffer printAmount(int dollars, boolean grouping) {
+        if (!grouping) {
+            printNumber(dollars, 1);
+        } else {
+            long magnitude = Math.abs((long) dollars);
+            int count = 0;
+            do { // Collect the digits from least to most significant
+                digits[count++] = (byte) ('0' + magnitude % RADIX);
+                magnitude /= RADIX;
+            } while (magnitude > 0);
+            ensureRoom(count + count / DIGITS_PER_GROUP + 1);
+            if (dollars < 0) {
+                buffer.put((byte) '-');
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                buffer.put(digits[i]);
+                if (i > 0 && i % DIGITS_PER_GROUP == 0) {
+                    buffer.put((byte) ',');
+                }
+            }
+        }
+        return print(NO_CENTS);
+    }
+
+    /**
+     * Appends a line separator.
+     *
+     * @return this buffer.
+     */
+    public OutputBuffer println() {
+        return print(LINE_SEPARATOR);
+    }
+
+    /**
+     * Appends text followed by a line separator.
+     *
+     * @param text The text to append.
+     * @return this buffer.
+     */
+    public OutputBuffer println(CharSequence text) {
+        return print(text).println();
+    }
+
+    /**
+     * Appends the text of an object followed by a line separator.
+     *
+     * @param object The object to append.
+     * @return this buffer.
+     */
+    public OutputBuffer println(Object object) {
+        return print(object).println();
+    }
+
+    /**
+     * Writes everything buffered so far to the sink.
+     *
+     * @throws UncheckedIOException if the sink cannot be written to.
+     */
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                sink.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Gets the number of bytes waiting to be written.
+     *
+     * @return the number of buffered bytes.
+     */
+    public int pending() {
+        return buffer.position();
+    }
+
+    /**
+     * Appends a decimal integer padded with leading zeros to at least the given width.
+     *
+     * @param value The number to append.
+     * @param width The minimum number of digits.
+     * @return this buffer.
+     */
+    private OutputBuffer printNumber(int value, int width) {
+        long magnitude = Math.abs((long) value);
+        int count = 0;
+        do { // Collect the digits from least to most significant
+            digits[count++] = (byte) ('0' + magnitude % RADIX);
+            magnitude /= RADIX;
+        } while (magnitude > 0);
+        ensureRoom(Math.max(count, width) + 1);
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        for (int i = count; i < width; i++) {
+            buffer.put((byte) '0');
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            buffer.put(digits[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Appends a character outside of ASCII encoded as UTF-8. Unpaired surrogates are
+     * replaced with '?', as the standard UTF-8 encoder does.
+     *
+     * @param codePoint The code point to append.
+     */
+    private void putCodePoint(int codePoint) {
+        ensureRoom(4);
+        if (codePoint < 0x800) {
+            buffer.put((byte) (0xC0 | (codePoint >> 6)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            buffer.put((byte) '?');
+        } else if (codePoint < 0x10000) {
+            buffer.put((byte) (0xE0 | (codePoint >> 12)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+
+    /**
+     * Makes sure the buffer has room for the given number of bytes, writing it out first if not.
+     *
+     * @param bytes The number of bytes about to be appended.
+     */
+    private void ensureRoom(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
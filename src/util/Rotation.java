@@ -0,0 +1,222 @@
+package util;
+
+import java.util.Iterator;
+
+/**
+ * A round-robin rotation of distinct members, backed by an array.
+ *
+ * The rotation keeps its members in a HashList together with a cursor to the member whose
+ * turn is next. Reading the member a given number of turns ahead and advancing the cursor are
+ * O(1), and so is finding a member's position. Members can be added and removed at any time;
+ * the cursor keeps pointing at the same next member. Removing takes O(n), since the members
+ * after the removed one must keep their order.
+ *
+ * Iterating the rotation walks a snapshot taken when the iterator is created, starting with
+ * the next member, so the rotation can change while it is being iterated.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ *
+ * @param <E> the type of members in the rotation
+ */
+public class Rotation<E> implements Iterable<E> {
+    public static final int NOT_FOUND = -1; // Constant used to indicate a member not found
+
+    private final HashList<E> members; // The members, in rotation order starting from index 0
+    private int cursor; // Index in members of the member whose turn is next
+
+    /**
+     * Constructs an empty Rotation.
+     */
+    public Rotation() {
+        members = new HashList<E>();
+        cursor = 0;
+    }
+
+    /**
+     * Adds a member so that its turn comes after every current member.
+     *
+     * @param e The member to add; ignored if it is already in the rotation.
+     */
+    public void add(E e) {
+        if (members.contains(e)) {
+            return;
+        }
+        if (cursor == 0) {
+            members.add(e); // The end of the array is the end of the rotation
+            return;
+        }
+        // Shift the members before the cursor back by one so the new member lands just before the cursor
+        Object[] order = new Object[members.size() + 1];
+        Object[] current = members.toArray();
+        System.arraycopy(current, 0, order, 0, cursor);
+        order[cursor] = e;
+        System.arraycopy(current, cursor, order, cursor + 1, current.length - cursor);
+        members.add(e);
+        members.reorder(order);
+        cursor++;
+    }
+
+    /**
+     * Removes a member from the rotation. If it was the member whose turn was next,
+     * the turn passes to the member after it.
+     *
+     * @param e The member to remove.
+     */
+    public void remove(E e) {
+        int index = members.indexOf(e);
+        if (index == List.NOT_FOUND) {
+            return;
+        }
+        Object[] order = new Object[members.size() - 1];
+        Object[] current = members.toArray();
+        System.arraycopy(current, 0, order, 0, index);
+        System.arraycopy(current, index + 1, order, index, order.length - index);
+        members.remove(e); // Moves the last member into the gap
+        members.reorder(order); // Puts the members back in rotation order
+        if (index < cursor) {
+            cursor--;
+        }
+        if (cursor >= members.size()) {
+            cursor = 0;
+        }
+    }
+
+    /**
+     * Gets the member a number of turns ahead of the next one.
+     *
+     * @param turns How many members to skip past the next one (0 for the next member).
+     * @return the member, or null if the rotation is empty.
+     */
+    public E get(int turns) {
+        if (members.isEmpty()) {
+            return null;
+        }
+        return members.get((cursor + turns) % members.size());
+    }
+
+    /**
+     * Gets how many turns ahead a member is.
+     *
+     * @param e The member to find.
+     * @return the number of members before it in the rotation, or NOT_FOUND if it is not a member.
+     */
+    public int turnsUntil(E e) {
+        int index = members.indexOf(e);
+        if (index == List.NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        return Math.floorMod(index - cursor, members.size());
+    }
+
+    /**
+     * Moves the cursor ahead by a number of turns.
+     *
+     * @param turns How many members to move past.
+     */
+    public void advance(int turns) {
+        if (!members.isEmpty()) {
+            cursor = (cursor + turns) % members.size();
+        }
+    }
+
+    /**
+     * Reverses the order of the rotation. The member that was last in turn becomes the next one.
+     */
+    public void reverse() {
+        int size = members.size();
+        Object[] order = new Object[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = members.get(Math.floorMod(cursor - 1 - i, size));
+        }
+        members.reorder(order);
+        cursor = 0;
+    }
+
+    /**
+     * Checks if a member is in the rotation.
+     *
+     * @param e The member to check for.
+     * @return true if it is in the rotation, false otherwise.
+     */
+    public boolean contains(E e) {
+        return members.contains(e);
+    }
+
+    /**
+     * Gets the number of members in the rotation.
+     *
+     * @return the number of members.
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Checks if the rotation is empty.
+     *
+     * @return true if there are no members, false otherwise.
+     */
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * Copies the members in turn order, starting with the next member.
+     *
+     * @return an array of the members in turn order.
+     */
+    public Object[] snapshot() {
+        int size = members.size();
+        Object[] order = new Object[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = members.get((cursor + i) % size);
+        }
+        return order;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the members in turn order.
+     *
+     * @return an Iterator for the rotation.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new RotationIterator(snapshot());
+    }
+
+    /**
+     * An inner class that iterates over a snapshot of the rotation.
+     */
+    private class RotationIterator implements Iterator<E> {
+        private final Object[] order; // The members in turn order when the iterator was created
+        private int currentIndex = 0; // Current index for iteration
+
+        /**
+         * Constructs an iterator over a snapshot.
+         *
+         * @param order The members in turn order.
+         */
+        RotationIterator(Object[] order) {
+            this.order = order;
+        }
+
+        /**
+         * Checks if there are more members to iterate over.
+         *
+         * @return true if there are more members, false otherwise.
+         */
+        public boolean hasNext() {
+            return currentIndex < order.length;
+        }
+
+        /**
+         * Returns the next member in the iteration.
+         *
+         * @return the next member in turn order.
+         */
+        @SuppressWarnings("unchecked")
+        public E next() {
+            return (E) order[currentIndex++];
+        }
+    }
+}
@@ -1,103 +1,328 @@
 package util;
 import clinic.*;
 import util.List;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * A utility class for sorting appointments and providers.
- * 
- * The class provides methods to sort lists of appointments and providers
- * based on various criteria using a selection sort algorithm.
- * 
+ *
+ * The class provides the orderings used by the print commands as comparator chains,
+ * and sorts lists with a stable merge sort, so elements that compare equal keep
+ * their relative order.
+ *
+ * The appointment orderings defined here are also kept on precomputed keys: the fields of an
+ * appointment are extracted once into small integers (county rank, epoch day, timeslot, provider
+ * rank) and packed into a single long, so an ordering compares primitives instead of chasing
+ * through the provider's location and profile. The appointment store builds these keys for each
+ * row as it is added.
+ *
+ * Lists and arrays of at least PARALLEL_THRESHOLD elements are sorted in parallel on the common
+ * ForkJoinPool; smaller ones are sorted on the calling thread. Comparators used with
+ * large lists must therefore be safe to call from several threads, as the ones here are.
+ *
  * @author Dhawal Arora (Netid: da812)
  */
 public class Sort {
     public static final int EQUAL = 0; // Constant used to indicate equality
-    public static final char DATE_TIME_PROVIDER_NAME = 'A'; // Sort by appointment date/time and provider name
-    public static final char PATIENT_DATE_TIME = 'P'; // Sort by patient and appointment date/time
-    public static final char COUNTY_DATE_TIME = 'L'; // Sort by provider county and appointment date/time
-    public static final char PROVIDER_NAME_DOB = 'N'; // Sort by provider name and date of birth
+    public static final int INSERTION_SORT_THRESHOLD = 32; // Runs up to this length are sorted by insertion sort
+    public static final int PARALLEL_THRESHOLD = 8192; // Lists of at least this size are sorted in parallel
+    private static final int SLOT_BITS = 4; // Bits needed for a timeslot number (1 to 12)
+    private static final int DAY_BITS = Integer.SIZE; // Bits of an epoch day, offset so it is never negative
+    private static final int TIME_BITS = DAY_BITS + SLOT_BITS; // Bits of a packed date and timeslot
+    private static final int RANK_BITS = Long.SIZE - 1 - TIME_BITS; // Bits left for a rank while keeping a key non-negative
+    public static final int MAX_RANK = (1 << RANK_BITS) - 1; // Largest rank that fits in a packed key
+    private static final int[] COUNTY_RANK = countyRanks(); // Alphabetical rank of each location's county, by ordinal
+
+    /**
+     * Orders providers by profile (last name, first name, then date of birth).
+     */
+    public static final Comparator<Provider> PROVIDER_PROFILE =
+            Comparator.comparing(Provider::getProfile);
+
+    /**
+     * Orders appointments by date/time, then provider profile. Used for the PA command;
+     * the appointment store keeps this order on timeRankKey.
+     */
+    public static final Comparator<Appointment> DATE_TIME_PROVIDER_NAME =
+            Comparator.<Appointment>naturalOrder()
+                    .thenComparing(appointment -> appointment.getProvider().getProfile());
+
+    /**
+     * Orders appointments by patient profile, then date/time. Used for the PP and PS commands;
+     * the appointment store keeps this order on the profile, then timeKey.
+     */
+    public static final Comparator<Appointment> PATIENT_DATE_TIME =
+            Comparator.comparing((Appointment appointment) -> appointment.getPatient().getProfile())
+                    .thenComparing(Comparator.naturalOrder());
 
     /**
-     * Sorts a list of appointments based on the specified key.
+     * Orders appointments by provider county, then date/time, then patient profile.
+     * Used for the PL, PO, and PI commands; the appointment store keeps this order on rankTimeKey.
+     */
+    public static final Comparator<Appointment> COUNTY_DATE_TIME =
+            Comparator.comparing((Appointment appointment) -> ((Provider) appointment.getProvider()).getLocation().getCounty())
+                    .thenComparing(Comparator.naturalOrder())
+                    .thenComparing(appointment -> appointment.getPatient().getProfile());
+
+    /**
+     * Orders appointments by provider profile. Used for the PC command.
+     */
+    public static final Comparator<Appointment> PROVIDER_NAME_DOB =
+            Comparator.comparing(Appointment::getProvider);
+
+    /**
+     * Sorts a list of providers by profile.
      *
-     * @param list The list of appointments to sort.
-     * @param key The key to sort by (as specified by the defined constants).
-     */
-    public static void appointment(List<Appointment> list, char key) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            int min = i; // Assume the minimum is the first element
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment current = list.get(j);
-                Appointment minElement = list.get(min);
-                if (compareAppointments(current, minElement, key) < 0) {
-                    min = j; // Update min if current is less than minElement
-                }
-            }
-            Appointment temp = list.get(min);
-            list.set(min, list.get(i)); // Swap the found minimum element with the first element
-            list.set(i, temp);
+     * @param list The list of providers to sort.
+     */
+    public static void provider(List<Provider> list) { // Used for Providers.txt import and PC command
+        sort(list, PROVIDER_PROFILE);
+    }
+
+    /**
+     * Sorts any list in the specified order with a stable merge sort.
+     * The list is copied out once, sorted, and written back in one pass.
+     * Lists of at least PARALLEL_THRESHOLD elements are sorted in parallel.
+     *
+     * @param list The list to sort.
+     * @param order The ordering to sort by.
+     * @param <E> the type of elements in the list
+     */
+    public static <E> void sort(List<E> list, Comparator<? super E> order) {
+        if (list.size() < 2) {
+            return;
         }
+        Object[] elements = list.toArray();
+        sortElements(elements, order);
+        list.reorder(elements);
     }
 
     /**
-     * Sorts a list of providers.
+     * Sorts an array in the specified order with a stable merge sort.
+     * Arrays of at least PARALLEL_THRESHOLD elements are sorted in parallel.
      *
-     * @param list The list of providers to sort.
+     * @param array The array to sort.
+     * @param order The ordering to sort by.
+     * @param <E> the type of elements in the array
      */
-    public static void provider(List<Provider> list) { // Used for Providers.txt import and PC command
-        for (int i = 0; i < list.size() - 1; i++) {
-            int min = i; // Assume the minimum is the first element
-            for (int j = i + 1; j < list.size(); j++) {
-                Provider current = list.get(j);
-                Provider minElement = list.get(min);
-                if (current.getProfile().compareTo(minElement.getProfile()) < 0) {
-                    min = j; // Update min if current provider profile is less than minElement
-                }
+    public static <E> void sort(E[] array, Comparator<? super E> order) {
+        if (array.length >= 2) {
+            sortElements(array, order);
+        }
+    }
+
+    /**
+     * Sorts an array with the merge sort, in parallel if it has at least PARALLEL_THRESHOLD elements.
+     *
+     * @param elements The array to sort.
+     * @param order The ordering to sort by.
+     * @param <E> the type of elements being sorted
+     */
+    private static <E> void sortElements(Object[] elements, Comparator<? super E> order) {
+        Object[] aux = new Object[elements.length];
+        if (elements.length >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new MergeSortTask<E>(elements, aux, 0, elements.length, order));
+        } else {
+            mergeSort(elements, aux, 0, elements.length, order);
+        }
+    }
+
+    /**
+     * A fork/join task that merge sorts a range of an array by sorting its two halves
+     * in parallel and then merging them. Ranges below PARALLEL_THRESHOLD are sorted
+     * sequentially. Each task only touches its own range of both arrays.
+     *
+     * @param <E> the type of elements being sorted
+     */
+    private static class MergeSortTask<E> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] a; // The array to sort
+        private final Object[] aux; // Auxiliary array used for merging
+        private final int from; // First index of the range (inclusive)
+        private final int to; // Last index of the range (exclusive)
+        private final Comparator<? super E> order; // The ordering to sort by
+
+        /**
+         * Constructs a task that sorts a range of an array.
+         *
+         * @param a The array to sort.
+         * @param aux An auxiliary array of the same length used for merging.
+         * @param from The first index of the range (inclusive).
+         * @param to The last index of the range (exclusive).
+         * @param order The ordering to sort by.
+         */
+        MergeSortTask(Object[] a, Object[] aux, int from, int to, Comparator<? super E> order) {
+            this.a = a;
+            this.aux = aux;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+        }
+
+        /**
+         * Sorts the range, splitting it into two parallel subtasks if it is large enough.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                mergeSort(a, aux, from, to, order);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MergeSortTask<E>(a, aux, from, mid, order), new MergeSortTask<E>(a, aux, mid, to, order));
+            if (order.compare((E) a[mid - 1], (E) a[mid]) > EQUAL) {
+                merge(a, aux, from, mid, to, order);
             }
-            Provider temp = list.get(min);
-            list.set(min, list.get(i)); // Swap the found minimum element with the first element
-            list.set(i, temp);
         }
     }
 
     /**
-     * A helper method that compares two appointments based on the specified key.
+     * Sorts a range of an array with a top-down merge sort, falling back to insertion sort
+     * for short runs.
+     *
+     * @param a The array to sort.
+     * @param aux An auxiliary array of the same length used for merging.
+     * @param from The first index of the range (inclusive).
+     * @param to The last index of the range (exclusive).
+     * @param order The ordering to sort by.
+     * @param <E> the type of elements being sorted
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void mergeSort(Object[] a, Object[] aux, int from, int to, Comparator<? super E> order) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, from, to, order);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, aux, from, mid, order);
+        mergeSort(a, aux, mid, to, order);
+        if (order.compare((E) a[mid - 1], (E) a[mid]) <= EQUAL) {
+            return; // The two halves are already in order
+        }
+        merge(a, aux, from, mid, to, order);
+    }
+
+    /**
+     * Merges two adjacent sorted ranges of an array. Ties are taken from the left range
+     * first, which keeps the sort stable.
      *
-     * @param a1 The first appointment to compare.
-     * @param a2 The second appointment to compare.
-     * @param key The key(s) to compare by.
-     * @return -1 if a1 is less than a2, 0 if they are equal, 1 if a1 is greater than a2.
-     */
-    private static int compareAppointments(Appointment a1, Appointment a2, char key) {
-        int dateTimeComparison = a1.compareTo(a2);
-        int patientComparison = a1.getPatient().getProfile().compareTo(a2.getPatient().getProfile());
-        Provider provider1 = (Provider)(a1.getProvider());
-        Provider provider2 = (Provider)(a2.getProvider());
-        int providerComparison = provider1.compareTo(provider2);
-        int countyComparison = provider1.getLocation().getCounty().compareTo(provider2.getLocation().getCounty());
-
-        if (key == DATE_TIME_PROVIDER_NAME) {
-            if (dateTimeComparison != EQUAL) {
-                return dateTimeComparison; // Compare by date/time first
+     * @param a The array holding both ranges.
+     * @param aux An auxiliary array of the same length used for merging.
+     * @param from The first index of the left range (inclusive).
+     * @param mid The first index of the right range.
+     * @param to The last index of the right range (exclusive).
+     * @param order The ordering to sort by.
+     * @param <E> the type of elements being sorted
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void merge(Object[] a, Object[] aux, int from, int mid, int to, Comparator<? super E> order) {
+        System.arraycopy(a, from, aux, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (left >= mid) {
+                a[i] = aux[right++];
+            } else if (right >= to) {
+                a[i] = aux[left++];
+            } else if (order.compare((E) aux[right], (E) aux[left]) < EQUAL) {
+                a[i] = aux[right++];
             } else {
-                return a1.getProvider().getProfile().compareTo(a2.getProvider().getProfile()); // Then compare by provider
+                a[i] = aux[left++];
             }
-        } else if (key == PATIENT_DATE_TIME) {
-            if (patientComparison != EQUAL) {
-                return patientComparison; // Compare by patient first
-            } else {
-                return dateTimeComparison; // Then compare by date/time
+        }
+    }
+
+    /**
+     * Sorts a short range of an array with a stable insertion sort.
+     *
+     * @param a The array to sort.
+     * @param from The first index of the range (inclusive).
+     * @param to The last index of the range (exclusive).
+     * @param order The ordering to sort by.
+     * @param <E> the type of elements being sorted
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> void insertionSort(Object[] a, int from, int to, Comparator<? super E> order) {
+        for (int i = from + 1; i < to; i++) {
+            Object current = a[i];
+            int j = i - 1;
+            while (j >= from && order.compare((E) a[j], (E) current) > EQUAL) {
+                a[j + 1] = a[j]; // Shift larger elements to the right
+                j--;
             }
-        } else if (key == COUNTY_DATE_TIME) {
-            if (countyComparison != EQUAL) {
-                return countyComparison; // Compare by county first
-            } else if (dateTimeComparison != EQUAL) {
-                return dateTimeComparison; // Then compare by date/time
-            } else {
-                return patientComparison; // Finally compare by patient
+            a[j + 1] = current;
+        }
+    }
+
+    /**
+     * Packs a date and a timeslot into a key that orders by date, then timeslot.
+     *
+     * @param epochDay The epoch day of the date.
+     * @param slot The timeslot number.
+     * @return the packed key, which is never negative.
+     */
+    public static long timeKey(int epochDay, int slot) {
+        return (((long) epochDay - Integer.MIN_VALUE) << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Packs a date, a timeslot and a rank into a key that orders by date, then timeslot, then rank.
+     * Used for the date/time/provider ordering, with the provider's profile rank.
+     *
+     * @param epochDay The epoch day of the date.
+     * @param slot The timeslot number.
+     * @param rank The rank, from 0 to MAX_RANK.
+     * @return the packed key, which is never negative.
+     */
+    public static long timeRankKey(int epochDay, int slot, int rank) {
+        return (timeKey(epochDay, slot) << RANK_BITS) | rank;
+    }
+
+    /**
+     * Packs a rank, a date and a timeslot into a key that orders by rank, then date, then timeslot.
+     * Used for the county/date/time ordering, with the provider's county rank.
+     *
+     * @param rank The rank, from 0 to MAX_RANK.
+     * @param epochDay The epoch day of the date.
+     * @param slot The timeslot number.
+     * @return the packed key, which is never negative.
+     */
+    public static long rankTimeKey(int rank, int epochDay, int slot) {
+        return ((long) rank << TIME_BITS) | timeKey(epochDay, slot);
+    }
+
+    /**
+     * Gets the alphabetical rank of a location's county among all counties.
+     *
+     * @param location The location.
+     * @return the county rank.
+     */
+    public static int countyRank(Location location) {
+        return COUNTY_RANK[location.ordinal()];
+    }
+
+    /**
+     * Computes the alphabetical rank of each location's county among all counties.
+     *
+     * @return the county ranks, indexed by location ordinal.
+     */
+    private static int[] countyRanks() {
+        Location[] locations = Location.values();
+        int[] ranks = new int[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            List<String> smallerCounties = new List<>();
+            for (Location other : locations) {
+                if (other.getCounty().compareTo(locations[i].getCounty()) < EQUAL) {
+                    smallerCounties.add(other.getCounty());
+                }
             }
-        } else if (key == PROVIDER_NAME_DOB) {
-            return providerComparison; // Compare by provider name and date of birth
+            ranks[i] = smallerCounties.size();
         }
-        return EQUAL; // Default return for equal
+        return ranks;
     }
 }
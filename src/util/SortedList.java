@@ -0,0 +1,214 @@
+package util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * A dynamic array that keeps its elements ordered by a comparator at all times.
+ *
+ * Insertion finds its position with a binary search and shifts the tail of the array,
+ * so the list can be kept up to date incrementally instead of being re-sorted.
+ * Elements that compare equal stay in insertion order. Iterating the list visits the
+ * elements in order without modifying anything.
+ *
+ * The comparator should only return zero for elements that are interchangeable for
+ * ordering purposes; removal searches the run of elements comparing equal to its argument.
+ *
+ * @author Dhawal Arora (Netid: da812)
+ *
+ * @param <E> the type of elements in this list
+ */
+public class SortedList<E> implements Iterable<E> {
+    public static final int INITIAL_CAPACITY = 4; // Initial capacity of the list
+    public static final int NOT_FOUND = -1; // Constant used to indicate an item not found
+
+    private final Comparator<? super E> order; // The ordering the elements are kept in
+    private E[] objects; // Array to store the elements in order
+    private int size; // Current size of the list
+
+    /**
+     * Constructs an empty SortedList kept in the given order.
+     *
+     * @param order The ordering to keep the elements in.
+     */
+    public SortedList(Comparator<? super E> order) {
+        this.order = order;
+        @SuppressWarnings("unchecked")
+        E[] array = (E[]) new Object[INITIAL_CAPACITY];
+        objects = array;
+        size = 0;
+    }
+
+    /**
+     * Inserts an object at its position in the ordering, after any objects that compare equal to it.
+     *
+     * @param e The object to insert.
+     */
+    public void add(E e) {
+        if (size == objects.length) {
+            @SuppressWarnings("unchecked")
+            E[] newObjects = (E[]) new Object[objects.length + Math.max(objects.length >> 1, INITIAL_CAPACITY)];
+            System.arraycopy(objects, 0, newObjects, 0, size);
+            objects = newObjects;
+        }
+        int index = upperBound(e);
+        System.arraycopy(objects, index, objects, index + 1, size - index); // Make room at the index
+        objects[index] = e;
+        size++;
+    }
+
+    /**
+     * Removes an object from the list.
+     *
+     * @param e The object to remove.
+     */
+    public void remove(E e) {
+        int index = indexOf(e);
+        if (index == NOT_FOUND) {
+            return;
+        }
+        System.arraycopy(objects, index + 1, objects, index, size - index - 1); // Close the gap
+        objects[--size] = null;
+    }
+
+    /**
+     * Finds the index of an object by searching the run of objects that compare equal to it.
+     *
+     * @param e The object to find.
+     * @return the index of the object if found, or NOT_FOUND if not.
+     */
+    public int indexOf(E e) {
+        for (int i = lowerBound(e); i < size && order.compare(objects[i], e) == 0; i++) {
+            if (objects[i].equals(e)) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Checks if the list contains the specified object.
+     *
+     * @param e The object to check for.
+     * @return true if the object is in the list, false otherwise.
+     */
+    public boolean contains(E e) {
+        return indexOf(e) != NOT_FOUND;
+    }
+
+    /**
+     * Gets the object at the specified position in the ordering.
+     *
+     * @param index The index of the object to retrieve.
+     * @return the object at the specified index, or null if the index is out of bounds.
+     */
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return objects[index];
+    }
+
+    /**
+     * Removes every object from the list.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            objects[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return true if the list is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the current size of the list.
+     *
+     * @return the number of elements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns an iterator over the elements in order.
+     *
+     * @return an Iterator for the list.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SortedListIterator();
+    }
+
+    /**
+     * Finds the first index whose object does not compare less than the given object.
+     *
+     * @param e The object to search for.
+     * @return the first index at or after which the object could be inserted.
+     */
+    private int lowerBound(E e) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(objects[mid], e) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first index whose object compares greater than the given object.
+     *
+     * @param e The object to search for.
+     * @return the last index at which the object could be inserted.
+     */
+    private int upperBound(E e) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(objects[mid], e) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * An inner class that iterates over the SortedList in order.
+     */
+    private class SortedListIterator implements Iterator<E> {
+        private int currentIndex = 0; // Current index for iteration
+
+        /**
+         * Checks if there are more elements to iterate over.
+         *
+         * @return true if there are more elements, false otherwise.
+         */
+        public boolean hasNext() {
+            return currentIndex < size;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the list.
+         */
+        public E next() {
+            return objects[currentIndex++];
+        }
+    }
+}
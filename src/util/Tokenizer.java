@@ -0,0 +1,282 @@
+package util;
+
+/**
+ * Splits a line of text into delimited fields without copying it.
+ *
+ * The tokenizer only records the start and end offset of each field in the source
+ * text, so splitting a line allocates nothing once the offset arrays are large enough.
+ * Fields are compared and parsed in place; a field is only turned into a String when
+ * the caller asks for one. A tokenizer is meant to be reused for line after line.
+ *
+ * Splitting follows String.split: every delimiter ends a field, and empty fields at
+ * the end of the line are dropped.
+ *
+ * @author Joshua Goykhman (Netid: jg1986)
+ */
+public class Tokenizer {
+    public static final int INITIAL_CAPACITY = 8; // Initial number of fields the offset arrays can hold
+    private static final int RADIX = 10; // Fields are parsed as decimal numbers
+
+    private final String delimiter; // The text separating two fields
+    private CharSequence source; // The text the current fields point into
+    private int[] starts; // Start offset of each field (inclusive)
+    private int[] ends; // End offset of each field (exclusive)
+    private int size; // Number of fields in the current line
+
+    /**
+     * Constructs a tokenizer that splits on the given delimiter.
+     *
+     * @param delimiter The text separating two fields, such as "," or "  ".
+     */
+    public Tokenizer(String delimiter) {
+        this.delimiter = delimiter;
+        starts = new int[INITIAL_CAPACITY];
+        ends = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Splits a whole line into fields, replacing the fields of the previous line.
+     *
+     * @param line The line to split.
+     * @return the number of fields.
+     */
+    public int split(CharSequence line) {
+        return split(line, 0, line.length());
+    }
+
+    /**
+     * Splits a region of some text into fields, replacing the fields of the previous line.
+     *
+     * @param text The text holding the line.
+     * @param from The offset of the first character of the line (inclusive).
+     * @param to The offset just past the last character of the line (exclusive).
+     * @return the number of fields.
+     */
+    public int split(CharSequence text, int from, int to) {
+        source = text;
+        size = 0;
+        int fieldStart = from;
+        int last = to - delimiter.length();
+        int i = from;
+        while (i <= last) {
+            if (delimiterAt(text, i)) {
+                addField(fieldStart, i);
+                i += delimiter.length();
+                fieldStart = i;
+            } else {
+                i++;
+            }
+        }
+        addField(fieldStart, to);
+        while (size > 0 && starts[size - 1] == ends[size - 1]) { // Drop trailing empty fields
+            size--;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of fields in the current line.
+     *
+     * @return the number of fields.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the text the current fields point into.
+     *
+     * @return the source text.
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the offset of the first character of a field.
+     *
+     * @param field The index of the field.
+     * @return the start offset of the field (inclusive).
+     */
+    public int start(int field) {
+        return starts[field];
+    }
+
+    /**
+     * Gets the offset just past the last character of a field.
+     *
+     * @param field The index of the field.
+     * @return the end offset of the field (exclusive).
+     */
+    public int end(int field) {
+        return ends[field];
+    }
+
+    /**
+     * Copies a field into a new String.
+     *
+     * @param field The index of the field.
+     * @return the text of the field.
+     */
+    public String field(int field) {
+        return source.subSequence(starts[field], ends[field]).toString();
+    }
+
+    /**
+     * Checks if a field is exactly the given text.
+     *
+     * @param field The index of the field.
+     * @param text The text to compare with.
+     * @return true if the field exists and equals the text, false otherwise.
+     */
+    public boolean fieldEquals(int field, String text) {
+        if (field >= size || ends[field] - starts[field] != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (source.charAt(starts[field] + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a field is the given text, ignoring letter case and whitespace around the field.
+     *
+     * @param field The index of the field.
+     * @param text The text to compare with.
+     * @return true if the field exists and matches the text, false otherwise.
+     */
+    public boolean fieldEqualsIgnoreCase(int field, String text) {
+        if (field >= size) {
+            return false;
+        }
+        int from = starts[field];
+        int to = ends[field];
+        while (from < to && Character.isWhitespace(source.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(source.charAt(to - 1))) {
+            to--;
+        }
+        if (to - from != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char a = source.charAt(from + i);
+            char b = text.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first of the given candidates that a field is exactly equal to.
+     *
+     * @param field The index of the field.
+     * @param candidates The texts to compare with.
+     * @return the matching candidate, or null if the field matches none of them.
+     */
+    public String match(int field, String[] candidates) {
+        for (String candidate : candidates) {
+            if (fieldEquals(field, candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a field as a decimal integer, with the same rules as Integer.parseInt.
+     *
+     * @param field The index of the field.
+     * @return the value of the field.
+     * @throws NumberFormatException if the field is not a valid integer.
+     */
+    public int parseInt(int field) {
+        return parseInt(source, starts[field], ends[field]);
+    }
+
+    /**
+     * Parses a field as a date in the format "MM/DD/YYYY".
+     *
+     * @param field The index of the field.
+     * @return the date, which may not be a valid calendar date.
+     * @throws IllegalArgumentException if the field is not formatted as a date.
+     */
+    public Date parseDate(int field) {
+        return Date.parse(source, starts[field], ends[field]);
+    }
+
+    /**
+     * Parses a region of text as a decimal integer, with the same rules as Integer.parseInt:
+     * an optional sign followed by at least one digit, and no other characters.
+     *
+     * @param text The text holding the number.
+     * @param from The offset of the first character (inclusive).
+     * @param to The offset just past the last character (exclusive).
+     * @return the value of the number.
+     * @throws NumberFormatException if the region is not a valid integer.
+     */
+    public static int parseInt(CharSequence text, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        if (i >= to) {
+            throw new NumberFormatException("For input string: \"" + text.subSequence(from, to) + "\"");
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), RADIX);
+            value = value * RADIX + digit;
+            if (digit < 0 || value > limit) {
+                throw new NumberFormatException("For input string: \"" + text.subSequence(from, to) + "\"");
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Checks if the delimiter occurs at an offset of the text.
+     *
+     * @param text The text to check.
+     * @param offset The offset to check at.
+     * @return true if the delimiter starts at the offset, false otherwise.
+     */
+    private boolean delimiterAt(CharSequence text, int offset) {
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (text.charAt(offset + i) != delimiter.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a field, growing the offset arrays if they are full.
+     *
+     * @param start The start offset of the field (inclusive).
+     * @param end The end offset of the field (exclusive).
+     */
+    private void addField(int start, int end) {
+        if (size == starts.length) {
+            int[] newStarts = new int[starts.length * 2];
+            int[] newEnds = new int[ends.length * 2];
+            System.arraycopy(starts, 0, newStarts, 0, size);
+            System.arraycopy(ends, 0, newEnds, 0, size);
+            starts = newStarts;
+            ends = newEnds;
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+}